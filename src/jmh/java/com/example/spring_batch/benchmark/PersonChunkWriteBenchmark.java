@@ -0,0 +1,94 @@
+package com.example.spring_batch.benchmark;
+
+import com.example.spring_batch.domain.model.Person;
+import com.example.spring_batch.infrastructure.batch.processor.PersonItemProcessor;
+import com.example.spring_batch.infrastructure.batch.writer.PersonJdbcBatchItemWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.batch.item.Chunk;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Processes and writes {@code rows} generated persons into an embedded H2 {@code persons} table,
+ * one transaction per chunk, the way the import step does with the JDBC writer.
+ * The table is emptied before every invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PersonChunkWriteBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int chunkSize;
+
+    @Param({"10000", "1000000", "10000000"})
+    public int rows;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private PersonJdbcBatchItemWriter writer;
+    private final PersonItemProcessor processor = new PersonItemProcessor();
+
+    @Setup(Level.Trial)
+    public void createDatabase() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1", "sa", "", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        writer = new PersonJdbcBatchItemWriter(jdbcTemplate, 100);
+        jdbcTemplate.execute("CREATE TABLE persons ("
+                + "id UUID PRIMARY KEY, "
+                + "first_name VARCHAR(100) NOT NULL, "
+                + "last_name VARCHAR(100) NOT NULL, "
+                + "email VARCHAR(255) UNIQUE, "
+                + "created_at TIMESTAMP NOT NULL, "
+                + "updated_at TIMESTAMP)");
+    }
+
+    @Setup(Level.Invocation)
+    public void truncate() {
+        jdbcTemplate.execute("TRUNCATE TABLE persons");
+    }
+
+    @TearDown(Level.Trial)
+    public void dropDatabase() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public int processAndWrite() {
+        for (int from = 0; from < rows; from += chunkSize) {
+            List<Person> persons = PersonDataGenerator.persons(from, Math.min(chunkSize, rows - from));
+            transactionTemplate.executeWithoutResult(status -> {
+                try {
+                    Chunk<Person> chunk = new Chunk<>();
+                    for (Person person : persons) {
+                        Person processed = processor.process(person);
+                        if (processed != null) {
+                            chunk.add(processed);
+                        }
+                    }
+                    writer.write(chunk);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        }
+        return rows;
+    }
+}
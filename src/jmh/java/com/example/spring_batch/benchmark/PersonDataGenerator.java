@@ -0,0 +1,68 @@
+package com.example.spring_batch.benchmark;
+
+import com.example.spring_batch.domain.model.Person;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Synthetic persons for the benchmarks. Names combine a small set of first and last names with the
+ * row number, so every row yields a distinct email, and rows are identical across runs.
+ */
+final class PersonDataGenerator {
+
+    private static final String[] FIRST_NAMES = {
+            "Ana", "Carlos", "Eileen", "John", "María", "Pedro", "Sofía", "William", "Zoë", "Ángel"
+    };
+    private static final String[] LAST_NAMES = {
+            "García", "Guerrero", "Johnson", "López", "Martínez", "O'Brien", "Smith", "Van der Berg"
+    };
+
+    private PersonDataGenerator() {
+    }
+
+    static String firstName(int row) {
+        return FIRST_NAMES[row % FIRST_NAMES.length] + row;
+    }
+
+    static String lastName(int row) {
+        return LAST_NAMES[row % LAST_NAMES.length];
+    }
+
+    /**
+     * Writes a CSV file in the format of {@code input/persons.csv}, header included, to a temporary file
+     */
+    static Path writeCsv(int rows) throws IOException {
+        Path file = Files.createTempFile("persons-benchmark-" + rows + "-", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("firstName,lastName\n");
+            for (int i = 0; i < rows; i++) {
+                writer.write(firstName(i));
+                writer.write(',');
+                writer.write(lastName(i));
+                writer.write('\n');
+            }
+        }
+        return file;
+    }
+
+    static Person person(int row) {
+        Person person = new Person();
+        person.setFirstName(firstName(row));
+        person.setLastName(lastName(row));
+        return person;
+    }
+
+    static List<Person> persons(int from, int count) {
+        List<Person> persons = new ArrayList<>(count);
+        for (int i = from; i < from + count; i++) {
+            persons.add(person(i));
+        }
+        return persons;
+    }
+}
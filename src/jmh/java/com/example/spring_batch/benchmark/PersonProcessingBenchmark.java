@@ -0,0 +1,93 @@
+package com.example.spring_batch.benchmark;
+
+import com.example.spring_batch.domain.model.Person;
+import com.example.spring_batch.domain.model.UuidV7;
+import com.example.spring_batch.infrastructure.batch.processor.PersonItemProcessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-item cost of {@link PersonItemProcessor#process}, of the {@link Person} domain methods it
+ * relies on and of id generation, cycling over a fixed set of generated persons.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PersonProcessingBenchmark {
+
+    private static final int PERSONS = 1024;
+
+    private final PersonItemProcessor processor = new PersonItemProcessor();
+    private Person[] persons;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void createPersons() {
+        persons = PersonDataGenerator.persons(0, PERSONS).toArray(new Person[0]);
+    }
+
+    @Benchmark
+    public Person process() throws Exception {
+        return processor.process(nextPerson());
+    }
+
+    @Benchmark
+    public String generateEmail() {
+        Person person = nextPerson();
+        person.generateEmail();
+        return person.getEmail();
+    }
+
+    @Benchmark
+    public String getFullName() {
+        return nextPerson().getFullName();
+    }
+
+    /**
+     * Baseline: the {@code String.format} based email generation that {@code Person} used before
+     */
+    @Benchmark
+    public String generateEmailWithFormat() {
+        Person person = nextPerson();
+        return String.format("%s.%s@example.com",
+                person.getFirstName().toLowerCase(),
+                person.getLastName().toLowerCase());
+    }
+
+    /**
+     * Baseline: the {@code String.format} based full name that {@code Person} used before
+     */
+    @Benchmark
+    public String getFullNameWithFormat() {
+        Person person = nextPerson();
+        return String.format("%s %s", person.getFirstName(), person.getLastName()).trim();
+    }
+
+    @Benchmark
+    public UUID uuidV7() {
+        return UuidV7.next();
+    }
+
+    /**
+     * Baseline: the random UUIDs that person ids used before
+     */
+    @Benchmark
+    public UUID uuidV4() {
+        return UUID.randomUUID();
+    }
+
+    private Person nextPerson() {
+        Person person = persons[next];
+        next = (next + 1) & (PERSONS - 1);
+        return person;
+    }
+}
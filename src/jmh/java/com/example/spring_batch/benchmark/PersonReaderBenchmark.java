@@ -0,0 +1,83 @@
+package com.example.spring_batch.benchmark;
+
+import com.example.spring_batch.domain.model.Person;
+import com.example.spring_batch.infrastructure.batch.reader.MappedPersonItemReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
+import org.springframework.batch.item.file.mapping.BeanWrapperFieldSetMapper;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@code FlatFileItemReader} configured in {@code BatchConfig} with
+ * {@link MappedPersonItemReader} by reading a whole generated file per invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PersonReaderBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    public int rows;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void createFile() throws IOException {
+        file = PersonDataGenerator.writeCsv(rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void flatFileItemReader(Blackhole blackhole) throws Exception {
+        BeanWrapperFieldSetMapper<Person> fieldSetMapper = new BeanWrapperFieldSetMapper<>();
+        fieldSetMapper.setTargetType(Person.class);
+        readAll(new FlatFileItemReaderBuilder<Person>()
+                .name("personItemReader")
+                .resource(new FileSystemResource(file))
+                .delimited()
+                .names("firstName", "lastName")
+                .fieldSetMapper(fieldSetMapper)
+                .linesToSkip(1)
+                .build(), blackhole);
+    }
+
+    @Benchmark
+    public void mappedPersonItemReader(Blackhole blackhole) throws Exception {
+        MappedPersonItemReader reader = new MappedPersonItemReader(new FileSystemResource(file), 1);
+        reader.setName("personItemReader");
+        readAll(reader, blackhole);
+    }
+
+    private static void readAll(ItemStreamReader<Person> reader, Blackhole blackhole) throws Exception {
+        reader.open(new ExecutionContext());
+        try {
+            Person person;
+            while ((person = reader.read()) != null) {
+                blackhole.consume(person);
+            }
+        } finally {
+            reader.close();
+        }
+    }
+}
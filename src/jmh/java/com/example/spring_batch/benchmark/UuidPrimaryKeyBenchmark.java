@@ -0,0 +1,128 @@
+package com.example.spring_batch.benchmark;
+
+import com.example.spring_batch.domain.model.UuidV7;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Inserts {@code rows} persons keyed by random (v4) or time-ordered (v7) UUIDs, 1000 rows per
+ * transaction, and prints the size of the table and its indexes after every iteration.
+ * <p>
+ * Runs against a file-backed H2 database by default, so that page splits reach the disk. Pass
+ * {@code -Dbenchmark.jdbc.url=jdbc:postgresql://...} (plus {@code benchmark.jdbc.user} and
+ * {@code benchmark.jdbc.password}) to measure PostgreSQL instead, where the primary key index is
+ * reported separately; the benchmark only touches its own {@code uuid_benchmark} table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UuidPrimaryKeyBenchmark {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    @Param({"V4", "V7"})
+    public String version;
+
+    @Param({"1000000", "10000000"})
+    public int rows;
+
+    private Path directory;
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private boolean postgres;
+    private Supplier<UUID> ids;
+
+    @Setup(Level.Trial)
+    public void createDatabase() throws IOException {
+        String url = System.getProperty("benchmark.jdbc.url");
+        if (url == null) {
+            directory = Files.createTempDirectory("uuid-benchmark");
+            url = "jdbc:h2:file:" + directory.resolve("benchmark");
+        }
+        postgres = url.startsWith("jdbc:postgresql:");
+        dataSource = new SingleConnectionDataSource(url, System.getProperty("benchmark.jdbc.user", "sa"),
+                System.getProperty("benchmark.jdbc.password", ""), true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        ids = "V7".equals(version) ? UuidV7::next : UUID::randomUUID;
+    }
+
+    @Setup(Level.Invocation)
+    public void createTable() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS uuid_benchmark");
+        jdbcTemplate.execute("CREATE TABLE uuid_benchmark ("
+                + "id UUID CONSTRAINT uuid_benchmark_pkey PRIMARY KEY, "
+                + "first_name VARCHAR(100) NOT NULL, "
+                + "last_name VARCHAR(100) NOT NULL, "
+                + "email VARCHAR(255), "
+                + "created_at TIMESTAMP NOT NULL)");
+    }
+
+    @TearDown(Level.Iteration)
+    public void printSize() {
+        if (postgres) {
+            System.out.printf("%n%s: table %,d bytes, primary key index %,d bytes%n", version,
+                    jdbcTemplate.queryForObject("SELECT pg_relation_size('uuid_benchmark')", Long.class),
+                    jdbcTemplate.queryForObject("SELECT pg_relation_size('uuid_benchmark_pkey')", Long.class));
+        } else {
+            jdbcTemplate.execute("CHECKPOINT SYNC");
+            System.out.printf("%n%s: table and indexes %,d bytes%n", version,
+                    jdbcTemplate.queryForObject("SELECT DISK_SPACE_USED('UUID_BENCHMARK')", Long.class));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void dropDatabase() throws IOException {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS uuid_benchmark");
+        dataSource.destroy();
+        if (directory != null) {
+            try (var files = Files.walk(directory)) {
+                for (Path file : files.sorted((a, b) -> b.compareTo(a)).toList()) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public int insert() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int from = 0; from < rows; from += CHUNK_SIZE) {
+            int count = Math.min(CHUNK_SIZE, rows - from);
+            List<Object[]> batch = new ArrayList<>(count);
+            for (int row = from; row < from + count; row++) {
+                String firstName = PersonDataGenerator.firstName(row);
+                String lastName = PersonDataGenerator.lastName(row);
+                batch.add(new Object[]{ids.get(), firstName, lastName, firstName + "." + row + "@example.com", now});
+            }
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                    "INSERT INTO uuid_benchmark (id, first_name, last_name, email, created_at) VALUES (?, ?, ?, ?, ?)",
+                    batch));
+        }
+        return rows;
+    }
+}
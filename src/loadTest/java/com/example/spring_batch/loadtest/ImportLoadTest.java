@@ -0,0 +1,254 @@
+package com.example.spring_batch.loadtest;
+
+import com.example.spring_batch.SpringBatchApplication;
+import com.example.spring_batch.infrastructure.batch.config.BatchConfig;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end load test of {@code importPersonsJob}. Generates a reproducible input file, runs the job
+ * on it against embedded H2 and, when listed, a local PostgreSQL, each in a fresh application context,
+ * and reports rows per second, p50/p99 chunk latency, peak heap and GC time. The report is printed and
+ * written as JSON; given the JSON of an earlier run as baseline, the changes against it are printed too.
+ * <p>
+ * The test is configured with {@code loadtest.*} system properties, see {@link #main}. Program
+ * arguments are passed to the application, for example {@code --batch.import.writer=jdbc}.
+ * The PostgreSQL database should be a scratch one: the import tables are emptied before the run.
+ */
+public final class ImportLoadTest {
+
+    private static final String CHUNK_TIMER = "batch.import.chunk";
+    private static final List<String> IMPORT_TABLES = List.of(
+            "persons", "person_row_hashes", "imported_files", "person_statistics");
+
+    private ImportLoadTest() {
+    }
+
+    /**
+     * Runs the load test with these system properties:
+     * <ul>
+     *     <li>{@code loadtest.rows} (100000), {@code loadtest.seed} (42)</li>
+     *     <li>{@code loadtest.duplicate-ratio} (0.05), {@code loadtest.malformed-ratio} (0.001),
+     *     {@code loadtest.unicode-ratio} (0.2)</li>
+     *     <li>{@code loadtest.databases}: comma separated {@code h2} and {@code postgres} (h2)</li>
+     *     <li>{@code loadtest.postgres.url}, {@code .user}, {@code .password}
+     *     (jdbc:postgresql://localhost:5432/person_batch_load, postgres, admin)</li>
+     *     <li>{@code loadtest.dir}: generated input and reports (build/load-test)</li>
+     *     <li>{@code loadtest.baseline}: report of an earlier run to compare with (none)</li>
+     * </ul>
+     * Exits with status 1 when a job does not complete.
+     */
+    public static void main(String[] args) throws Exception {
+        String startedAt = LocalDateTime.now().toString();
+        LoadTestDataGenerator.Settings settings = new LoadTestDataGenerator.Settings(
+                Long.getLong("loadtest.rows", 100_000),
+                ratio("loadtest.duplicate-ratio", 0.05),
+                ratio("loadtest.malformed-ratio", 0.001),
+                ratio("loadtest.unicode-ratio", 0.2),
+                Long.getLong("loadtest.seed", 42));
+        Path directory = Path.of(System.getProperty("loadtest.dir", "build/load-test"));
+        List<String> databases = Arrays.stream(System.getProperty("loadtest.databases", "h2").split(","))
+                .map(String::trim)
+                .filter(database -> !database.isEmpty())
+                .toList();
+
+        long start = System.nanoTime();
+        LoadTestDataGenerator.GeneratedInput input = LoadTestDataGenerator.writeCsv(settings, directory);
+        System.out.printf("Generated %,d rows (%,d duplicates, %,d malformed, %,d Unicode), %,d bytes in %d ms: %s%n",
+                input.rows(), input.duplicates(), input.malformed(), input.unicode(), input.bytes(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), input.file());
+
+        List<Result> results = new ArrayList<>();
+        for (String database : databases) {
+            results.add(run(database, input, args));
+        }
+
+        Report report = new Report(startedAt, settings, input.file().toString(),
+                input.duplicates(), input.malformed(), input.unicode(), List.of(args), results);
+        print(report);
+        String baseline = System.getProperty("loadtest.baseline");
+        if (baseline != null) {
+            compare(report, new ObjectMapper().readTree(Path.of(baseline).toFile()));
+        }
+        Path reportFile = directory.resolve("report-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(reportFile.toFile(), report);
+        System.out.printf("Report written to %s%n", reportFile.toAbsolutePath());
+
+        if (results.stream().anyMatch(result -> !BatchStatus.COMPLETED.name().equals(result.status()))) {
+            System.exit(1);
+        }
+    }
+
+    private static Result run(String database, LoadTestDataGenerator.GeneratedInput input, String[] args)
+            throws Exception {
+        System.out.printf("%nImporting into %s%n", database);
+        Map<String, Object> properties = new HashMap<>(applicationProperties(input));
+        properties.putAll(databaseProperties(database));
+        // the harness properties override application.properties; program arguments override both
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("loadTest", properties));
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringBatchApplication.class)
+                .environment(environment)
+                .web(WebApplicationType.NONE)
+                .run(args)) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            IMPORT_TABLES.forEach(table -> jdbcTemplate.execute("DELETE FROM " + table));
+            JobLauncher jobLauncher = context.getBean("jobLauncher", JobLauncher.class);
+            Job job = context.getBean("importPersonsJob", Job.class);
+            MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+
+            System.gc();
+            JvmSampler sampler = JvmSampler.start();
+            JobExecution jobExecution = jobLauncher.run(job, new JobParametersBuilder()
+                    .addString(BatchConfig.INPUT_PARAMETER, input.file().toString())
+                    .addLong("timestamp", System.currentTimeMillis())
+                    .toJobParameters());
+            JvmSampler.Stats jvm = sampler.stop();
+
+            double seconds = Duration.between(jobExecution.getStartTime(), jobExecution.getEndTime()).toNanos() / 1e9;
+            long read = count(meterRegistry, "batch.import.items", "result", "read");
+            long readSkips = count(meterRegistry, "batch.import.skips", "phase", "read");
+            long written = count(meterRegistry, "batch.import.items", "result", "written");
+            Timer chunks = meterRegistry.find(CHUNK_TIMER).timer();
+            HistogramSnapshot chunkLatency = chunks != null ? chunks.takeSnapshot() : HistogramSnapshot.empty(0, 0, 0);
+            return new Result(database, jobExecution.getStatus().name(), seconds,
+                    read, written,
+                    count(meterRegistry, "batch.import.items", "result", "filtered"),
+                    readSkips + count(meterRegistry, "batch.import.skips", "phase", "process")
+                            + count(meterRegistry, "batch.import.skips", "phase", "write"),
+                    (read + readSkips) / seconds, written / seconds,
+                    chunkLatency.count(), percentileMillis(chunkLatency, 0.5), percentileMillis(chunkLatency, 0.99),
+                    jvm.peakHeapBytes(), jvm.gcTimeMillis(), jvm.gcCount());
+        }
+    }
+
+    private static Map<String, Object> applicationProperties(LoadTestDataGenerator.GeneratedInput input) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.example.spring_batch", "WARN");
+        properties.put("logging.level.com.example.spring_batch.infrastructure.batch.listener.BatchJobListener", "INFO");
+        properties.put("logging.level.org.springframework.batch", "WARN");
+        properties.put("logging.level.org.springframework.jdbc", "WARN");
+        // the expected bad rows must not fail the job; duplicates are only skipped without dedup
+        properties.put("batch.import.skip-limit", Math.max(10, input.malformed() + input.duplicates()));
+        // p50 and p99 over all chunks of the run, computed in the simple registry
+        properties.put("management.prometheus.metrics.export.enabled", "false");
+        properties.put("management.metrics.distribution.percentiles." + CHUNK_TIMER, "0.5,0.99");
+        properties.put("management.metrics.distribution.expiry." + CHUNK_TIMER, "7d");
+        properties.put("management.metrics.distribution.buffer-length." + CHUNK_TIMER, "1");
+        return properties;
+    }
+
+    private static Map<String, Object> databaseProperties(String database) {
+        return switch (database) {
+            case "h2" -> Map.of(
+                    "spring.datasource.url", "jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                    "spring.datasource.driver-class-name", "org.h2.Driver",
+                    "spring.datasource.username", "sa",
+                    "spring.datasource.password", "",
+                    "spring.jpa.database", "H2");
+            case "postgres" -> Map.of(
+                    "spring.datasource.url", System.getProperty("loadtest.postgres.url",
+                            "jdbc:postgresql://localhost:5432/person_batch_load"),
+                    "spring.datasource.username", System.getProperty("loadtest.postgres.user", "postgres"),
+                    "spring.datasource.password", System.getProperty("loadtest.postgres.password", "admin"));
+            default -> throw new IllegalArgumentException("Unknown database: " + database + " (expected h2 or postgres)");
+        };
+    }
+
+    private static long count(MeterRegistry meterRegistry, String name, String tag, String value) {
+        Counter counter = meterRegistry.find(name).tag(tag, value).counter();
+        return counter != null ? (long) counter.count() : 0;
+    }
+
+    private static double percentileMillis(HistogramSnapshot snapshot, double percentile) {
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            if (value.percentile() == percentile) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return Double.NaN;
+    }
+
+    private static double ratio(String property, double defaultValue) {
+        String value = System.getProperty(property);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+
+    private static void print(Report report) {
+        System.out.printf("%n%-9s %-10s %9s %11s %11s %9s %9s %9s %9s %10s %9s%n", "Database", "Status",
+                "Seconds", "Rows/s", "Written/s", "Written", "Skipped", "p50 ms", "p99 ms", "Peak heap", "GC ms");
+        for (Result result : report.results()) {
+            System.out.printf("%-9s %-10s %9.2f %,11.0f %,11.0f %,9d %,9d %9.2f %9.2f %7d MB %,9d%n",
+                    result.database(), result.status(), result.seconds(), result.rowsPerSecond(),
+                    result.writtenPerSecond(), result.written(), result.skipped(), result.chunkP50Millis(),
+                    result.chunkP99Millis(), result.peakHeapBytes() >> 20, result.gcTimeMillis());
+        }
+    }
+
+    private static void compare(Report report, JsonNode baseline) {
+        System.out.printf("%nChange against baseline from %s%n", baseline.path("startedAt").asText());
+        for (Result result : report.results()) {
+            for (JsonNode previous : baseline.path("results")) {
+                if (result.database().equals(previous.path("database").asText())) {
+                    System.out.printf("%-9s rows/s %+6.1f%%  p50 %+6.1f%%  p99 %+6.1f%%  peak heap %+6.1f%%  GC time %+6.1f%%%n",
+                            result.database(),
+                            change(result.rowsPerSecond(), previous.path("rowsPerSecond").asDouble()),
+                            change(result.chunkP50Millis(), previous.path("chunkP50Millis").asDouble()),
+                            change(result.chunkP99Millis(), previous.path("chunkP99Millis").asDouble()),
+                            change(result.peakHeapBytes(), previous.path("peakHeapBytes").asDouble()),
+                            change(result.gcTimeMillis(), previous.path("gcTimeMillis").asDouble()));
+                }
+            }
+        }
+    }
+
+    private static double change(double current, double previous) {
+        return previous == 0 ? Double.NaN : (current - previous) * 100 / previous;
+    }
+
+    record Report(String startedAt, LoadTestDataGenerator.Settings settings, String input, long duplicates,
+                  long malformed, long unicode, List<String> arguments, List<Result> results) {
+    }
+
+    /**
+     * Outcome of one import; rows per second counts every input row read, including the malformed ones
+     */
+    record Result(String database, String status, double seconds, long read, long written, long filtered,
+                  long skipped, double rowsPerSecond, double writtenPerSecond, long chunks,
+                  double chunkP50Millis, double chunkP99Millis, long peakHeapBytes, long gcTimeMillis,
+                  long gcCount) {
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.spring_batch.loadtest;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Peak heap usage and garbage collection time of this JVM while a run is measured. The used heap is
+ * sampled every few milliseconds, and the usage right before each collection is taken from the GC
+ * notifications, which catches the peaks that sampling alone would miss.
+ */
+final class JvmSampler implements NotificationListener {
+
+    private static final long SAMPLE_INTERVAL_MILLIS = 5;
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    private final Set<String> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP)
+            .map(MemoryPoolMXBean::getName)
+            .collect(Collectors.toSet());
+    private final AtomicLong peakHeap = new AtomicLong();
+    private final long gcTimeAtStart;
+    private final long gcCountAtStart;
+    private final Thread sampler;
+    private volatile boolean running = true;
+
+    private JvmSampler() {
+        gcTimeAtStart = gcTime();
+        gcCountAtStart = gcCount();
+        for (GarbageCollectorMXBean collector : collectors) {
+            if (collector instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener(this, null, null);
+            }
+        }
+        sampler = Thread.ofPlatform().daemon().name("load-test-heap-sampler").start(this::sample);
+    }
+
+    static JvmSampler start() {
+        return new JvmSampler();
+    }
+
+    Stats stop() throws InterruptedException {
+        running = false;
+        sampler.join();
+        for (GarbageCollectorMXBean collector : collectors) {
+            if (collector instanceof NotificationEmitter emitter) {
+                try {
+                    emitter.removeNotificationListener(this);
+                } catch (ListenerNotFoundException e) {
+                    // not registered on this collector
+                }
+            }
+        }
+        recordPeak(memory.getHeapMemoryUsage().getUsed());
+        return new Stats(peakHeap.get(), gcTime() - gcTimeAtStart, gcCount() - gcCountAtStart);
+    }
+
+    @Override
+    public void handleNotification(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        GarbageCollectionNotificationInfo info =
+                GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        long used = 0;
+        for (Map.Entry<String, MemoryUsage> pool : info.getGcInfo().getMemoryUsageBeforeGc().entrySet()) {
+            if (heapPools.contains(pool.getKey())) {
+                used += pool.getValue().getUsed();
+            }
+        }
+        recordPeak(used);
+    }
+
+    private void sample() {
+        while (running) {
+            recordPeak(memory.getHeapMemoryUsage().getUsed());
+            try {
+                Thread.sleep(SAMPLE_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void recordPeak(long used) {
+        peakHeap.accumulateAndGet(used, Math::max);
+    }
+
+    private long gcTime() {
+        // collectors that do not report a value return -1
+        return collectors.stream().mapToLong(collector -> Math.max(0, collector.getCollectionTime())).sum();
+    }
+
+    private long gcCount() {
+        return collectors.stream().mapToLong(collector -> Math.max(0, collector.getCollectionCount())).sum();
+    }
+
+    record Stats(long peakHeapBytes, long gcTimeMillis, long gcCount) {
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.spring_batch.loadtest;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Reproducible input for the load test, in the format of {@code input/persons.csv}: the same settings
+ * always produce the same file. Unique rows carry their number in the first name, so each yields a
+ * distinct email. The other rows are drawn at the configured ratios:
+ * <ul>
+ *     <li>duplicates repeat the names of an earlier unique row, so their email is already taken</li>
+ *     <li>malformed rows have one or three fields, which the readers reject as parse errors</li>
+ * </ul>
+ * Unique rows use non-ASCII names at the Unicode ratio, and their duplicates do too.
+ */
+final class LoadTestDataGenerator {
+
+    private static final String[] FIRST_NAMES = {
+            "Ana", "Carlos", "Eileen", "James", "John", "Kelly", "Pedro", "Richard", "Sofia", "William"
+    };
+    private static final String[] LAST_NAMES = {
+            "Garcia", "Guerrero", "Jackson", "Johnson", "Jordan", "Lopez", "O'Brien", "Smith", "Van der Berg"
+    };
+    private static final String[] UNICODE_FIRST_NAMES = {
+            "María", "Sofía", "Zoë", "Ángel", "Søren", "Łukasz", "Jürgen", "Ярослав", "Αλέξανδρος", "美咲"
+    };
+    private static final String[] UNICODE_LAST_NAMES = {
+            "García", "López", "Martínez", "Nguyễn", "Øberg", "Wiśniewski", "Müller", "Шевченко", "Παπαδόπουλος", "佐藤"
+    };
+
+    private LoadTestDataGenerator() {
+    }
+
+    /**
+     * Writes the rows to {@code persons-<rows>-<seed>.csv} in the directory, replacing an existing file
+     */
+    static GeneratedInput writeCsv(Settings settings, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve("persons-" + settings.rows() + "-" + settings.seed() + ".csv");
+
+        long unique = 0;
+        long duplicates = 0;
+        long malformed = 0;
+        long unicode = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("firstName,lastName\n");
+            for (long row = 0; row < settings.rows(); row++) {
+                double draw = fraction(mix(settings.seed(), -row - 1));
+                if (draw < settings.malformedRatio()) {
+                    writer.write(row % 2 == 0 ? "Malformed" + row : "Malformed" + row + ",Row,Extra");
+                    malformed++;
+                } else {
+                    long names;
+                    if (unique > 0 && draw < settings.malformedRatio() + settings.duplicateRatio()) {
+                        names = Long.remainderUnsigned(mix(settings.seed() + 1, row), unique);
+                        duplicates++;
+                    } else {
+                        names = unique++;
+                    }
+                    long bits = mix(settings.seed(), names);
+                    boolean nonAscii = fraction(bits) < settings.unicodeRatio();
+                    String[] firstNames = nonAscii ? UNICODE_FIRST_NAMES : FIRST_NAMES;
+                    String[] lastNames = nonAscii ? UNICODE_LAST_NAMES : LAST_NAMES;
+                    writer.write(firstNames[(int) ((bits >>> 8) % firstNames.length)]);
+                    writer.write(Long.toString(names));
+                    writer.write(',');
+                    writer.write(lastNames[(int) ((bits >>> 24) % lastNames.length)]);
+                    if (nonAscii) {
+                        unicode++;
+                    }
+                }
+                writer.write('\n');
+            }
+        }
+        return new GeneratedInput(file.toAbsolutePath(), settings.rows(), duplicates, malformed, unicode,
+                Files.size(file));
+    }
+
+    /**
+     * SplitMix64 finalizer, so that a row's content depends only on the seed and its number
+     */
+    private static long mix(long seed, long value) {
+        long z = seed + value * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static double fraction(long bits) {
+        return (bits >>> 11) * 0x1.0p-53;
+    }
+
+    record Settings(long rows, double duplicateRatio, double malformedRatio, double unicodeRatio, long seed) {
+
+        Settings {
+            if (rows < 0) {
+                throw new IllegalArgumentException("Row count must not be negative: " + rows);
+            }
+            if (duplicateRatio < 0 || malformedRatio < 0 || unicodeRatio < 0
+                    || duplicateRatio + malformedRatio > 1 || unicodeRatio > 1) {
+                throw new IllegalArgumentException("Ratios must be between 0 and 1, and duplicate plus "
+                        + "malformed at most 1");
+            }
+        }
+    }
+
+    record GeneratedInput(Path file, long rows, long duplicates, long malformed, long unicode, long bytes) {
+    }
+}
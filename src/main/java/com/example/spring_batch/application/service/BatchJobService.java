@@ -1,69 +1,185 @@
 package com.example.spring_batch.application.service;
 
+import com.example.spring_batch.infrastructure.batch.config.BatchConfig;
+import com.example.spring_batch.infrastructure.batch.config.ImportJobProperties;
+import com.example.spring_batch.infrastructure.batch.launch.ImportLaunchQueue;
+import com.example.spring_batch.infrastructure.batch.metadata.MetadataRetentionListener;
+import com.example.spring_batch.infrastructure.batch.reader.InputResources;
+import com.example.spring_batch.infrastructure.persistence.JobMetadataStore;
 import com.example.spring_batch.shared.exception.BatchJobException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
 import org.springframework.batch.core.JobParameters;
 import org.springframework.batch.core.JobParametersBuilder;
 import org.springframework.batch.core.JobParametersInvalidException;
+import org.springframework.batch.core.explore.JobExplorer;
 import org.springframework.batch.core.launch.JobLauncher;
 import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
 import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
 import org.springframework.batch.core.repository.JobRestartException;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class BatchJobService {
 
-    private final JobLauncher jobLauncher;
+    private static final String QUEUED = "QUEUED";
+    private static final String LAUNCH_FAILED = "LAUNCH_FAILED";
+
+    private final JobLauncher asyncJobLauncher;
+    private final JobExplorer jobExplorer;
+    private final JobProgressService jobProgressService;
     private final Job importPersonJob;
+    private final ImportJobProperties importJobProperties;
+    private final ResourceLoader resourceLoader;
+    private final MetadataRetentionListener metadataRetentionListener;
+    private final ImportLaunchQueue importLaunchQueue;
 
     /**
-     * Start the import persons job
+     * Start the import persons job and wait for it to finish
      */
     public JobExecutionResult startImportPersonsJob() {
-        log.info("Starting import persons job");
-        
+        return startImportPersonsJob(false);
+    }
+
+    /**
+     * Start the import persons job, returning right after launch when async
+     */
+    public JobExecutionResult startImportPersonsJob(boolean async) {
+        return startImportPersonsJob(async, null);
+    }
+
+    /**
+     * Start the import persons job for the given file path or pattern, or the configured input when null.
+     * The launch goes through the launch queue: it joins a pending launch of the same input, and when
+     * async and no slot is free, returns a queued result without an execution id. The admission id of
+     * the result finds the execution once the launch has started.
+     */
+    public JobExecutionResult startImportPersonsJob(boolean async, String input) {
+        String location = InputResources.normalize(input != null ? input : importJobProperties.getInput());
+        log.info("Starting import persons job for {} (async: {})", location, async);
+        Resource[] resources = InputResources.resolve(resourceLoader, location);
+        log.debug("Input {} matches {} files", location, resources.length);
+
+        ImportLaunchQueue.Admission admission = importLaunchQueue.submit(location,
+                () -> asyncJobLauncher.run(importPersonJob, jobParameters(location)));
+
+        if (async && !admission.started().isDone()) {
+            return queued(admission);
+        }
+        JobExecution jobExecution = await(async ? admission.started() : admission.finished());
+        return executionResult(admission, jobExecution);
+    }
+
+    /**
+     * Look up a recent launch by its admission id: its queue position while it waits, then the
+     * current state of the job execution it started
+     */
+    public Optional<JobExecutionResult> getAdmission(String admissionId) {
+        return importLaunchQueue.find(admissionId).map(admission -> {
+            CompletableFuture<JobExecution> started = admission.started();
+            if (!started.isDone()) {
+                return queued(admission);
+            }
+            if (started.isCompletedExceptionally()) {
+                return JobExecutionResult.builder()
+                        .admissionId(admission.id())
+                        .status(LAUNCH_FAILED)
+                        .build();
+            }
+            JobExecution launched = started.join();
+            JobExecution current = jobExplorer.getJobExecution(launched.getId());
+            return executionResult(admission, current != null ? current : launched);
+        });
+    }
+
+    private JobExecutionResult queued(ImportLaunchQueue.Admission admission) {
+        return JobExecutionResult.builder()
+                .admissionId(admission.id())
+                .status(QUEUED)
+                .queuePosition(importLaunchQueue.position(admission))
+                .build();
+    }
+
+    private static JobExecutionResult executionResult(ImportLaunchQueue.Admission admission, JobExecution jobExecution) {
+        return JobExecutionResult.builder()
+                .admissionId(admission.id())
+                .jobExecutionId(jobExecution.getId())
+                .jobInstanceId(jobExecution.getJobInstance().getId())
+                .status(jobExecution.getStatus().name())
+                .startTime(jobExecution.getStartTime())
+                .endTime(jobExecution.getEndTime())
+                .build();
+    }
+
+    private JobParameters jobParameters(String location) {
+        JobParameters jobParameters = new JobParametersBuilder()
+                .addString(BatchConfig.INPUT_PARAMETER, location)
+                .addLong("timestamp", System.currentTimeMillis())
+                .addString("startTime", LocalDateTime.now().toString())
+                .toJobParameters();
+        log.debug("Job parameters: {}", jobParameters);
+        return jobParameters;
+    }
+
+    private JobExecution await(CompletableFuture<JobExecution> launch) {
         try {
-            JobParameters jobParameters = new JobParametersBuilder()
-                    .addLong("timestamp", System.currentTimeMillis())
-                    .addString("startTime", LocalDateTime.now().toString())
-                    .toJobParameters();
-
-            log.debug("Job parameters: {}", jobParameters);
-            var jobExecution = jobLauncher.run(importPersonJob, jobParameters);
-            
-            return JobExecutionResult.builder()
-                    .jobExecutionId(jobExecution.getId())
-                    .jobInstanceId(jobExecution.getJobInstance().getId())
-                    .status(jobExecution.getStatus().name())
-                    .startTime(jobExecution.getStartTime())
-                    .endTime(jobExecution.getEndTime())
-                    .build();
-
-        } catch (JobExecutionAlreadyRunningException e) {
-            log.error("Job is already running", e);
-            throw new BatchJobException("Job is already running", e);
-            
-        } catch (JobRestartException e) {
-            log.error("Job restart failed", e);
-            throw new BatchJobException("Job restart failed", e);
-            
-        } catch (JobInstanceAlreadyCompleteException e) {
-            log.error("Job instance already complete", e);
-            throw new BatchJobException("Job instance already complete", e);
-            
-        } catch (JobParametersInvalidException e) {
-            log.error("Invalid job parameters", e);
-            throw new BatchJobException("Invalid job parameters", e);
+            return launch.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BatchJobException("Interrupted while waiting for the job", e);
+        } catch (ExecutionException e) {
+            throw launchFailure(e.getCause());
         }
     }
 
+    private BatchJobException launchFailure(Throwable cause) {
+        String message = switch (cause) {
+            case JobExecutionAlreadyRunningException e -> "Job is already running";
+            case JobRestartException e -> "Job restart failed";
+            case JobInstanceAlreadyCompleteException e -> "Job instance already complete";
+            case JobParametersInvalidException e -> "Invalid job parameters";
+            default -> "Job launch failed";
+        };
+        log.error(message, cause);
+        return new BatchJobException(message, cause);
+    }
+
+    /**
+     * Get status and counts of a job execution
+     */
+    public Optional<JobProgressService.JobProgress> getJobExecution(Long jobExecutionId) {
+        return Optional.ofNullable(jobExplorer.getJobExecution(jobExecutionId))
+                .map(jobProgressService::snapshot);
+    }
+
+    /**
+     * Stream progress of a job execution as server-sent events
+     */
+    public Optional<SseEmitter> streamJobProgress(Long jobExecutionId) {
+        return Optional.ofNullable(jobExplorer.getJobExecution(jobExecutionId))
+                .map(jobProgressService::subscribe);
+    }
+
+    /**
+     * Purge job executions past the configured retention, whether or not the purge after every job is enabled
+     */
+    public JobMetadataStore.PurgeResult purgeJobMetadata() {
+        log.info("Purging job metadata older than {}", importJobProperties.getMetadata().getRetention().getMaxAge());
+        return metadataRetentionListener.purge();
+    }
+
     /**
      * Get job information
      */
@@ -80,11 +196,19 @@ public class BatchJobService {
     @lombok.Data
     @lombok.Builder
     public static class JobExecutionResult {
+        /**
+         * Identifies the launch for {@code getAdmission}, also while it is queued
+         */
+        private String admissionId;
         private Long jobExecutionId;
         private Long jobInstanceId;
         private String status;
         private java.time.LocalDateTime startTime;
         private java.time.LocalDateTime endTime;
+        /**
+         * Place in the launch queue while the job waits for a free slot
+         */
+        private Integer queuePosition;
     }
 
     /**
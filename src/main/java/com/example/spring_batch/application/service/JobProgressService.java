@@ -0,0 +1,212 @@
+package com.example.spring_batch.application.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Streams job progress to server-sent event subscribers. A subscription is registered before the
+ * job's status is checked again, and the final counts of recently completed jobs are kept, so a job
+ * that ends while a client subscribes still closes its stream.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class JobProgressService {
+
+    private static final String PROGRESS_EVENT = "progress";
+    private static final String COMPLETED_EVENT = "completed";
+    private static final int RECENTLY_COMPLETED = 100;
+
+    private final JobExplorer jobExplorer;
+
+    private final Map<Long, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    // final counts by job execution id, guarded by this like the registration of subscribers
+    private final Map<Long, JobProgress> completed = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, JobProgress> eldest) {
+            return size() > RECENTLY_COMPLETED;
+        }
+    };
+
+    /**
+     * Subscribe to progress events of a running job execution
+     */
+    public SseEmitter subscribe(JobExecution jobExecution) {
+        // imports can run for hours, so the emitter never times out on its own
+        SseEmitter emitter = new SseEmitter(0L);
+        Long jobExecutionId = jobExecution.getId();
+
+        if (!jobExecution.isRunning()) {
+            finish(emitter, snapshot(jobExecution));
+            return emitter;
+        }
+
+        JobProgress finalProgress;
+        synchronized (this) {
+            finalProgress = completed.get(jobExecutionId);
+            if (finalProgress == null) {
+                List<SseEmitter> emitters = subscribers.computeIfAbsent(jobExecutionId, id -> new CopyOnWriteArrayList<>());
+                emitters.add(emitter);
+                emitter.onCompletion(() -> emitters.remove(emitter));
+                emitter.onTimeout(() -> emitters.remove(emitter));
+                emitter.onError(e -> emitters.remove(emitter));
+            }
+        }
+        if (finalProgress != null) {
+            // completed on this node after the caller read the execution
+            finish(emitter, finalProgress);
+            return emitter;
+        }
+        send(emitter, PROGRESS_EVENT, snapshot(jobExecution));
+        log.debug("Progress subscriber added for job execution {}", jobExecutionId);
+
+        // ended since the caller read it, for instance on another node, without a completion broadcast here
+        JobExecution current = jobExplorer.getJobExecution(jobExecutionId);
+        if (current != null && !current.isRunning() && unsubscribe(jobExecutionId, emitter)) {
+            finish(emitter, snapshot(current));
+        }
+        return emitter;
+    }
+
+    /**
+     * Push the current counts of a job execution to its subscribers
+     */
+    public void publish(JobExecution jobExecution) {
+        List<SseEmitter> emitters = subscribers.get(jobExecution.getId());
+        if (emitters == null || emitters.isEmpty()) {
+            return;
+        }
+        JobProgress progress = snapshot(jobExecution);
+        for (SseEmitter emitter : emitters) {
+            if (!send(emitter, PROGRESS_EVENT, progress)) {
+                emitters.remove(emitter);
+            }
+        }
+    }
+
+    /**
+     * Send the final counts and close all subscriptions of a job execution
+     */
+    public void complete(JobExecution jobExecution) {
+        JobProgress progress = snapshot(jobExecution);
+        List<SseEmitter> emitters;
+        synchronized (this) {
+            completed.put(jobExecution.getId(), progress);
+            emitters = subscribers.remove(jobExecution.getId());
+        }
+        if (emitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            finish(emitter, progress);
+        }
+    }
+
+    /**
+     * Remove a subscriber unless the completion broadcast has taken it already
+     */
+    private synchronized boolean unsubscribe(Long jobExecutionId, SseEmitter emitter) {
+        List<SseEmitter> emitters = subscribers.get(jobExecutionId);
+        if (emitters == null || !emitters.remove(emitter)) {
+            return false;
+        }
+        if (emitters.isEmpty()) {
+            subscribers.remove(jobExecutionId);
+        }
+        return true;
+    }
+
+    /**
+     * Counts of a job execution. Partitioned steps only hold the sum of their partitions once they
+     * end, so while partitions exist their counts are used instead of the manager step's.
+     */
+    public JobProgress snapshot(JobExecution jobExecution) {
+        Collection<StepExecution> stepExecutions = jobExecution.getStepExecutions();
+        boolean partitioned = stepExecutions.stream()
+                .anyMatch(stepExecution -> stepExecution.getStepName().contains(":"));
+
+        long read = 0;
+        long written = 0;
+        long skipped = 0;
+        long filtered = 0;
+        for (StepExecution stepExecution : stepExecutions) {
+            if (partitioned != stepExecution.getStepName().contains(":")) {
+                continue;
+            }
+            read += stepExecution.getReadCount();
+            written += stepExecution.getWriteCount();
+            skipped += stepExecution.getSkipCount();
+            filtered += stepExecution.getFilterCount();
+        }
+
+        double rowsPerSecond = 0;
+        if (jobExecution.getStartTime() != null) {
+            LocalDateTime end = jobExecution.getEndTime() != null ? jobExecution.getEndTime() : LocalDateTime.now();
+            long millis = Duration.between(jobExecution.getStartTime(), end).toMillis();
+            rowsPerSecond = millis > 0 ? read * 1000d / millis : 0;
+        }
+
+        return JobProgress.builder()
+                .jobExecutionId(jobExecution.getId())
+                .status(jobExecution.getStatus().name())
+                .exitCode(jobExecution.getExitStatus().getExitCode())
+                .readCount(read)
+                .writeCount(written)
+                .skipCount(skipped)
+                .filterCount(filtered)
+                .rowsPerSecond(Math.round(rowsPerSecond * 10) / 10d)
+                .startTime(jobExecution.getStartTime())
+                .endTime(jobExecution.getEndTime())
+                .build();
+    }
+
+    private void finish(SseEmitter emitter, JobProgress progress) {
+        if (send(emitter, COMPLETED_EVENT, progress)) {
+            emitter.complete();
+        }
+    }
+
+    private boolean send(SseEmitter emitter, String event, JobProgress progress) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(progress));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping progress subscriber: {}", e.getMessage());
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    /**
+     * Job progress DTO
+     */
+    @lombok.Data
+    @lombok.Builder
+    public static class JobProgress {
+        private Long jobExecutionId;
+        private String status;
+        private String exitCode;
+        private long readCount;
+        private long writeCount;
+        private long skipCount;
+        private long filterCount;
+        private double rowsPerSecond;
+        private LocalDateTime startTime;
+        private LocalDateTime endTime;
+    }
+}
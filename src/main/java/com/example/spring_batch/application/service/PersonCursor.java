@@ -0,0 +1,41 @@
+package com.example.spring_batch.application.service;
+
+import com.example.spring_batch.domain.model.Person;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in the {@code (createdAt, id)} ordering of persons, exchanged with clients as an
+ * opaque URL-safe token
+ */
+record PersonCursor(LocalDateTime createdAt, UUID id) {
+
+    private static final char SEPARATOR = '|';
+
+    static PersonCursor after(Person person) {
+        return new PersonCursor(person.getCreatedAt(), person.getId());
+    }
+
+    String encode() {
+        String value = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static PersonCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new PersonCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    UUID.fromString(value.substring(separator + 1)));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.spring_batch.application.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams persons to an output stream as NDJSON or CSV.
+ * <p>
+ * Rows are read through a forward-only, read-only JDBC cursor inside a read-only transaction (which
+ * PostgreSQL needs to honour the fetch size instead of buffering the whole result) and written
+ * straight from the {@link ResultSet} to the output, without building entities or DTOs, so heap use
+ * does not depend on the number of rows exported.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PersonExportService {
+
+    static final int FETCH_SIZE = 5_000;
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String[] HEADER = {"id", "firstName", "lastName", "email", "createdAt", "updatedAt"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Export persons created in {@code [from, to)}, either bound being optional, ordered by creation time and id
+     */
+    public long export(ExportFormat format, LocalDateTime from, LocalDateTime to, OutputStream output) {
+        long start = System.currentTimeMillis();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        Long exported = transactionTemplate.execute(status -> {
+            try {
+                RowSink sink = format == ExportFormat.CSV ? new CsvSink(output) : new NdjsonSink(output);
+                long[] rows = {0};
+                jdbcTemplate.query(connection -> prepare(connection, from, to), resultSet -> {
+                    try {
+                        sink.write(resultSet);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    rows[0]++;
+                });
+                sink.finish();
+                return rows[0];
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        log.info("Exported {} persons as {} in {} ms", exported, format, System.currentTimeMillis() - start);
+        return exported != null ? exported : 0;
+    }
+
+    private static PreparedStatement prepare(Connection connection, LocalDateTime from, LocalDateTime to)
+            throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT id, first_name, last_name, email, created_at, updated_at FROM persons");
+        List<LocalDateTime> bounds = new ArrayList<>(2);
+        if (from != null) {
+            sql.append(" WHERE created_at >= ?");
+            bounds.add(from);
+        }
+        if (to != null) {
+            sql.append(from != null ? " AND" : " WHERE").append(" created_at < ?");
+            bounds.add(to);
+        }
+        sql.append(" ORDER BY created_at, id");
+
+        PreparedStatement statement = connection.prepareStatement(sql.toString(),
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(FETCH_SIZE);
+        for (int i = 0; i < bounds.size(); i++) {
+            statement.setTimestamp(i + 1, Timestamp.valueOf(bounds.get(i)));
+        }
+        return statement;
+    }
+
+    private static String timestamp(ResultSet resultSet, int column) throws SQLException {
+        Timestamp value = resultSet.getTimestamp(column);
+        return value != null ? TIMESTAMP_FORMAT.format(value.toLocalDateTime()) : null;
+    }
+
+    private interface RowSink {
+
+        void write(ResultSet resultSet) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private final class NdjsonSink implements RowSink {
+
+        private final JsonGenerator generator;
+
+        private NdjsonSink(OutputStream output) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(output);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void write(ResultSet resultSet) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeStringField(HEADER[0], resultSet.getString(1));
+            generator.writeStringField(HEADER[1], resultSet.getString(2));
+            generator.writeStringField(HEADER[2], resultSet.getString(3));
+            generator.writeStringField(HEADER[3], resultSet.getString(4));
+            generator.writeStringField(HEADER[4], timestamp(resultSet, 5));
+            generator.writeStringField(HEADER[5], timestamp(resultSet, 6));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.close();
+        }
+    }
+
+    private static final class CsvSink implements RowSink {
+
+        private final Writer writer;
+
+        private CsvSink(OutputStream output) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+            this.writer.write(String.join(",", HEADER));
+            this.writer.write('\n');
+        }
+
+        @Override
+        public void write(ResultSet resultSet) throws SQLException, IOException {
+            field(resultSet.getString(1));
+            writer.write(',');
+            field(resultSet.getString(2));
+            writer.write(',');
+            field(resultSet.getString(3));
+            writer.write(',');
+            field(resultSet.getString(4));
+            writer.write(',');
+            field(timestamp(resultSet, 5));
+            writer.write(',');
+            field(timestamp(resultSet, 6));
+            writer.write('\n');
+        }
+
+        private void field(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    writer.write('"');
+                }
+                writer.write(c);
+            }
+            writer.write('"');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+
+    public enum ExportFormat {
+        NDJSON,
+        CSV
+    }
+}
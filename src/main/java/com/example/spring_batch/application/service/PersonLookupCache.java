@@ -0,0 +1,101 @@
+package com.example.spring_batch.application.service;
+
+import com.example.spring_batch.domain.event.PersonsSavedEvent;
+import com.example.spring_batch.domain.model.Person;
+import com.example.spring_batch.interfaces.dto.PersonDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of {@link PersonDto}s by id and by email, bounded by size and time to live.
+ * <p>
+ * Caffeine evicts by W-TinyLFU, so frequently read persons stay cached while a scan over many
+ * others does not push them out. DTOs are cached by id; the email cache only maps an email to
+ * an id and is confirmed against the DTO's current email. Saved persons are invalidated key by key
+ * once their transaction commits. Hit, miss and eviction counts are published as the
+ * {@code cache.*} metrics of the {@code persons.by-id} and {@code persons.by-email} caches.
+ */
+@Slf4j
+@Component
+public class PersonLookupCache {
+
+    private final Cache<UUID, PersonDto> byId;
+    private final Cache<String, UUID> idsByEmail;
+    // bumped on every invalidation so that an email lookup racing with a write does not cache what it read
+    private final AtomicLong generation = new AtomicLong();
+
+    public PersonLookupCache(MeterRegistry meterRegistry,
+                             @Value("${persons.cache.maximum-size:100000}") long maximumSize,
+                             @Value("${persons.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.idsByEmail = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "persons.by-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByEmail, "persons.by-email");
+        log.info("Person lookup cache holds up to {} entries for {}", maximumSize, expireAfterWrite);
+    }
+
+    /**
+     * Get a person by id, loading and caching it on a miss. Persons that do not exist are not cached.
+     */
+    public Optional<PersonDto> getById(UUID id, Function<UUID, Optional<PersonDto>> loader) {
+        return Optional.ofNullable(byId.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    /**
+     * Get a person by email, loading and caching it on a miss
+     */
+    public Optional<PersonDto> getByEmail(String email, Function<String, Optional<PersonDto>> loader) {
+        UUID id = idsByEmail.getIfPresent(email);
+        if (id != null) {
+            PersonDto cached = byId.getIfPresent(id);
+            if (cached != null && email.equals(cached.getEmail())) {
+                return Optional.of(cached);
+            }
+        }
+
+        long generationBeforeLoad = generation.get();
+        Optional<PersonDto> loaded = loader.apply(email);
+        if (loaded.isPresent() && generation.get() == generationBeforeLoad) {
+            PersonDto person = loaded.get();
+            byId.put(person.getId(), person);
+            idsByEmail.put(email, person.getId());
+        }
+        return loaded;
+    }
+
+    /**
+     * Drop the saved persons, under their id and their new email, once the save is committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonsSaved(PersonsSavedEvent event) {
+        generation.incrementAndGet();
+        for (Person person : event.persons()) {
+            if (person.getId() != null) {
+                byId.invalidate(person.getId());
+            }
+            if (person.getEmail() != null) {
+                idsByEmail.invalidate(person.getEmail());
+            }
+        }
+    }
+}
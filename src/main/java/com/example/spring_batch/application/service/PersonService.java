@@ -1,17 +1,29 @@
 package com.example.spring_batch.application.service;
 
+import com.example.spring_batch.domain.event.PersonsSavedEvent;
 import com.example.spring_batch.domain.model.Person;
+import com.example.spring_batch.domain.model.PersonStatistic;
+import com.example.spring_batch.domain.repository.PersonNameSearch;
 import com.example.spring_batch.domain.repository.PersonRepository;
+import com.example.spring_batch.domain.repository.PersonStatisticRepository;
+import com.example.spring_batch.infrastructure.persistence.PersonStatisticsStore;
+import com.example.spring_batch.interfaces.dto.CursorPage;
 import com.example.spring_batch.interfaces.dto.PersonDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -22,6 +34,11 @@ import java.util.stream.Collectors;
 public class PersonService {
 
     private final PersonRepository personRepository;
+    private final PersonNameSearch personNameSearch;
+    private final PersonStatisticRepository personStatisticRepository;
+    private final PersonStatisticsStore personStatisticsStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PersonLookupCache personLookupCache;
 
     /**
      * Find all persons with pagination
@@ -33,53 +50,114 @@ public class PersonService {
     }
 
     /**
-     * Find person by ID
+     * Find persons by keyset over (createdAt, id), continuing after the given cursor.
+     * Each page is an index range scan, however far the cursor is into the table.
      */
+    public CursorPage<PersonDto> findPersonsByCursor(String cursor, int size, boolean descending, boolean includeTotal) {
+        log.debug("Finding persons after cursor: {}, size: {}, descending: {}", cursor, size, descending);
+        PersonCursor position = cursor != null ? PersonCursor.decode(cursor) : null;
+        int limit = size + 1;
+
+        List<Person> persons;
+        if (descending) {
+            persons = position == null
+                    ? personRepository.findFirstByCreatedAtDesc(limit)
+                    : personRepository.findBeforeByCreatedAtDesc(position.createdAt(), position.id(), limit);
+        } else {
+            persons = position == null
+                    ? personRepository.findFirstByCreatedAtAsc(limit)
+                    : personRepository.findAfterByCreatedAtAsc(position.createdAt(), position.id(), limit);
+        }
+
+        boolean hasNext = persons.size() > size;
+        List<Person> page = hasNext ? persons.subList(0, size) : persons;
+        return CursorPage.<PersonDto>builder()
+                .content(page.stream().map(this::toDto).toList())
+                .size(page.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? PersonCursor.after(page.get(page.size() - 1)).encode() : null)
+                .totalElements(includeTotal ? countPersons() : null)
+                .build();
+    }
+
+    /**
+     * Find person by ID, served from the lookup cache; only a miss opens a transaction
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Optional<PersonDto> findPersonById(UUID id) {
         log.debug("Finding person by ID: {}", id);
-        return personRepository.findById(id)
-                .map(this::toDto);
+        return personLookupCache.getById(id, key -> personRepository.findById(key)
+                .map(this::toDto));
     }
 
     /**
-     * Find person by email
+     * Find person by email, served from the lookup cache; only a miss opens a transaction
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Optional<PersonDto> findPersonByEmail(String email) {
         log.debug("Finding person by email: {}", email);
-        return personRepository.findByEmail(email)
-                .map(this::toDto);
+        return personLookupCache.getByEmail(email, key -> personRepository.findByEmail(key)
+                .map(this::toDto));
     }
 
     /**
-     * Search persons by name
+     * Search persons by name, ordered by last name, first name and id
      */
     public Page<PersonDto> searchPersonsByName(String name, Pageable pageable) {
         log.debug("Searching persons by name: {}", name);
-        return personRepository.searchByName(name, pageable)
+        return personNameSearch.search(name, pageable)
                 .map(this::toDto);
     }
 
     /**
-     * Get statistics
+     * Get statistics from the maintained counters
      */
     public PersonStatistics getStatistics() {
         log.debug("Getting person statistics");
-        long totalPersons = personRepository.count();
-        long personsWithExampleDomain = personRepository.countByEmailDomain("@example.com");
-        
+        long totalPersons = countPersons();
+
+        Map<String, Long> personsByEmailDomain = new TreeMap<>();
+        for (PersonStatistic statistic : personStatisticRepository.findByNameStartingWith(PersonStatistic.DOMAIN_PREFIX)) {
+            if (statistic.getValue() != 0) {
+                personsByEmailDomain.put(statistic.getName().substring(PersonStatistic.DOMAIN_PREFIX.length()),
+                        statistic.getValue());
+            }
+        }
+
+        Map<Long, Long> rowsImportedByJobExecution = new TreeMap<>();
+        for (PersonStatistic statistic : personStatisticRepository.findByNameStartingWith(PersonStatistic.JOB_EXECUTION_PREFIX)) {
+            rowsImportedByJobExecution.put(
+                    Long.parseLong(statistic.getName().substring(PersonStatistic.JOB_EXECUTION_PREFIX.length())),
+                    statistic.getValue());
+        }
+
         return PersonStatistics.builder()
                 .totalPersons(totalPersons)
-                .personsWithExampleDomain(personsWithExampleDomain)
+                .personsWithExampleDomain(personsByEmailDomain.getOrDefault("example.com", 0L))
+                .personsByEmailDomain(personsByEmailDomain)
+                .rowsImportedByJobExecution(rowsImportedByJobExecution)
                 .build();
     }
 
+    /**
+     * Recompute statistics from the persons table
+     */
+    @Transactional
+    public PersonStatistics rebuildStatistics() {
+        log.info("Rebuilding person statistics");
+        personStatisticsStore.rebuild();
+        return getStatistics();
+    }
+
     /**
      * Save person
      */
     @Transactional
     public PersonDto savePerson(Person person) {
-        log.debug("Saving person: {}", person.getFullName());
-        Person savedPerson = personRepository.save(person);
+        if (log.isDebugEnabled()) {
+            log.debug("Saving person: {}", person.getFullName());
+        }
+        Person savedPerson = saveAndRecord(List.of(person)).get(0);
         return toDto(savedPerson);
     }
 
@@ -89,12 +167,49 @@ public class PersonService {
     @Transactional
     public List<PersonDto> savePersons(List<Person> persons) {
         log.debug("Saving {} persons", persons.size());
-        List<Person> savedPersons = personRepository.saveAll(persons);
+        List<Person> savedPersons = saveAndRecord(persons);
         return savedPersons.stream()
                 .map(this::toDto)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Number of persons, from the maintained counter instead of a COUNT query
+     */
+    private long countPersons() {
+        return personStatisticRepository.findById(PersonStatistic.TOTAL)
+                .map(PersonStatistic::getValue)
+                .orElse(0L);
+    }
+
+    /**
+     * Save persons, updating the statistics in the same transaction and announcing them for derived state
+     */
+    private List<Person> saveAndRecord(List<Person> persons) {
+        List<Person> inserts = persons.stream()
+                .filter(person -> person.getId() == null)
+                .toList();
+        List<UUID> updatedIds = persons.stream()
+                .map(Person::getId)
+                .filter(Objects::nonNull)
+                .toList();
+        Map<UUID, String> previousEmails = new HashMap<>();
+        for (Person existing : personRepository.findAllById(updatedIds)) {
+            previousEmails.put(existing.getId(), existing.getEmail());
+        }
+
+        List<Person> savedPersons = personRepository.saveAll(persons);
+
+        personStatisticsStore.recordWritten(inserts, null, 0);
+        for (Person saved : savedPersons) {
+            if (previousEmails.containsKey(saved.getId())) {
+                personStatisticsStore.recordEmailChange(previousEmails.get(saved.getId()), saved.getEmail());
+            }
+        }
+        eventPublisher.publishEvent(new PersonsSavedEvent(savedPersons));
+        return savedPersons;
+    }
+
     /**
      * Convert Person to PersonDto
      */
@@ -118,5 +233,7 @@ public class PersonService {
     public static class PersonStatistics {
         private long totalPersons;
         private long personsWithExampleDomain;
+        private Map<String, Long> personsByEmailDomain;
+        private Map<Long, Long> rowsImportedByJobExecution;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.example.spring_batch.domain.event;
+
+import com.example.spring_batch.domain.model.Person;
+
+import java.util.List;
+
+/**
+ * Published inside the transaction that inserted or updated the persons; listeners that keep
+ * derived state (search index, cache) react after it commits
+ */
+public record PersonsSavedEvent(List<Person> persons) {
+}
@@ -0,0 +1,18 @@
+package com.example.spring_batch.domain.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates the annotated {@code UUID} id as a time-ordered version 7 UUID, so that inserts
+ * append to the right edge of the primary key index instead of landing on random pages
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface GeneratedUuidV7 {
+}
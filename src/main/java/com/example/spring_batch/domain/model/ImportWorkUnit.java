@@ -0,0 +1,82 @@
+package com.example.spring_batch.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One partition of a distributed import, queued for any application node to claim and execute
+ */
+@Entity
+@Table(name = "import_work_units", indexes = {
+        // claiming scans pending and expired units in id order
+        @Index(name = "idx_import_work_units_status_id", columnList = "status, id"),
+        @Index(name = "idx_import_work_units_manager", columnList = "manager_step_execution_id"),
+        // metadata purge
+        @Index(name = "idx_import_work_units_job_execution", columnList = "job_execution_id")
+})
+@Data
+@NoArgsConstructor
+public class ImportWorkUnit {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_execution_id", nullable = false)
+    private Long jobExecutionId;
+
+    @Column(name = "manager_step_execution_id", nullable = false)
+    private Long managerStepExecutionId;
+
+    @Column(name = "step_execution_id", nullable = false, unique = true)
+    private Long stepExecutionId;
+
+    @Column(name = "partition_name", nullable = false, length = 255)
+    private String partitionName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private Status status;
+
+    /**
+     * Node holding the lease while the unit is claimed
+     */
+    @Column(name = "owner", length = 255)
+    private String owner;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
+    @Column(name = "error", length = 2500)
+    private String error;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public enum Status {
+        PENDING,
+        CLAIMED,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.spring_batch.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Input file imported completely by a delta import, identified by the SHA-256 of its content
+ */
+@Entity
+@Table(name = "imported_files")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportedFile {
+
+    @Id
+    @Column(name = "fingerprint", length = 64)
+    private String fingerprint;
+
+    @Column(name = "file_name", nullable = false, length = 1024)
+    private String fileName;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(name = "job_execution_id", nullable = false)
+    private long jobExecutionId;
+
+    @Column(name = "imported_at", nullable = false)
+    private LocalDateTime importedAt;
+}
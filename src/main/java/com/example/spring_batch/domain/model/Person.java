@@ -9,7 +9,12 @@ import jakarta.persistence.*;
 import java.util.UUID;
 
 @Entity
-@Table(name = "persons")
+@Table(name = "persons", indexes = {
+        // ordering of name search results
+        @Index(name = "idx_persons_name_order", columnList = "last_name, first_name, id"),
+        // keyset pagination over (created_at, id)
+        @Index(name = "idx_persons_created_at_id", columnList = "created_at, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -17,7 +22,7 @@ import java.util.UUID;
 public class Person {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedUuidV7
     private UUID id;
 
     @Column(name = "first_name", nullable = false, length = 100)
@@ -48,9 +53,27 @@ public class Person {
         updatedAt = java.time.LocalDateTime.now();
     }
 
+    /**
+     * Assign the identifier and audit timestamps the entity callbacks would set,
+     * for writers that insert without going through the persistence context
+     */
+    public void prepareForInsert() {
+        if (id == null) {
+            id = UuidV7.next();
+        }
+        onCreate();
+    }
+
+    /**
+     * Refresh the update timestamp, for writers that update without the persistence context
+     */
+    public void prepareForUpdate() {
+        onUpdate();
+    }
+
     // Domain methods
     public String getFullName() {
-        return String.format("%s %s", firstName, lastName).trim();
+        return PersonNames.fullName(firstName, lastName);
     }
 
     public boolean hasValidEmail() {
@@ -59,9 +82,7 @@ public class Person {
 
     public void generateEmail() {
         if (firstName != null && lastName != null) {
-            this.email = String.format("%s.%s@example.com", 
-                firstName.toLowerCase(), 
-                lastName.toLowerCase());
+            this.email = PersonNames.email(firstName, lastName);
         }
     }
 } 
\ No newline at end of file
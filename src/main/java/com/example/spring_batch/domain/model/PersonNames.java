@@ -0,0 +1,75 @@
+package com.example.spring_batch.domain.model;
+
+import java.util.Locale;
+
+/**
+ * Builds the derived name strings of {@link Person} without {@code String.format}.
+ * <p>
+ * Emails of ASCII names are lowercased while being copied into a per-thread buffer, so the only
+ * allocation is the resulting string. Other names, and every name under a Turkish or Azerbaijani
+ * default locale (where {@code I} lowercases to a dotless {@code ı}), go through
+ * {@link String#toLowerCase()}, which keeps the result identical to the former
+ * {@code String.format("%s.%s@example.com", firstName.toLowerCase(), lastName.toLowerCase())}.
+ */
+final class PersonNames {
+
+    static final String EMAIL_DOMAIN = "@example.com";
+
+    private static final int MAX_BUFFER_CAPACITY = 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(64));
+
+    private PersonNames() {
+    }
+
+    static String email(String firstName, String lastName) {
+        if (!isAscii(firstName) || !isAscii(lastName) || !asciiLowerCaseIsLocaleSafe()) {
+            return firstName.toLowerCase() + '.' + lastName.toLowerCase() + EMAIL_DOMAIN;
+        }
+
+        int length = firstName.length() + 1 + lastName.length() + EMAIL_DOMAIN.length();
+        StringBuilder buffer = buffer(length);
+        appendLowerCase(buffer, firstName);
+        buffer.append('.');
+        appendLowerCase(buffer, lastName);
+        buffer.append(EMAIL_DOMAIN);
+        return buffer.toString();
+    }
+
+    /**
+     * Same result as {@code String.format("%s %s", firstName, lastName).trim()}
+     */
+    static String fullName(String firstName, String lastName) {
+        return (firstName + ' ' + lastName).trim();
+    }
+
+    private static StringBuilder buffer(int length) {
+        // virtual threads are created per task, so a thread local buffer would be allocated every time
+        if (Thread.currentThread().isVirtual() || length > MAX_BUFFER_CAPACITY) {
+            return new StringBuilder(length);
+        }
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        return buffer;
+    }
+
+    private static void appendLowerCase(StringBuilder buffer, String ascii) {
+        for (int i = 0; i < ascii.length(); i++) {
+            char c = ascii.charAt(i);
+            buffer.append(c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c);
+        }
+    }
+
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean asciiLowerCaseIsLocaleSafe() {
+        String language = Locale.getDefault().getLanguage();
+        return !"tr".equals(language) && !"az".equals(language);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.spring_batch.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Content hash of the last imported version of a person row, by hash of its natural key
+ */
+@Entity
+@Table(name = "person_row_hashes")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PersonRowHash {
+
+    @Id
+    @Column(name = "key_hash")
+    private long keyHash;
+
+    @Column(name = "content_hash", nullable = false)
+    private long contentHash;
+}
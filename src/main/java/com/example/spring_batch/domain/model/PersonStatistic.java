@@ -0,0 +1,39 @@
+package com.example.spring_batch.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One counter of the persons statistics, kept current by the writers instead of counted on request
+ */
+@Entity
+@Table(name = "person_statistics")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PersonStatistic {
+
+    public static final String TOTAL = "persons.total";
+    public static final String DOMAIN_PREFIX = "persons.domain.";
+    public static final String JOB_EXECUTION_PREFIX = "import.job-execution.";
+
+    @Id
+    @Column(name = "stat_name", length = 255)
+    private String name;
+
+    @Column(name = "stat_value", nullable = false)
+    private long value;
+
+    public static String domain(String domain) {
+        return DOMAIN_PREFIX + domain;
+    }
+
+    public static String jobExecution(long jobExecutionId) {
+        return JOB_EXECUTION_PREFIX + jobExecutionId;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.spring_batch.domain.model;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered UUIDs, version 7 of RFC 9562: a 48-bit Unix millisecond timestamp, a 12-bit
+ * counter in {@code rand_a} and 62 random bits.
+ * <p>
+ * Timestamp and counter are advanced together as one 60-bit value with a CAS loop, so identifiers
+ * are strictly increasing within the JVM, also across threads and when the clock steps back. When
+ * more than 4096 identifiers are created within a millisecond the counter carries into the
+ * timestamp, which then runs slightly ahead of the clock until it catches up. Apart from the
+ * {@link UUID} itself nothing is allocated.
+ */
+public final class UuidV7 {
+
+    private static final int COUNTER_BITS = 12;
+    private static final long VERSION = 7L << COUNTER_BITS;
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+    private static final long RANDOM_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private UuidV7() {
+    }
+
+    public static UUID next() {
+        long now = System.currentTimeMillis() << COUNTER_BITS;
+        long previous;
+        long next;
+        do {
+            previous = LAST.get();
+            next = Math.max(now, previous + 1);
+        } while (!LAST.compareAndSet(previous, next));
+        return build(next, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Creation time, in Unix milliseconds, encoded in a version 7 UUID
+     */
+    public static long timestamp(UUID uuid) {
+        if (uuid.version() != 7) {
+            throw new IllegalArgumentException("Not a version 7 UUID: " + uuid);
+        }
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+
+    static UUID build(long timestampAndCounter, long random) {
+        long timestamp = timestampAndCounter >>> COUNTER_BITS;
+        long counter = timestampAndCounter & ((1L << COUNTER_BITS) - 1);
+        long mostSignificantBits = (timestamp << 16) | VERSION | counter;
+        long leastSignificantBits = VARIANT | (random & RANDOM_MASK);
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+}
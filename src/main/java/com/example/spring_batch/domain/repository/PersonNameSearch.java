@@ -0,0 +1,17 @@
+package com.example.spring_batch.domain.repository;
+
+import com.example.spring_batch.domain.model.Person;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Case-insensitive substring search over first and last names, backed by an index instead of a
+ * full table scan. Results are ordered by last name, first name and id, so pages are stable.
+ */
+public interface PersonNameSearch {
+
+    /**
+     * Search persons whose first or last name contains the given text
+     */
+    Page<Person> search(String name, Pageable pageable);
+}
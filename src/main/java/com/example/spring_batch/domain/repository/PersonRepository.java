@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -41,6 +42,36 @@ public interface PersonRepository extends JpaRepository<Person, UUID> {
     @Query("SELECT p FROM Person p WHERE LOWER(p.firstName) LIKE LOWER(CONCAT('%', :name, '%')) OR LOWER(p.lastName) LIKE LOWER(CONCAT('%', :name, '%'))")
     Page<Person> searchByName(@Param("name") String name, Pageable pageable);
 
+    /**
+     * First keyset page, newest first
+     */
+    @Query(value = "SELECT * FROM persons ORDER BY created_at DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<Person> findFirstByCreatedAtDesc(@Param("limit") int limit);
+
+    /**
+     * Keyset page of persons created before the given (createdAt, id), newest first
+     */
+    @Query(value = "SELECT * FROM persons WHERE (created_at, id) < (:createdAt, :id) "
+            + "ORDER BY created_at DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<Person> findBeforeByCreatedAtDesc(@Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") UUID id,
+                                           @Param("limit") int limit);
+
+    /**
+     * First keyset page, oldest first
+     */
+    @Query(value = "SELECT * FROM persons ORDER BY created_at, id LIMIT :limit", nativeQuery = true)
+    List<Person> findFirstByCreatedAtAsc(@Param("limit") int limit);
+
+    /**
+     * Keyset page of persons created after the given (createdAt, id), oldest first
+     */
+    @Query(value = "SELECT * FROM persons WHERE (created_at, id) > (:createdAt, :id) "
+            + "ORDER BY created_at, id LIMIT :limit", nativeQuery = true)
+    List<Person> findAfterByCreatedAtAsc(@Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") UUID id,
+                                         @Param("limit") int limit);
+
     /**
      * Count persons by email domain
      */
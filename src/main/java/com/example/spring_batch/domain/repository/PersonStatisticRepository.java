@@ -0,0 +1,16 @@
+package com.example.spring_batch.domain.repository;
+
+import com.example.spring_batch.domain.model.PersonStatistic;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PersonStatisticRepository extends JpaRepository<PersonStatistic, String> {
+
+    /**
+     * Find statistics whose name starts with the given prefix
+     */
+    List<PersonStatistic> findByNameStartingWith(String prefix);
+}
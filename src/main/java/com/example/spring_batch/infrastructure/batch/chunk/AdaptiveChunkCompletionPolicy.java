@@ -0,0 +1,216 @@
+package com.example.spring_batch.infrastructure.batch.chunk;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.SkipListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.batch.repeat.context.RepeatContextSupport;
+import org.springframework.batch.repeat.policy.CompletionPolicySupport;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Completion policy that sizes each chunk from the measured duration of the previous ones.
+ * <p>
+ * After every chunk the time per item is measured and the size moves half way towards the size
+ * that would take {@code targetChunkDuration}, growing at most twofold per chunk and staying
+ * within {@code [minChunkSize, maxChunkSize]}. A rollback halves the size and a skip shrinks it
+ * by a quarter. Every change is logged and the current size is kept in the step execution context,
+ * under {@link #CHUNK_SIZE_KEY}, so that a restart continues from the converged size.
+ * <p>
+ * State is held per step execution, so one instance can serve concurrently running partitions.
+ */
+@Slf4j
+public class AdaptiveChunkCompletionPolicy extends CompletionPolicySupport
+        implements ChunkListener, StepExecutionListener, SkipListener<Object, Object> {
+
+    public static final String CHUNK_SIZE_KEY = "adaptive.chunk.size";
+    public static final String CHANGE_COUNT_KEY = "adaptive.chunk.changes";
+    public static final String LAST_CHANGE_KEY = "adaptive.chunk.lastChange";
+
+    private final int initialChunkSize;
+    private final int minChunkSize;
+    private final int maxChunkSize;
+    private final long targetChunkNanos;
+
+    private final Map<Long, State> states = new ConcurrentHashMap<>();
+
+    public AdaptiveChunkCompletionPolicy(int initialChunkSize, int minChunkSize, int maxChunkSize,
+                                         Duration targetChunkDuration) {
+        if (minChunkSize < 1 || maxChunkSize < minChunkSize) {
+            throw new IllegalArgumentException("Invalid chunk size bounds [" + minChunkSize + ", " + maxChunkSize + "]");
+        }
+        this.initialChunkSize = clamp(initialChunkSize, minChunkSize, maxChunkSize);
+        this.minChunkSize = minChunkSize;
+        this.maxChunkSize = maxChunkSize;
+        this.targetChunkNanos = targetChunkDuration.toNanos();
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        ExecutionContext context = stepExecution.getExecutionContext();
+        int chunkSize = context.containsKey(CHUNK_SIZE_KEY)
+                ? clamp(context.getInt(CHUNK_SIZE_KEY), minChunkSize, maxChunkSize)
+                : initialChunkSize;
+        states.put(stepExecution.getId(), new State(chunkSize));
+        log.info("Step {} starts with adaptive chunk size {} (bounds [{}, {}], target {} ms)",
+                stepExecution.getStepName(), chunkSize, minChunkSize, maxChunkSize, targetChunkNanos / 1_000_000);
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        State state = states.remove(stepExecution.getId());
+        if (state != null) {
+            log.info("Step {} finished with adaptive chunk size {} after {} changes",
+                    stepExecution.getStepName(), state.chunkSize, state.changes);
+        }
+        return null;
+    }
+
+    @Override
+    public RepeatContext start(RepeatContext parent) {
+        State state = currentState();
+        return new ChunkSizeContext(parent, state != null ? state.chunkSize : initialChunkSize);
+    }
+
+    @Override
+    public boolean isComplete(RepeatContext context) {
+        return context.getStartedCount() >= ((ChunkSizeContext) context).chunkSize;
+    }
+
+    @Override
+    public boolean isComplete(RepeatContext context, RepeatStatus result) {
+        return super.isComplete(context, result) || isComplete(context);
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        StepExecution stepExecution = context.getStepContext().getStepExecution();
+        State state = states.get(stepExecution.getId());
+        if (state != null) {
+            state.chunkStartNanos = System.nanoTime();
+            state.readCountAtStart = stepExecution.getReadCount() + stepExecution.getReadSkipCount();
+            state.skippedInChunk = false;
+        }
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        StepExecution stepExecution = context.getStepContext().getStepExecution();
+        State state = states.get(stepExecution.getId());
+        if (state == null || state.chunkStartNanos == 0) {
+            return;
+        }
+
+        long elapsed = Math.max(1, System.nanoTime() - state.chunkStartNanos);
+        long items = stepExecution.getReadCount() + stepExecution.getReadSkipCount() - state.readCountAtStart;
+        state.chunkStartNanos = 0;
+        if (items <= 0) {
+            return;
+        }
+
+        if (state.skippedInChunk) {
+            resize(stepExecution, state, state.chunkSize * 3 / 4, "skip");
+            return;
+        }
+
+        double nanosPerItem = (double) elapsed / items;
+        int ideal = (int) Math.min(Integer.MAX_VALUE, targetChunkNanos / nanosPerItem);
+        int next = state.chunkSize + (ideal - state.chunkSize) / 2;
+        next = Math.min(next, state.chunkSize * 2);
+        if (log.isDebugEnabled()) {
+            log.debug("Chunk of {} items took {} ms ({} items/s)", items, elapsed / 1_000_000,
+                    (long) (1_000_000_000d / nanosPerItem));
+        }
+        resize(stepExecution, state, next, "throughput");
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        StepExecution stepExecution = context.getStepContext().getStepExecution();
+        State state = states.get(stepExecution.getId());
+        if (state != null) {
+            state.chunkStartNanos = 0;
+            resize(stepExecution, state, state.chunkSize / 2, "rollback");
+        }
+    }
+
+    @Override
+    public void onSkipInRead(Throwable t) {
+        markSkipped();
+    }
+
+    @Override
+    public void onSkipInProcess(Object item, Throwable t) {
+        markSkipped();
+    }
+
+    @Override
+    public void onSkipInWrite(Object item, Throwable t) {
+        markSkipped();
+    }
+
+    private void markSkipped() {
+        State state = currentState();
+        if (state != null) {
+            state.skippedInChunk = true;
+        }
+    }
+
+    private void resize(StepExecution stepExecution, State state, int requested, String reason) {
+        int chunkSize = clamp(requested, minChunkSize, maxChunkSize);
+        if (chunkSize == state.chunkSize) {
+            return;
+        }
+
+        log.info("Step {}: chunk size {} -> {} ({})", stepExecution.getStepName(), state.chunkSize, chunkSize, reason);
+        state.chunkSize = chunkSize;
+        state.changes++;
+
+        ExecutionContext context = stepExecution.getExecutionContext();
+        context.putInt(CHUNK_SIZE_KEY, chunkSize);
+        context.putInt(CHANGE_COUNT_KEY, state.changes);
+        context.putString(LAST_CHANGE_KEY, reason);
+    }
+
+    private State currentState() {
+        StepContext context = StepSynchronizationManager.getContext();
+        return context == null ? null : states.get(context.getStepExecution().getId());
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static final class State {
+        private volatile int chunkSize;
+        private int changes;
+        private long chunkStartNanos;
+        private long readCountAtStart;
+        private volatile boolean skippedInChunk;
+
+        private State(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    private static final class ChunkSizeContext extends RepeatContextSupport {
+
+        private final int chunkSize;
+
+        private ChunkSizeContext(RepeatContext parent, int chunkSize) {
+            super(parent);
+            this.chunkSize = chunkSize;
+        }
+    }
+}
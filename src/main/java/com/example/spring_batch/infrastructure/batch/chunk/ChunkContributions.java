@@ -0,0 +1,50 @@
+package com.example.spring_batch.infrastructure.batch.chunk;
+
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.core.step.tasklet.TaskletStep;
+
+/**
+ * Exposes the contribution of the chunk in progress to the writers of a step.
+ * <p>
+ * Read and process skips of a chunk are only added to the step execution when the chunk commits,
+ * so a writer that consults the skip policy itself has to count them from the chunk's
+ * {@link StepContribution}, which Spring Batch does not hand to writers. {@link #track(TaskletStep)}
+ * wraps the step's tasklet so that the contribution is bound to the chunk's thread while it runs.
+ */
+public final class ChunkContributions {
+
+    private static final ThreadLocal<StepContribution> CURRENT = new ThreadLocal<>();
+
+    private ChunkContributions() {
+    }
+
+    /**
+     * Bind the contribution of every chunk of the step while the chunk runs
+     */
+    public static TaskletStep track(TaskletStep step) {
+        Tasklet tasklet = step.getTasklet();
+        step.setTasklet((contribution, chunkContext) -> {
+            CURRENT.set(contribution);
+            try {
+                return tasklet.execute(contribution, chunkContext);
+            } finally {
+                CURRENT.remove();
+            }
+        });
+        return step;
+    }
+
+    /**
+     * Skips of the step including those of the chunk in progress, or only the committed ones of
+     * {@code stepExecution} when the step is not tracked
+     */
+    public static long stepSkipCount(StepExecution stepExecution) {
+        StepContribution contribution = CURRENT.get();
+        if (contribution != null) {
+            return contribution.getStepSkipCount();
+        }
+        return stepExecution != null ? stepExecution.getSkipCount() : 0;
+    }
+}
@@ -1,65 +1,269 @@
 package com.example.spring_batch.infrastructure.batch.config;
 
 import com.example.spring_batch.domain.model.Person;
+import com.example.spring_batch.infrastructure.batch.chunk.AdaptiveChunkCompletionPolicy;
+import com.example.spring_batch.infrastructure.batch.chunk.ChunkContributions;
+import com.example.spring_batch.infrastructure.batch.dedup.DuplicateEmailItemProcessor;
+import com.example.spring_batch.infrastructure.batch.delta.DeltaItemProcessor;
+import com.example.spring_batch.infrastructure.batch.delta.InputFingerprintListener;
 import com.example.spring_batch.infrastructure.batch.listener.BatchJobListener;
+import com.example.spring_batch.infrastructure.batch.metadata.LeanStepJobRepository;
+import com.example.spring_batch.infrastructure.batch.launch.ImportLaunchQueue;
+import com.example.spring_batch.infrastructure.batch.metadata.MetadataRetentionListener;
+import com.example.spring_batch.infrastructure.batch.listener.JobProgressListener;
+import com.example.spring_batch.infrastructure.batch.metrics.ImportMetricsListener;
+import com.example.spring_batch.infrastructure.batch.partition.ByteRangePersonItemReader;
+import com.example.spring_batch.infrastructure.batch.partition.InputFilePartitioner;
+import com.example.spring_batch.infrastructure.batch.pipeline.FailureCapturingItemProcessor;
+import com.example.spring_batch.infrastructure.batch.pipeline.FilterCountingAsyncItemWriter;
+import com.example.spring_batch.infrastructure.batch.pipeline.ReadAheadItemReader;
+import com.example.spring_batch.infrastructure.batch.partition.LineRangePartitioner;
+import com.example.spring_batch.infrastructure.batch.partition.WorkQueuePartitionHandler;
+import com.example.spring_batch.infrastructure.batch.partition.WorkQueueWorker;
 import com.example.spring_batch.infrastructure.batch.processor.PersonItemProcessor;
+import com.example.spring_batch.infrastructure.batch.reader.InputResources;
+import com.example.spring_batch.infrastructure.batch.reader.MappedPersonItemReader;
+import com.example.spring_batch.infrastructure.batch.writer.PersonCopyItemWriter;
+import com.example.spring_batch.infrastructure.batch.writer.BisectingItemWriter;
+import com.example.spring_batch.infrastructure.batch.writer.PersonJdbcBatchItemWriter;
+import com.example.spring_batch.infrastructure.batch.writer.PersonJpaItemWriter;
+import com.example.spring_batch.infrastructure.batch.writer.PersonUpsertItemWriter;
+import com.example.spring_batch.infrastructure.batch.writer.PersonsSavedEventItemWriter;
+import com.example.spring_batch.infrastructure.batch.writer.RowHashItemWriter;
+import com.example.spring_batch.infrastructure.batch.writer.StatisticsItemWriter;
+import com.example.spring_batch.infrastructure.persistence.DatabasePlatform;
+import com.example.spring_batch.infrastructure.persistence.DeltaIndexStore;
+import com.example.spring_batch.infrastructure.persistence.ImportWorkQueue;
+import com.example.spring_batch.infrastructure.persistence.PersonStatisticsStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ItemReadListener;
+import org.springframework.batch.core.ItemWriteListener;
 import org.springframework.batch.core.Job;
+import org.springframework.batch.core.SkipListener;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
 import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.explore.JobExplorer;
 import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
 import org.springframework.batch.core.launch.support.RunIdIncrementer;
 import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.FaultTolerantStepBuilder;
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
 import org.springframework.batch.core.step.builder.StepBuilder;
-import org.springframework.batch.item.database.JpaItemWriter;
-import org.springframework.batch.item.database.builder.JpaItemWriterBuilder;
+import org.springframework.batch.core.step.skip.LimitCheckingItemSkipPolicy;
+import org.springframework.batch.core.step.skip.SkipPolicy;
+import org.springframework.batch.integration.async.AsyncItemProcessor;
+import org.springframework.batch.integration.async.AsyncItemWriter;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemWriter;
 import org.springframework.batch.item.file.FlatFileItemReader;
+import org.springframework.batch.item.file.LineMapper;
+import org.springframework.batch.item.file.ResourceAwareItemReaderItemStream;
 import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
+import org.springframework.batch.item.file.builder.MultiResourceItemReaderBuilder;
 import org.springframework.batch.item.file.mapping.BeanWrapperFieldSetMapper;
+import org.springframework.batch.item.file.mapping.DefaultLineMapper;
+import org.springframework.batch.item.support.CompositeItemProcessor;
+import org.springframework.batch.item.file.transform.DelimitedLineTokenizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+
 @Slf4j
 @Configuration
 @EnableBatchProcessing
+@EnableConfigurationProperties(ImportJobProperties.class)
 @RequiredArgsConstructor
 public class BatchConfig {
 
+    /**
+     * Job parameter with the input file path or pattern
+     */
+    public static final String INPUT_PARAMETER = "input";
+
+    private static final String[] PERSON_FIELDS = {"firstName", "lastName"};
+    private static final int HEADER_LINES = 1;
+
     private final BatchJobListener batchJobListener;
+    private final JobProgressListener jobProgressListener;
+    private final ImportMetricsListener importMetricsListener;
     private final PersonItemProcessor personItemProcessor;
+    private final DuplicateEmailItemProcessor duplicateEmailItemProcessor;
+    private final DeltaItemProcessor deltaItemProcessor;
+    private final InputFingerprintListener inputFingerprintListener;
+    private final MetadataRetentionListener metadataRetentionListener;
+    private final ImportLaunchQueue importLaunchQueue;
+    private final ImportJobProperties importJobProperties;
+    private final ResourceLoader resourceLoader;
 
+    /**
+     * Reader over the files matching the {@code input} job parameter, or {@code batch.import.input}
+     * when the job was launched without one; several files are read one after the other. In a delta
+     * import only the files selected by {@link InputFingerprintListener} are read
+     */
     @Bean
-    public FlatFileItemReader<Person> personItemReader() {
-        log.info("Configuring FlatFileItemReader for persons.csv");
-        return new FlatFileItemReaderBuilder<Person>()
+    @StepScope
+    public ItemStreamReader<Person> personItemReader(
+            @Value("#{jobParameters['" + INPUT_PARAMETER + "']}") String input,
+            @Value("#{jobExecutionContext['" + InputFingerprintListener.FILES_KEY + "']}") String selectedFiles) {
+        Resource[] resources = inputResources(input, selectedFiles);
+        boolean mapped = importJobProperties.getReader() == ImportJobProperties.ReaderType.MAPPED;
+        if (mapped && Arrays.stream(resources).anyMatch(InputResources::isCompressed)) {
+            log.warn("Memory-mapped reader cannot read compressed input, reading it line by line");
+            mapped = false;
+        }
+
+        if (resources.length == 1) {
+            ResourceAwareItemReaderItemStream<Person> reader = mapped
+                    ? mappedItemReader("personItemReader", resources[0])
+                    : lineItemReader("personItemReader", InputResources.decompressed(resources[0]));
+            log.info("Configuring {} for {}", reader.getClass().getSimpleName(), resources[0].getDescription());
+            return reader;
+        }
+
+        ResourceAwareItemReaderItemStream<Person> delegate = mapped
+                ? mappedItemReader("personFileItemReader", null)
+                : lineItemReader("personFileItemReader", null);
+        log.info("Configuring MultiResourceItemReader over {} files with {}", resources.length,
+                delegate.getClass().getSimpleName());
+        return new MultiResourceItemReaderBuilder<Person>()
                 .name("personItemReader")
-                .resource(new ClassPathResource("input/persons.csv"))
-                .delimited()
-                .names("firstName", "lastName")
-                .fieldSetMapper(new BeanWrapperFieldSetMapper<>() {{
-                    setTargetType(Person.class);
-                }})
-                .linesToSkip(1) // Skip header
+                .resources(Arrays.stream(resources).map(InputResources::decompressed).toArray(Resource[]::new))
+                .delegate(delegate)
+                .strict(false)
                 .build();
     }
 
+    /**
+     * Reader of one partition: a byte range of an uncompressed file, or a whole compressed file
+     */
     @Bean
-    public JpaItemWriter<Person> personItemWriter(jakarta.persistence.EntityManagerFactory emf) {
-        log.info("Configuring JpaItemWriter with EntityManagerFactory");
-        return new JpaItemWriterBuilder<Person>()
-                .entityManagerFactory(emf)
-                .build();
+    @StepScope
+    public ItemStreamReader<Person> partitionedPersonItemReader(
+            @Value("#{stepExecutionContext['" + InputFilePartitioner.INPUT_KEY + "']}") String input,
+            @Value("#{stepExecutionContext['" + LineRangePartitioner.START_OFFSET_KEY + "']}") Long startOffset,
+            @Value("#{stepExecutionContext['" + LineRangePartitioner.END_OFFSET_KEY + "']}") Long endOffset) {
+        Resource resource = resourceLoader.getResource(input);
+        if (startOffset == null) {
+            log.debug("Configuring whole file reader for {}", resource.getDescription());
+            return lineItemReader("partitionedPersonItemReader", InputResources.decompressed(resource));
+        }
+
+        log.debug("Configuring ByteRangePersonItemReader for {} range [{}, {})",
+                resource.getFilename(), startOffset, endOffset);
+        ByteRangePersonItemReader reader = new ByteRangePersonItemReader(
+                resource, startOffset, endOffset, personLineMapper());
+        reader.setName("partitionedPersonItemReader");
+        return reader;
+    }
+
+    @Bean
+    @StepScope
+    public InputFilePartitioner personInputFilePartitioner(
+            @Value("#{jobParameters['" + INPUT_PARAMETER + "']}") String input,
+            @Value("#{jobExecutionContext['" + InputFingerprintListener.FILES_KEY + "']}") String selectedFiles) {
+        return new InputFilePartitioner(inputResources(input, selectedFiles), HEADER_LINES);
+    }
+
+    @Bean
+    public ItemWriter<Person> personItemWriter(jakarta.persistence.EntityManagerFactory emf,
+                                               DataSource dataSource,
+                                               JdbcTemplate jdbcTemplate,
+                                               DatabasePlatform databasePlatform,
+                                               PersonStatisticsStore personStatisticsStore,
+                                               DeltaIndexStore deltaIndexStore,
+                                               ApplicationEventPublisher eventPublisher) {
+        ImportJobProperties.WriterType writerType = importJobProperties.getWriter();
+        if (writerType == ImportJobProperties.WriterType.COPY && !databasePlatform.isPostgreSql()) {
+            log.warn("COPY writer requires PostgreSQL but running on {}, using batched JDBC inserts",
+                    databasePlatform.getProductName());
+            writerType = ImportJobProperties.WriterType.JDBC;
+        }
+
+        ItemWriter<Person> writer = switch (writerType) {
+            case JDBC -> {
+                log.info("Configuring PersonJdbcBatchItemWriter with {} rows per statement",
+                        importJobProperties.getJdbcRowsPerStatement());
+                yield new PersonJdbcBatchItemWriter(jdbcTemplate, importJobProperties.getJdbcRowsPerStatement());
+            }
+            case COPY -> {
+                log.info("Configuring PersonCopyItemWriter");
+                yield new PersonCopyItemWriter(dataSource,
+                        new PersonJdbcBatchItemWriter(jdbcTemplate, importJobProperties.getJdbcRowsPerStatement()));
+            }
+            case UPSERT -> {
+                log.info("Configuring PersonUpsertItemWriter with {}",
+                        databasePlatform.isPostgreSql() ? "INSERT ... ON CONFLICT" : "MERGE");
+                yield new PersonUpsertItemWriter(jdbcTemplate, personStatisticsStore, databasePlatform.isPostgreSql());
+            }
+            default -> {
+                log.info("Configuring PersonJpaItemWriter with EntityManagerFactory");
+                yield new PersonJpaItemWriter(emf);
+            }
+        };
+        if (importJobProperties.getDelta().isEnabled()) {
+            writer = new RowHashItemWriter(writer, deltaIndexStore, importJobProperties.getDelta().getKey());
+        }
+        if (writerType == ImportJobProperties.WriterType.UPSERT) {
+            // the upsert writer records the statistics of the rows it actually inserted
+            return new PersonsSavedEventItemWriter(writer, eventPublisher);
+        }
+        return new StatisticsItemWriter(new PersonsSavedEventItemWriter(writer, eventPublisher), personStatisticsStore);
+    }
+
+    /**
+     * Launcher that returns as soon as the job execution is created; the job runs on its own thread
+     */
+    @Bean
+    public TaskExecutorJobLauncher asyncJobLauncher(JobRepository jobRepository) throws Exception {
+        TaskExecutorJobLauncher jobLauncher = new TaskExecutorJobLauncher();
+        jobLauncher.setJobRepository(jobRepository);
+        jobLauncher.setTaskExecutor(new SimpleAsyncTaskExecutor("job-launcher-"));
+        jobLauncher.afterPropertiesSet();
+        return jobLauncher;
     }
 
     @Bean
     public Job importPersonsJob(JobRepository jobRepository, Step importPersonsStep) {
         log.info("Configuring importPersonsJob");
-        return new JobBuilder("importPersonsJob", jobRepository)
+        JobBuilder jobBuilder = new JobBuilder("importPersonsJob", jobRepository)
                 .incrementer(new RunIdIncrementer())
+                // ordered first, so that its afterJob runs last and the next queued launch waits for the others
+                .listener(importLaunchQueue)
                 .listener(batchJobListener)
+                .listener(inputFingerprintListener)
+                .listener(deltaItemProcessor)
+                .listener(duplicateEmailItemProcessor)
+                .listener(jobProgressListener)
+                .listener(metadataRetentionListener);
+        if (importJobProperties.getMetadata().isLean()) {
+            log.info("Lean job metadata: step contexts saved at step end only, restart disabled");
+            jobBuilder.preventRestart();
+        }
+        return jobBuilder
                 .flow(importPersonsStep)
                 .end()
                 .build();
@@ -68,17 +272,283 @@ public class BatchConfig {
     @Bean
     public Step importPersonsStep(JobRepository jobRepository,
                                  PlatformTransactionManager transactionManager,
-                                 FlatFileItemReader<Person> personItemReader,
-                                 JpaItemWriter<Person> personItemWriter) {
-        log.info("Configuring importPersonsStep with chunk size 10");
+                                 DataSource dataSource,
+                                 JobExplorer jobExplorer,
+                                 ItemStreamReader<Person> personItemReader,
+                                 ItemWriter<Person> personItemWriter,
+                                 InputFilePartitioner personInputFilePartitioner,
+                                 Step importPersonsWorkerStep,
+                                 ImportWorkQueue importWorkQueue) {
+        ImportJobProperties.Partition partition = importJobProperties.getPartition();
+        if (!partition.isEnabled()) {
+            log.info("Configuring importPersonsStep with chunk size {}", importJobProperties.getChunkSize());
+            ItemReader<Person> reader = personItemReader;
+            if (importJobProperties.getPipeline().isEnabled()) {
+                int capacity = maxChunkSize() * importJobProperties.getPipeline().getMaxChunksInFlight();
+                log.info("Reading up to {} items ahead of the writer", capacity);
+                reader = new ReadAheadItemReader<>(personItemReader, capacity);
+            }
+            return chunkStep("importPersonsStep", jobRepository, transactionManager, dataSource,
+                    reader, personItemWriter);
+        }
+
+        ImportJobProperties.Distributed distributed = partition.getDistributed();
+        if (distributed.isEnabled()) {
+            log.info("Configuring distributed importPersonsStep with grid size {}", partition.getGridSize());
+            return new StepBuilder("importPersonsStep", jobRepository)
+                    .partitioner(importPersonsWorkerStep.getName(), personInputFilePartitioner)
+                    .partitionHandler(new WorkQueuePartitionHandler(importWorkQueue, jobExplorer, jobRepository,
+                            partition.getGridSize(), distributed.getMaxAttempts(), distributed.getPollInterval(),
+                            distributed.getTimeout()))
+                    .build();
+        }
+
+        log.info("Configuring partitioned importPersonsStep with grid size {} on {} threads",
+                partition.getGridSize(), partition.getThreads());
         return new StepBuilder("importPersonsStep", jobRepository)
-                .<Person, Person>chunk(10, transactionManager)
-                .reader(personItemReader)
-                .processor(personItemProcessor)
-                .writer(personItemWriter)
+                .partitioner(importPersonsWorkerStep.getName(), personInputFilePartitioner)
+                .step(importPersonsWorkerStep)
+                .gridSize(partition.getGridSize())
+                .taskExecutor(partitionTaskExecutor(partition))
+                .build();
+    }
+
+    /**
+     * Step executed once per partition, locally or by the work queue workers of any node
+     */
+    @Bean
+    public Step importPersonsWorkerStep(JobRepository jobRepository,
+                                        PlatformTransactionManager transactionManager,
+                                        DataSource dataSource,
+                                        ItemStreamReader<Person> partitionedPersonItemReader,
+                                        ItemWriter<Person> personItemWriter) {
+        return chunkStep("importPersonsWorkerStep", jobRepository, transactionManager, dataSource,
+                partitionedPersonItemReader, personItemWriter);
+    }
+
+    /**
+     * Executes queued work units of distributed imports on {@code partition.threads} threads of this node
+     */
+    @Bean
+    public WorkQueueWorker importWorkQueueWorker(ImportWorkQueue importWorkQueue,
+                                                 JobExplorer jobExplorer,
+                                                 Step importPersonsWorkerStep) {
+        ImportJobProperties.Partition partition = importJobProperties.getPartition();
+        ImportJobProperties.Distributed distributed = partition.getDistributed();
+        int threads = partition.isEnabled() && distributed.isEnabled() ? partition.getThreads() : 0;
+        return new WorkQueueWorker(importWorkQueue, jobExplorer, importPersonsWorkerStep, threads,
+                distributed.getLeaseDuration(), distributed.getPollInterval(), distributed.getMaxAttempts());
+    }
+
+    private Step chunkStep(String name,
+                           JobRepository jobRepository,
+                           PlatformTransactionManager transactionManager,
+                           DataSource dataSource,
+                           ItemReader<Person> reader,
+                           ItemWriter<Person> writer) {
+        JobRepository stepRepository = importJobProperties.getMetadata().isLean()
+                ? LeanStepJobRepository.wrap(jobRepository)
+                : jobRepository;
+        AdaptiveChunkCompletionPolicy completionPolicy = adaptiveCompletionPolicy();
+        if (importJobProperties.getPipeline().isEnabled()) {
+            log.info("Configuring {} with asynchronous processing on virtual threads", name);
+            if (importJobProperties.getWriteRecovery() == ImportJobProperties.WriteRecovery.BISECT) {
+                log.warn("Bisecting write recovery is not applied in pipelined mode, {} scans failed chunks", name);
+            }
+            StepBuilder stepBuilder = new StepBuilder(name, stepRepository);
+            return faultTolerant(this.<Future<Person>>chunk(stepBuilder, transactionManager, completionPolicy)
+                    .reader(reader)
+                    .processor(asyncPersonItemProcessor())
+                    .writer(asyncPersonItemWriter(writer, completionPolicy)), completionPolicy);
+        }
+
+        StepBuilder stepBuilder = new StepBuilder(name, stepRepository);
+        return faultTolerant(this.<Person>chunk(stepBuilder, transactionManager, completionPolicy)
+                .reader(reader)
+                .processor(importItemProcessor())
+                .writer(recoveringWriter(name, writer, dataSource)), completionPolicy);
+    }
+
+    /**
+     * Bisects failed chunks under savepoints of the chunk's JDBC connection when configured; the JPA
+     * writer keeps Spring Batch's scan since its persistence context does not roll back to a savepoint
+     */
+    private ItemWriter<Person> recoveringWriter(String name, ItemWriter<Person> writer, DataSource dataSource) {
+        if (importJobProperties.getWriteRecovery() != ImportJobProperties.WriteRecovery.BISECT) {
+            return writer;
+        }
+        if (importJobProperties.getWriter() == ImportJobProperties.WriterType.JPA) {
+            log.warn("Bisecting write recovery needs a JDBC based writer, {} scans failed chunks", name);
+            return writer;
+        }
+        log.info("Configuring {} to bisect failed chunks", name);
+        return new BisectingItemWriter(writer, dataSource, itemSkipPolicy());
+    }
+
+    /**
+     * The step's skip rules, for writers that skip items themselves within the chunk
+     */
+    private SkipPolicy itemSkipPolicy() {
+        return new LimitCheckingItemSkipPolicy(importJobProperties.getSkipLimit(), Map.of(Exception.class, true));
+    }
+
+    private <O> SimpleStepBuilder<Person, O> chunk(StepBuilder stepBuilder,
+                                                   PlatformTransactionManager transactionManager,
+                                                   AdaptiveChunkCompletionPolicy completionPolicy) {
+        return completionPolicy != null
+                ? stepBuilder.<Person, O>chunk(completionPolicy, transactionManager)
+                : stepBuilder.<Person, O>chunk(importJobProperties.getChunkSize(), transactionManager);
+    }
+
+    private <O> Step faultTolerant(SimpleStepBuilder<Person, O> stepBuilder,
+                                   AdaptiveChunkCompletionPolicy completionPolicy) {
+        FaultTolerantStepBuilder<Person, O> faultTolerantBuilder = stepBuilder
                 .faultTolerant()
-                .skipLimit(10)
+                .skipLimit(importJobProperties.getSkipLimit())
                 .skip(Exception.class)
-                .build();
+                // a chunk connection without savepoints fails the step instead of skipping every item
+                .noSkip(CannotCreateTransactionException.class)
+                // processed items are reused on rollback, so the duplicate check sees every row once
+                .processorNonTransactional();
+        faultTolerantBuilder.listener((ChunkListener) jobProgressListener);
+        faultTolerantBuilder.listener((StepExecutionListener) importMetricsListener);
+        faultTolerantBuilder.listener((ChunkListener) importMetricsListener);
+        faultTolerantBuilder.listener((ItemReadListener<Object>) importMetricsListener);
+        faultTolerantBuilder.listener((ItemWriteListener<Object>) importMetricsListener);
+        faultTolerantBuilder.listener((SkipListener<Object, Object>) importMetricsListener);
+        // rows skipped in the write no longer count as seen by the duplicate check
+        faultTolerantBuilder.listener((SkipListener<Object, Object>) duplicateEmailItemProcessor);
+        if (completionPolicy != null) {
+            faultTolerantBuilder.listener((StepExecutionListener) completionPolicy);
+            faultTolerantBuilder.listener((ChunkListener) completionPolicy);
+            faultTolerantBuilder.listener((SkipListener<Object, Object>) completionPolicy);
+        }
+        // writers that apply the skip policy themselves count the uncommitted skips of the chunk
+        return ChunkContributions.track(faultTolerantBuilder.build());
+    }
+
+    private AdaptiveChunkCompletionPolicy adaptiveCompletionPolicy() {
+        ImportJobProperties.Adaptive adaptive = importJobProperties.getAdaptive();
+        if (!adaptive.isEnabled()) {
+            return null;
+        }
+        log.info("Using adaptive chunk size within [{}, {}] targeting {} per chunk",
+                adaptive.getMinChunkSize(), adaptive.getMaxChunkSize(), adaptive.getTargetChunkDuration());
+        return new AdaptiveChunkCompletionPolicy(importJobProperties.getChunkSize(),
+                adaptive.getMinChunkSize(), adaptive.getMaxChunkSize(), adaptive.getTargetChunkDuration());
+    }
+
+    private int maxChunkSize() {
+        return importJobProperties.getAdaptive().isEnabled()
+                ? importJobProperties.getAdaptive().getMaxChunkSize()
+                : importJobProperties.getChunkSize();
+    }
+
+    /**
+     * Email generation followed, when enabled, by the unchanged row filter and duplicate email
+     * detection; timed as one unit. The upsert writer resolves existing emails itself, so duplicate
+     * detection is left out in front of it
+     */
+    private ItemProcessor<Person, Person> importItemProcessor() {
+        List<ItemProcessor<? super Person, ? extends Person>> delegates = new ArrayList<>();
+        delegates.add(personItemProcessor);
+        if (importJobProperties.getDelta().isEnabled()) {
+            delegates.add(deltaItemProcessor);
+        }
+        if (importJobProperties.getDedup().isEnabled()
+                && importJobProperties.getWriter() != ImportJobProperties.WriterType.UPSERT) {
+            delegates.add(duplicateEmailItemProcessor);
+        }
+        if (delegates.size() == 1) {
+            return importMetricsListener.timed(personItemProcessor);
+        }
+        CompositeItemProcessor<Person, Person> processor = new CompositeItemProcessor<>();
+        processor.setDelegates(delegates);
+        return importMetricsListener.timed(processor);
+    }
+
+    private AsyncItemProcessor<Person, Person> asyncPersonItemProcessor() {
+        AsyncItemProcessor<Person, Person> processor = new AsyncItemProcessor<>();
+        // failures surface in the writer, which reports them as process skips of the input item
+        processor.setDelegate(new FailureCapturingItemProcessor<>(importItemProcessor()));
+        processor.setTaskExecutor(new VirtualThreadTaskExecutor("person-processor-"));
+        return processor;
+    }
+
+    private AsyncItemWriter<Person> asyncPersonItemWriter(ItemWriter<Person> writer,
+                                                          AdaptiveChunkCompletionPolicy completionPolicy) {
+        List<SkipListener<Object, Object>> skipListeners = new ArrayList<>();
+        skipListeners.add(importMetricsListener);
+        if (completionPolicy != null) {
+            skipListeners.add(completionPolicy);
+        }
+        AsyncItemWriter<Person> asyncWriter = new FilterCountingAsyncItemWriter<>(itemSkipPolicy(), skipListeners);
+        asyncWriter.setDelegate(writer);
+        return asyncWriter;
+    }
+
+    private TaskExecutor partitionTaskExecutor(ImportJobProperties.Partition partition) {
+        SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("import-partition-");
+        taskExecutor.setConcurrencyLimit(partition.getThreads());
+        return taskExecutor;
+    }
+
+    private Resource[] inputResources(String input, String selectedFiles) {
+        if (selectedFiles != null) {
+            return Arrays.stream(InputFingerprintListener.split(selectedFiles))
+                    .map(resourceLoader::getResource)
+                    .toArray(Resource[]::new);
+        }
+        return InputResources.resolve(resourceLoader, input != null ? input : importJobProperties.getInput());
+    }
+
+    private MappedPersonItemReader mappedItemReader(String name, Resource resource) {
+        MappedPersonItemReader reader = new MappedPersonItemReader(HEADER_LINES);
+        reader.setResource(resource);
+        reader.setName(name);
+        return reader;
+    }
+
+    /**
+     * Line by line reader of a whole CSV file, restarted by byte offset or by line count depending on
+     * {@code batch.import.restart-mode}; without a resource it is meant as a
+     * {@code MultiResourceItemReader} delegate
+     */
+    private ResourceAwareItemReaderItemStream<Person> lineItemReader(String name, Resource resource) {
+        if (importJobProperties.getRestartMode() == ImportJobProperties.RestartMode.BYTE_OFFSET) {
+            ByteRangePersonItemReader reader = new ByteRangePersonItemReader(resource, HEADER_LINES, personLineMapper());
+            reader.setName(name);
+            return reader;
+        }
+        return flatFileItemReader(name, resource);
+    }
+
+    private FlatFileItemReader<Person> flatFileItemReader(String name, Resource resource) {
+        FlatFileItemReaderBuilder<Person> builder = new FlatFileItemReaderBuilder<Person>()
+                .name(name)
+                .delimited()
+                .names(PERSON_FIELDS)
+                .fieldSetMapper(personFieldSetMapper())
+                .linesToSkip(HEADER_LINES); // Skip header
+        if (resource != null) {
+            builder.resource(resource);
+        }
+        return builder.build();
+    }
+
+    private LineMapper<Person> personLineMapper() {
+        DelimitedLineTokenizer tokenizer = new DelimitedLineTokenizer();
+        tokenizer.setNames(PERSON_FIELDS);
+
+        DefaultLineMapper<Person> lineMapper = new DefaultLineMapper<>();
+        lineMapper.setLineTokenizer(tokenizer);
+        lineMapper.setFieldSetMapper(personFieldSetMapper());
+        return lineMapper;
+    }
+
+    private BeanWrapperFieldSetMapper<Person> personFieldSetMapper() {
+        BeanWrapperFieldSetMapper<Person> fieldSetMapper = new BeanWrapperFieldSetMapper<>();
+        fieldSetMapper.setTargetType(Person.class);
+        return fieldSetMapper;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,325 @@
+package com.example.spring_batch.infrastructure.batch.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Tuning options for the import persons job, bound from {@code batch.import.*}
+ */
+@Data
+@ConfigurationProperties(prefix = "batch.import")
+public class ImportJobProperties {
+
+    /**
+     * Path or pattern of the CSV files to import when the job is launched without an input parameter
+     */
+    private String input = "classpath:input/persons.csv";
+
+    /**
+     * Number of items per transaction
+     */
+    private int chunkSize = 10;
+
+    /**
+     * Maximum number of skipped items before the step fails
+     */
+    private int skipLimit = 10;
+
+    /**
+     * How the input file is parsed when the step is not partitioned
+     */
+    private ReaderType reader = ReaderType.FLAT_FILE;
+
+    /**
+     * How a restarted step finds its position in a file read line by line
+     */
+    private RestartMode restartMode = RestartMode.LINE_COUNT;
+
+    /**
+     * How processed persons are written to the {@code persons} table
+     */
+    private WriterType writer = WriterType.JPA;
+
+    /**
+     * How the failed items of a chunk are found when the write fails
+     */
+    private WriteRecovery writeRecovery = WriteRecovery.SCAN;
+
+    /**
+     * Rows per multi-row INSERT statement of the JDBC writer
+     */
+    private int jdbcRowsPerStatement = 100;
+
+    private Partition partition = new Partition();
+
+    private Pipeline pipeline = new Pipeline();
+
+    private Adaptive adaptive = new Adaptive();
+
+    private Dedup dedup = new Dedup();
+
+    private Delta delta = new Delta();
+
+    private Metadata metadata = new Metadata();
+
+    private Launch launch = new Launch();
+
+    public enum ReaderType {
+        /**
+         * {@code FlatFileItemReader} with a delimited tokenizer and bean wrapper mapping
+         */
+        FLAT_FILE,
+        /**
+         * Memory-mapped scanner with hand-written field mapping; needs a file system resource
+         */
+        MAPPED
+    }
+
+    public enum RestartMode {
+        /**
+         * {@code FlatFileItemReader}: the saved item count, reached by reading and discarding lines
+         */
+        LINE_COUNT,
+        /**
+         * The saved byte offset of the next line, reached with a single seek
+         */
+        BYTE_OFFSET
+    }
+
+    public enum WriterType {
+        /**
+         * {@code EntityManager.persist} per new person, {@code merge} for persons that carry an id
+         */
+        JPA,
+        /**
+         * Batched multi-row INSERT statements
+         */
+        JDBC,
+        /**
+         * PostgreSQL binary {@code COPY FROM STDIN}; falls back to JDBC on other databases
+         */
+        COPY,
+        /**
+         * One set-based upsert per chunk keyed on email, updating only rows whose names changed
+         */
+        UPSERT
+    }
+
+    public enum WriteRecovery {
+        /**
+         * Spring Batch's default: roll back and write the chunk again one item per transaction
+         */
+        SCAN,
+        /**
+         * Split the chunk in halves under savepoints until the failing items are isolated; needs a
+         * JDBC based writer and falls back to scan with the JPA writer or in pipelined mode
+         */
+        BISECT
+    }
+
+    /**
+     * Duplicate email detection in front of the writer
+     */
+    @Data
+    public static class Dedup {
+
+        private boolean enabled = true;
+
+        private DuplicatePolicy policy = DuplicatePolicy.SKIP;
+
+        /**
+         * False positive rate of the Bloom filter preloaded with existing emails
+         */
+        private double falsePositiveRate = 0.01;
+    }
+
+    public enum DuplicatePolicy {
+        /**
+         * Filter out rows whose email already exists
+         */
+        SKIP,
+        /**
+         * Make the email unique by appending {@code .2}, {@code .3}, ... to its local part
+         */
+        SUFFIX,
+        /**
+         * Update the existing row with the same email; later duplicates within the run are filtered
+         */
+        UPSERT
+    }
+
+    /**
+     * Admission of launch requests; a request for an input that is already queued or running joins it
+     */
+    @Data
+    public static class Launch {
+
+        /**
+         * Import jobs running at the same time on this node
+         */
+        private int maxConcurrent = 1;
+
+        /**
+         * Launches waiting for a free slot before further ones are rejected
+         */
+        private int queueCapacity = 10;
+    }
+
+    /**
+     * Growth of the Spring Batch metadata tables
+     */
+    @Data
+    public static class Metadata {
+
+        /**
+         * Save step execution contexts only when a step ends instead of after every chunk; the job
+         * cannot be restarted and a failed partition starts over
+         */
+        private boolean lean = false;
+
+        private Retention retention = new Retention();
+    }
+
+    /**
+     * Purge of old job executions after every import job
+     */
+    @Data
+    public static class Retention {
+
+        private boolean enabled = false;
+
+        /**
+         * Executions that ended longer ago are purged
+         */
+        private Duration maxAge = Duration.ofDays(30);
+
+        /**
+         * Most recent executions kept regardless of their age
+         */
+        private int keepLast = 20;
+
+        /**
+         * Job executions deleted per transaction
+         */
+        private int batchSize = 500;
+    }
+
+    /**
+     * Incremental import: input files imported before are skipped, and rows whose content did not
+     * change since they were last written are filtered before the writer
+     */
+    @Data
+    public static class Delta {
+
+        private boolean enabled = false;
+
+        /**
+         * Fields identifying a row across imports
+         */
+        private DeltaKey key = DeltaKey.EMAIL;
+    }
+
+    public enum DeltaKey {
+        /**
+         * The generated email, unique per person
+         */
+        EMAIL,
+        /**
+         * First and last name, case-insensitive
+         */
+        NAME
+    }
+
+    /**
+     * Chunk size tuned at runtime from measured chunk durations; {@code chunkSize} is the starting point
+     */
+    @Data
+    public static class Adaptive {
+
+        private boolean enabled = false;
+
+        private int minChunkSize = 10;
+
+        private int maxChunkSize = 5000;
+
+        /**
+         * Duration a chunk, including its commit, should take
+         */
+        private Duration targetChunkDuration = Duration.ofMillis(500);
+    }
+
+    /**
+     * Pipelined execution: items are processed on virtual threads and read ahead of the writer
+     */
+    @Data
+    public static class Pipeline {
+
+        /**
+         * Process items asynchronously and overlap reading with writing
+         */
+        private boolean enabled = false;
+
+        /**
+         * Chunks that may be read ahead of the chunk being written before the reader blocks
+         */
+        private int maxChunksInFlight = 2;
+    }
+
+    /**
+     * Partitioned execution over line-aligned byte ranges of the input file
+     */
+    @Data
+    public static class Partition {
+
+        /**
+         * Split the input file and run one worker step per byte range
+         */
+        private boolean enabled = false;
+
+        /**
+         * Number of byte ranges the input file is split into
+         */
+        private int gridSize = 4;
+
+        /**
+         * Maximum number of partitions processed concurrently; in distributed mode the number of
+         * work queue workers of this node, where 0 only coordinates
+         */
+        private int threads = 4;
+
+        private Distributed distributed = new Distributed();
+    }
+
+    /**
+     * Partitions queued in the {@code import_work_units} table and executed by the workers of every
+     * application node sharing the database
+     */
+    @Data
+    public static class Distributed {
+
+        private boolean enabled = false;
+
+        /**
+         * Lease on a claimed work unit, extended by heartbeats while it runs; a unit whose lease
+         * expires is claimed again by another node
+         */
+        private Duration leaseDuration = Duration.ofSeconds(30);
+
+        /**
+         * How often idle workers look for work and the coordinator checks for completion
+         */
+        private Duration pollInterval = Duration.ofSeconds(1);
+
+        /**
+         * Claims of a work unit before it is failed for good
+         */
+        private int maxAttempts = 3;
+
+        /**
+         * How long the coordinator waits for all work units before failing the step
+         */
+        private Duration timeout = Duration.ofHours(24);
+    }
+}
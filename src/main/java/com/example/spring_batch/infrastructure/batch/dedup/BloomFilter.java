@@ -0,0 +1,49 @@
+package com.example.spring_batch.infrastructure.batch.dedup;
+
+/**
+ * Bloom filter over 64-bit hashes, using double hashing to derive the probe positions.
+ * Safe for concurrent reads once populated; not safe for concurrent writes.
+ */
+public class BloomFilter {
+
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashFunctions;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be in (0, 1): " + falsePositiveRate);
+        }
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (m + 63) >>> 6));
+        this.bits = new long[words];
+        this.bitCount = (long) words << 6;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+    }
+
+    public void put(long hash) {
+        long h1 = hash;
+        long h2 = Long.rotateLeft(hash, 32) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    public boolean mightContain(long hash) {
+        long h1 = hash;
+        long h2 = Long.rotateLeft(hash, 32) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long sizeInBytes() {
+        return (long) bits.length * Long.BYTES;
+    }
+}
@@ -0,0 +1,258 @@
+package com.example.spring_batch.infrastructure.batch.dedup;
+
+import com.example.spring_batch.domain.model.Person;
+import com.example.spring_batch.domain.repository.PersonRepository;
+import com.example.spring_batch.infrastructure.batch.config.ImportJobProperties;
+import com.example.spring_batch.shared.util.Hashing;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.SkipListener;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Catches duplicate emails before they reach the writer, so that they no longer fail on the
+ * unique constraint and force a chunk rollback and item-by-item rescan.
+ * <p>
+ * Per job execution it keeps a {@link LongHashSet} of the email hashes seen in the run and a
+ * {@link BloomFilter} preloaded from the emails already in {@code persons}. Both only preselect
+ * candidates: a Bloom filter hit is confirmed against the database, and a hash seen in the run is
+ * confirmed against the emails of the last rows, as many as the chunks in flight hold, or else
+ * against the database. A row whose hash matches without a confirmed email is kept, the unique
+ * constraint remains the last check. Duplicates are handled according to
+ * {@link ImportJobProperties.Dedup#getPolicy()}.
+ * <p>
+ * A row skipped in the write is forgotten again, so a later row with its email is not dropped.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DuplicateEmailItemProcessor
+        implements ItemProcessor<Person, Person>, JobExecutionListener, SkipListener<Object, Object> {
+
+    private static final int FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PersonRepository personRepository;
+    private final ImportJobProperties importJobProperties;
+
+    private final Map<Long, RunState> runs = new ConcurrentHashMap<>();
+
+    @Override
+    public void beforeJob(JobExecution jobExecution) {
+        if (!importJobProperties.getDedup().isEnabled()
+                || importJobProperties.getWriter() == ImportJobProperties.WriterType.UPSERT) {
+            return;
+        }
+
+        long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM persons", Long.class);
+        BloomFilter existingEmails = new BloomFilter(existing + 1024, importJobProperties.getDedup().getFalsePositiveRate());
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement("SELECT email FROM persons WHERE email IS NOT NULL");
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, resultSet -> {
+            existingEmails.put(Hashing.hash64(resultSet.getString(1)));
+        });
+
+        runs.put(jobExecution.getId(), new RunState(existingEmails, recentWindow()));
+        log.info("Loaded {} existing emails into a {} KB Bloom filter, duplicate policy {}",
+                existing, existingEmails.sizeInBytes() / 1024, importJobProperties.getDedup().getPolicy());
+    }
+
+    /**
+     * Rows that may be processed but not yet committed at once: the largest chunk times the chunks
+     * in flight of every local partition
+     */
+    private int recentWindow() {
+        int chunkSize = importJobProperties.getAdaptive().isEnabled()
+                ? importJobProperties.getAdaptive().getMaxChunkSize()
+                : importJobProperties.getChunkSize();
+        int chunksInFlight = importJobProperties.getPipeline().isEnabled()
+                ? importJobProperties.getPipeline().getMaxChunksInFlight()
+                : 1;
+        int partitions = importJobProperties.getPartition().isEnabled()
+                ? importJobProperties.getPartition().getThreads()
+                : 1;
+        return Math.max(1, chunkSize * chunksInFlight * partitions);
+    }
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        RunState state = runs.remove(jobExecution.getId());
+        if (state == null) {
+            return;
+        }
+        log.info("Duplicate emails - Dropped: {}, Suffixed: {}, Upserted: {}",
+                state.dropped.get(), state.suffixed.get(), state.upserted.get());
+        jobExecution.getExecutionContext().putLong("dedup.dropped", state.dropped.get());
+        jobExecution.getExecutionContext().putLong("dedup.suffixed", state.suffixed.get());
+        jobExecution.getExecutionContext().putLong("dedup.upserted", state.upserted.get());
+    }
+
+    @Override
+    public Person process(Person person) {
+        RunState state = currentRun();
+        if (state == null || person.getEmail() == null) {
+            return person;
+        }
+
+        String email = person.getEmail();
+        long hash = Hashing.hash64(email);
+        if (person.getId() != null) {
+            // Already resolved to an update of its existing row, e.g. by the delta import
+            state.markSeen(email, hash);
+            return person;
+        }
+        Match match = match(state, email, hash);
+        if (match == Match.NONE) {
+            return person;
+        }
+        return resolveDuplicate(person, state, match == Match.IN_DATABASE);
+    }
+
+    @Override
+    public void onSkipInWrite(Object item, Throwable t) {
+        // pipelined steps write the futures of the processed items
+        if (item instanceof Future<?> future && future.state() == Future.State.SUCCESS) {
+            item = future.resultNow();
+        }
+        RunState state = currentRun();
+        if (state != null && item instanceof Person person && person.getEmail() != null) {
+            state.forget(person.getEmail());
+        }
+    }
+
+    private Person resolveDuplicate(Person person, RunState state, boolean inDatabase) {
+        switch (importJobProperties.getDedup().getPolicy()) {
+            case SUFFIX -> {
+                assignSuffixedEmail(person, state);
+                state.suffixed.incrementAndGet();
+                return person;
+            }
+            case UPSERT -> {
+                if (inDatabase) {
+                    Person existing = personRepository.findByEmail(person.getEmail()).orElse(null);
+                    if (existing != null) {
+                        person.setId(existing.getId());
+                        person.setCreatedAt(existing.getCreatedAt());
+                        state.upserted.incrementAndGet();
+                        return person;
+                    }
+                }
+                // the earlier row of this run carries the same email and is written already
+                state.dropped.incrementAndGet();
+                return null;
+            }
+            default -> {
+                if (log.isDebugEnabled()) {
+                    log.debug("Dropping duplicate email: {}", person.getEmail());
+                }
+                state.dropped.incrementAndGet();
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Rewrite the email to the first free {@link #suffixedEmail(String, int)}, starting at 2
+     */
+    private void assignSuffixedEmail(Person person, RunState state) {
+        for (int n = 2; ; n++) {
+            String candidate = suffixedEmail(person.getEmail(), n);
+            if (match(state, candidate, Hashing.hash64(candidate)) == Match.NONE) {
+                person.setEmail(candidate);
+                return;
+            }
+        }
+    }
+
+    /**
+     * {@code local@domain} as {@code local.N@domain}, the form the suffix policy writes duplicates in
+     */
+    public static String suffixedEmail(String email, int n) {
+        int at = email.lastIndexOf('@');
+        String local = at < 0 ? email : email.substring(0, at);
+        String domain = at < 0 ? "" : email.substring(at);
+        return local + "." + n + domain;
+    }
+
+    /**
+     * Marks the email as seen and tells where it was seen before
+     */
+    private Match match(RunState state, String email, long hash) {
+        return switch (state.markSeen(email, hash)) {
+            case FIRST -> state.existingEmails.mightContain(hash) && personRepository.existsByEmail(email)
+                    ? Match.IN_DATABASE
+                    : Match.NONE;
+            case RECENT -> Match.IN_RUN;
+            // another email with the same hash, or a row of the run committed since
+            case HASH_ONLY -> personRepository.existsByEmail(email) ? Match.IN_DATABASE : Match.NONE;
+        };
+    }
+
+    private RunState currentRun() {
+        StepContext context = StepSynchronizationManager.getContext();
+        return context == null ? null : runs.get(context.getStepExecution().getJobExecutionId());
+    }
+
+    private static final class RunState {
+
+        private final BloomFilter existingEmails;
+        private final LongHashSet seenInRun = new LongHashSet(1 << 16);
+        // emails of the last rows, guarded by seenInRun
+        private final Map<String, Boolean> recentEmails;
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicLong suffixed = new AtomicLong();
+        private final AtomicLong upserted = new AtomicLong();
+
+        private RunState(BloomFilter existingEmails, int recentWindow) {
+            this.existingEmails = existingEmails;
+            this.recentEmails = new LinkedHashMap<>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                    return size() > recentWindow;
+                }
+            };
+        }
+
+        private Seen markSeen(String email, long hash) {
+            synchronized (seenInRun) {
+                boolean firstHash = seenInRun.add(hash);
+                boolean recent = recentEmails.put(email, Boolean.TRUE) != null;
+                if (firstHash) {
+                    return Seen.FIRST;
+                }
+                return recent ? Seen.RECENT : Seen.HASH_ONLY;
+            }
+        }
+
+        /**
+         * The hash stays in the set, where it only costs a database check
+         */
+        private void forget(String email) {
+            synchronized (seenInRun) {
+                recentEmails.remove(email);
+            }
+        }
+    }
+
+    private enum Seen {
+        FIRST, RECENT, HASH_ONLY
+    }
+
+    private enum Match {
+        NONE, IN_RUN, IN_DATABASE
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.spring_batch.infrastructure.batch.dedup;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash set of primitive {@code long} values with linear probing.
+ * Uses one {@code long[]} slot per entry and no per-entry objects. Not thread-safe.
+ */
+public class LongHashSet {
+
+    private static final long EMPTY = 0L;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] slots;
+    private int size;
+    private boolean containsEmptyMarker;
+    private int resizeThreshold;
+
+    public LongHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        slots = new long[capacity];
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * @return {@code true} if the value was not present before
+     */
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            boolean added = !containsEmptyMarker;
+            containsEmptyMarker = true;
+            if (added) {
+                size++;
+            }
+            return added;
+        }
+
+        int mask = slots.length - 1;
+        int index = mix(value) & mask;
+        while (slots[index] != EMPTY) {
+            if (slots[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        slots[index] = value;
+        if (++size > resizeThreshold) {
+            resize();
+        }
+        return true;
+    }
+
+    public boolean contains(long value) {
+        if (value == EMPTY) {
+            return containsEmptyMarker;
+        }
+        int mask = slots.length - 1;
+        int index = mix(value) & mask;
+        while (slots[index] != EMPTY) {
+            if (slots[index] == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(slots, EMPTY);
+        containsEmptyMarker = false;
+        size = 0;
+    }
+
+    private void resize() {
+        long[] old = slots;
+        slots = new long[old.length << 1];
+        resizeThreshold = (int) (slots.length * LOAD_FACTOR);
+        int mask = slots.length - 1;
+        for (long value : old) {
+            if (value != EMPTY) {
+                int index = mix(value) & mask;
+                while (slots[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                slots[index] = value;
+            }
+        }
+    }
+
+    private static int mix(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
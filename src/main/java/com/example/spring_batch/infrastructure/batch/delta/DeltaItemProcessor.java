@@ -0,0 +1,172 @@
+package com.example.spring_batch.infrastructure.batch.delta;
+
+import com.example.spring_batch.domain.model.Person;
+import com.example.spring_batch.domain.repository.PersonRepository;
+import com.example.spring_batch.infrastructure.batch.config.ImportJobProperties;
+import com.example.spring_batch.infrastructure.batch.dedup.DuplicateEmailItemProcessor;
+import com.example.spring_batch.infrastructure.batch.dedup.LongHashSet;
+import com.example.spring_batch.infrastructure.persistence.DeltaIndexStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Passes on only the rows of a delta import that are new or changed since they were last imported.
+ * <p>
+ * Per job execution it loads the {@code person_row_hashes} index into a {@link LongLongHashMap}
+ * from natural key hash to content hash, first seeding an empty index from the persons already in
+ * the table. A row whose key is unknown is inserted; a row whose content hash differs updates the
+ * person last written under its key, found by the id stored with the hash, so a name keyed row
+ * keeps its person when its email changes; an unchanged row is filtered. The index itself is
+ * updated in the chunk transaction by {@code RowHashItemWriter}, which hashes rows as written.
+ * <p>
+ * A second row with a key already seen in the run is not taken for a change of the first one, and
+ * with email keys a row matching the content a duplicate was written with under a suffixed email
+ * ({@link DuplicateEmailItemProcessor#suffixedEmail(String, int)}) counts as unchanged.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DeltaItemProcessor implements ItemProcessor<Person, Person>, JobExecutionListener {
+
+    private static final long MISSING = 0L;
+
+    private final DeltaIndexStore deltaIndexStore;
+    private final PersonRepository personRepository;
+    private final ImportJobProperties importJobProperties;
+
+    private final Map<Long, RunState> runs = new ConcurrentHashMap<>();
+
+    @Override
+    public void beforeJob(JobExecution jobExecution) {
+        if (!importJobProperties.getDelta().isEnabled()) {
+            return;
+        }
+        ImportJobProperties.DeltaKey key = importJobProperties.getDelta().getKey();
+        if (deltaIndexStore.countRowHashes() == 0) {
+            long seeded = deltaIndexStore.seedRowHashes(person -> new DeltaIndexStore.RowHash(
+                    RowHashes.key(person, key), RowHashes.content(person), person.getId()));
+            log.info("Seeded the empty delta index with the row hashes of {} existing persons", seeded);
+        }
+        LongLongHashMap index = new LongLongHashMap(deltaIndexStore.countRowHashes() + 1024);
+        deltaIndexStore.forEachRowHash(index::put);
+        runs.put(jobExecution.getId(), new RunState(index));
+        log.info("Loaded {} row hashes for delta import keyed by {}", index.size(), importJobProperties.getDelta().getKey());
+    }
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        RunState state = runs.remove(jobExecution.getId());
+        if (state == null) {
+            return;
+        }
+        log.info("Delta import - New: {}, Changed: {}, Unchanged: {}",
+                state.inserted.get(), state.updated.get(), state.unchanged.get());
+        jobExecution.getExecutionContext().putLong("delta.new", state.inserted.get());
+        jobExecution.getExecutionContext().putLong("delta.changed", state.updated.get());
+        jobExecution.getExecutionContext().putLong("delta.unchanged", state.unchanged.get());
+    }
+
+    @Override
+    public Person process(Person person) {
+        RunState state = currentRun();
+        if (state == null) {
+            return person;
+        }
+
+        long key = RowHashes.key(person, importJobProperties.getDelta().getKey());
+        long content = RowHashes.content(person);
+        boolean firstOfKey = state.markKeySeen(key);
+        // The index is a snapshot taken before the job and only read here, so concurrent partitions
+        // need no locking; the step does not process a chunk again after a rollback
+        long previous = state.index.get(key, MISSING);
+        if (previous == content || writtenAsSuffixedDuplicate(state, person)) {
+            state.unchanged.incrementAndGet();
+            return null;
+        }
+
+        if (previous != MISSING && firstOfKey) {
+            Person existing = existingPerson(key, person);
+            if (existing != null) {
+                person.setId(existing.getId());
+                person.setCreatedAt(existing.getCreatedAt());
+                state.updated.incrementAndGet();
+                return person;
+            }
+        }
+        state.inserted.incrementAndGet();
+        return person;
+    }
+
+    /**
+     * Whether the row was written before as a duplicate under one of the suffixed emails stored
+     */
+    private boolean writtenAsSuffixedDuplicate(RunState state, Person person) {
+        if (importJobProperties.getDelta().getKey() != ImportJobProperties.DeltaKey.EMAIL || person.getEmail() == null) {
+            return false;
+        }
+        for (int n = 2; ; n++) {
+            String email = DuplicateEmailItemProcessor.suffixedEmail(person.getEmail(), n);
+            long stored = state.index.get(RowHashes.emailKey(email), MISSING);
+            if (stored == MISSING) {
+                return false;
+            }
+            if (stored == RowHashes.content(person, email)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * The person last written under the key; rows hashed before the person was stored with the
+     * hash are found by their email
+     */
+    private Person existingPerson(long key, Person person) {
+        Optional<UUID> personId = deltaIndexStore.findPersonId(key);
+        if (personId.isPresent()) {
+            return personRepository.findById(personId.get()).orElse(null);
+        }
+        if (importJobProperties.getDelta().getKey() == ImportJobProperties.DeltaKey.EMAIL) {
+            return personRepository.findByEmail(person.getEmail()).orElse(null);
+        }
+        return null;
+    }
+
+    private RunState currentRun() {
+        StepContext context = StepSynchronizationManager.getContext();
+        return context == null ? null : runs.get(context.getStepExecution().getJobExecutionId());
+    }
+
+    private static final class RunState {
+
+        private final LongLongHashMap index;
+        private final LongHashSet keysSeen = new LongHashSet(1 << 16);
+        private final AtomicLong inserted = new AtomicLong();
+        private final AtomicLong updated = new AtomicLong();
+        private final AtomicLong unchanged = new AtomicLong();
+
+        private RunState(LongLongHashMap index) {
+            this.index = index;
+        }
+
+        /**
+         * @return {@code true} the first time the key is seen in this run
+         */
+        private boolean markKeySeen(long key) {
+            synchronized (keysSeen) {
+                return keysSeen.add(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.spring_batch.infrastructure.batch.delta;
+
+import com.example.spring_batch.infrastructure.batch.config.BatchConfig;
+import com.example.spring_batch.infrastructure.batch.config.ImportJobProperties;
+import com.example.spring_batch.infrastructure.batch.reader.InputResources;
+import com.example.spring_batch.infrastructure.persistence.DeltaIndexStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Selects the input files of a delta import. Every file matching the input is fingerprinted with
+ * the SHA-256 of its content, as stored, and files whose fingerprint is in {@code imported_files}
+ * are left out. The remaining locations are put in the job execution context under
+ * {@link #FILES_KEY}, where the readers and the partitioner take them from, and are recorded as
+ * imported once the job completes.
+ * <p>
+ * Selection is repeated on restart and yields the same files as long as they are unchanged,
+ * since fingerprints are only recorded by a completed execution.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InputFingerprintListener implements JobExecutionListener {
+
+    /**
+     * Newline separated locations of the files to import
+     */
+    public static final String FILES_KEY = "delta.files";
+
+    private static final String FINGERPRINTS_KEY = "delta.fingerprints";
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private final DeltaIndexStore deltaIndexStore;
+    private final ImportJobProperties importJobProperties;
+    private final ResourceLoader resourceLoader;
+
+    @Override
+    public void beforeJob(JobExecution jobExecution) {
+        if (!importJobProperties.getDelta().isEnabled()) {
+            return;
+        }
+        String input = jobExecution.getJobParameters().getString(BatchConfig.INPUT_PARAMETER, importJobProperties.getInput());
+        Resource[] resources = InputResources.resolve(resourceLoader, input);
+
+        Map<String, Resource> byFingerprint = new LinkedHashMap<>();
+        for (Resource resource : resources) {
+            byFingerprint.put(fingerprint(resource), resource);
+        }
+        Set<String> imported = deltaIndexStore.findImported(byFingerprint.keySet());
+
+        List<String> locations = new ArrayList<>();
+        List<String> fingerprints = new ArrayList<>();
+        for (Map.Entry<String, Resource> entry : byFingerprint.entrySet()) {
+            if (imported.contains(entry.getKey())) {
+                log.info("Skipping {}, imported before with fingerprint {}", entry.getValue().getFilename(), entry.getKey());
+                continue;
+            }
+            locations.add(location(entry.getValue()));
+            fingerprints.add(entry.getKey());
+        }
+        log.info("Delta import of {} of {} input files", locations.size(), resources.length);
+        jobExecution.getExecutionContext().putString(FILES_KEY, String.join("\n", locations));
+        jobExecution.getExecutionContext().putString(FINGERPRINTS_KEY, String.join("\n", fingerprints));
+    }
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        if (jobExecution.getStatus() != BatchStatus.COMPLETED
+                || !jobExecution.getExecutionContext().containsKey(FILES_KEY)) {
+            return;
+        }
+        String[] locations = split(jobExecution.getExecutionContext().getString(FILES_KEY));
+        String[] fingerprints = split(jobExecution.getExecutionContext().getString(FINGERPRINTS_KEY));
+        for (int i = 0; i < locations.length; i++) {
+            Resource resource = resourceLoader.getResource(locations[i]);
+            try {
+                deltaIndexStore.recordImported(fingerprints[i], locations[i], resource.contentLength(), jobExecution.getId());
+            } catch (IOException e) {
+                log.warn("Could not record {} as imported", locations[i], e);
+            }
+        }
+    }
+
+    /**
+     * Locations stored under {@link #FILES_KEY}; empty when no file is left to import
+     */
+    public static String[] split(String files) {
+        return files == null || files.isEmpty() ? new String[0] : files.split("\n");
+    }
+
+    private static String fingerprint(Resource resource) {
+        try (InputStream in = resource.getInputStream()) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException e) {
+            throw new ItemStreamException("Failed to fingerprint " + resource.getDescription(), e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String location(Resource resource) {
+        try {
+            return resource.getURI().toString();
+        } catch (IOException e) {
+            throw new ItemStreamException("Cannot locate " + resource.getDescription(), e);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.spring_batch.infrastructure.batch.delta;
+
+/**
+ * Open-addressing hash map from primitive {@code long} keys to {@code long} values with linear
+ * probing. Keys and values live in two parallel arrays, 16 bytes per slot and no per-entry
+ * objects. Not thread-safe.
+ */
+public class LongLongHashMap {
+
+    private static final long EMPTY = 0L;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private long[] values;
+    private int size;
+    private boolean containsEmptyKey;
+    private long emptyKeyValue;
+    private int resizeThreshold;
+
+    public LongLongHashMap(long expectedSize) {
+        long wanted = Math.max(16, (long) (expectedSize / LOAD_FACTOR));
+        if (wanted > 1 << 30) {
+            throw new IllegalArgumentException("Too many entries for a LongLongHashMap: " + expectedSize);
+        }
+        int capacity = Integer.highestOneBit((int) wanted - 1) << 1;
+        keys = new long[capacity];
+        values = new long[capacity];
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * @return the value mapped to the key, or {@code missing} if there is none
+     */
+    public long get(long key, long missing) {
+        if (key == EMPTY) {
+            return containsEmptyKey ? emptyKeyValue : missing;
+        }
+        int mask = keys.length - 1;
+        int index = mix(key) & mask;
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                return values[index];
+            }
+            index = (index + 1) & mask;
+        }
+        return missing;
+    }
+
+    public boolean containsKey(long key) {
+        if (key == EMPTY) {
+            return containsEmptyKey;
+        }
+        int mask = keys.length - 1;
+        int index = mix(key) & mask;
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    public void put(long key, long value) {
+        if (key == EMPTY) {
+            if (!containsEmptyKey) {
+                containsEmptyKey = true;
+                size++;
+            }
+            emptyKeyValue = value;
+            return;
+        }
+
+        int mask = keys.length - 1;
+        int index = mix(key) & mask;
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                values[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = value;
+        if (++size > resizeThreshold) {
+            resize();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = new long[oldKeys.length << 1];
+        values = new long[oldValues.length << 1];
+        resizeThreshold = (int) (keys.length * LOAD_FACTOR);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != EMPTY) {
+                int index = mix(key) & mask;
+                while (keys[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private static int mix(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.spring_batch.infrastructure.batch.delta;
+
+import com.example.spring_batch.domain.model.Person;
+import com.example.spring_batch.infrastructure.batch.config.ImportJobProperties;
+import com.example.spring_batch.shared.util.Hashing;
+
+import java.util.Locale;
+
+/**
+ * 64-bit hashes of a person's natural key and of its imported content, as stored in
+ * {@code person_row_hashes}
+ */
+public final class RowHashes {
+
+    private static final char SEPARATOR = '\u0000';
+
+    private RowHashes() {
+    }
+
+    /**
+     * Email, or first and last name ignoring case and surrounding whitespace
+     */
+    public static long key(Person person, ImportJobProperties.DeltaKey key) {
+        if (key == ImportJobProperties.DeltaKey.EMAIL) {
+            return emailKey(person.getEmail());
+        }
+        return Hashing.hash64(normalize(person.getFirstName()) + SEPARATOR + normalize(person.getLastName()));
+    }
+
+    public static long emailKey(String email) {
+        return Hashing.hash64(String.valueOf(email));
+    }
+
+    /**
+     * All imported fields exactly as written; never 0, which marks a missing entry
+     */
+    public static long content(Person person) {
+        return content(person, person.getEmail());
+    }
+
+    /**
+     * Content of the person as written with the given email
+     */
+    public static long content(Person person, String email) {
+        long h = Hashing.hash64(person.getFirstName() + SEPARATOR + person.getLastName() + SEPARATOR + email);
+        return h == 0 ? 1 : h;
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+}
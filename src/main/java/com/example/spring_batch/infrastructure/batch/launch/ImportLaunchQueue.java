@@ -0,0 +1,230 @@
+package com.example.spring_batch.infrastructure.batch.launch;
+
+import com.example.spring_batch.infrastructure.batch.config.ImportJobProperties;
+import com.example.spring_batch.shared.exception.LaunchQueueFullException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Admission control for import job launches. At most {@code maxConcurrent} jobs run at a time and
+ * further launches wait in a bounded FIFO queue. A launch for a key that is already queued or running
+ * is coalesced with it, so every caller observes the same job execution instead of starting another
+ * import of the same files. A launch that finds the queue full is rejected without touching the database.
+ * <p>
+ * Slots are released in {@link #afterJob}, so the queue only sees the jobs launched on this node. The
+ * queue orders itself first among the job's listeners: they see {@code afterJob} in reverse order, and
+ * the next launch may only start once the others have recorded the ended job.
+ * <p>
+ * Every admission gets an id, and the most recent ones can be looked up by it, so callers that were
+ * queued can find the job execution their launch started.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ImportLaunchQueue implements JobExecutionListener, Ordered {
+
+    private static final int RECENT_ADMISSIONS = 1000;
+
+    private final ImportJobProperties importJobProperties;
+
+    private final Map<String, Admission> admissions = new HashMap<>();
+    private final Map<String, Admission> admissionsById = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Admission> eldest) {
+            return size() > RECENT_ADMISSIONS;
+        }
+    };
+    private final Deque<Admission> queue = new ArrayDeque<>();
+    private final Map<Long, Admission> running = new HashMap<>();
+    // jobs that ended before their launcher returned, kept until the launch is registered
+    private final Map<Long, JobExecution> endedWhileLaunching = new HashMap<>();
+    private int slotsInUse;
+    private int launching;
+
+    /**
+     * Run the launch now if a slot is free, or queue it; a pending admission with the same key is returned instead
+     *
+     * @throws LaunchQueueFullException if the launch would have to wait and the queue is full
+     */
+    public Admission submit(String key, Launch launch) {
+        Admission admission;
+        synchronized (this) {
+            Admission pending = admissions.get(key);
+            if (pending != null) {
+                log.info("Launch of {} coalesced with the pending one", key);
+                return pending;
+            }
+            ImportJobProperties.Launch limits = importJobProperties.getLaunch();
+            admission = new Admission(key, launch);
+            if (slotsInUse >= limits.getMaxConcurrent()) {
+                if (queue.size() >= limits.getQueueCapacity()) {
+                    throw new LaunchQueueFullException("Launch queue is full: " + queue.size() + " jobs waiting");
+                }
+                queue.addLast(admission);
+                admissions.put(key, admission);
+                admissionsById.put(admission.id, admission);
+                log.info("Launch of {} queued at position {}", key, queue.size());
+                return admission;
+            }
+            slotsInUse++;
+            launching++;
+            admissions.put(key, admission);
+            admissionsById.put(admission.id, admission);
+        }
+        start(admission);
+        return admission;
+    }
+
+    /**
+     * One of the most recent admissions by its id, pending or not
+     */
+    public synchronized Optional<Admission> find(String id) {
+        return Optional.ofNullable(admissionsById.get(id));
+    }
+
+    /**
+     * Position of a queued admission, starting at 1, or 0 once it has left the queue
+     */
+    public synchronized int position(Admission admission) {
+        int position = 1;
+        for (Admission queued : queue) {
+            if (queued == admission) {
+                return position;
+            }
+            position++;
+        }
+        return 0;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        Admission admission;
+        synchronized (this) {
+            admission = running.remove(jobExecution.getId());
+            if (admission == null) {
+                if (launching > 0) {
+                    endedWhileLaunching.put(jobExecution.getId(), jobExecution);
+                }
+                return;
+            }
+        }
+        finish(admission, jobExecution);
+    }
+
+    private void start(Admission admission) {
+        JobExecution jobExecution;
+        try {
+            jobExecution = admission.launch.run();
+        } catch (Exception e) {
+            synchronized (this) {
+                launching--;
+            }
+            admission.started.completeExceptionally(e);
+            admission.finished.completeExceptionally(e);
+            release(admission);
+            return;
+        }
+
+        JobExecution ended;
+        synchronized (this) {
+            launching--;
+            ended = endedWhileLaunching.remove(jobExecution.getId());
+            if (ended == null) {
+                running.put(jobExecution.getId(), admission);
+            }
+            if (launching == 0) {
+                endedWhileLaunching.clear();
+            }
+        }
+        admission.started.complete(jobExecution);
+        if (ended != null) {
+            finish(admission, ended);
+        }
+    }
+
+    private void finish(Admission admission, JobExecution jobExecution) {
+        admission.finished.complete(jobExecution);
+        release(admission);
+    }
+
+    private void release(Admission admission) {
+        Admission next;
+        synchronized (this) {
+            admissions.remove(admission.key);
+            next = queue.pollFirst();
+            if (next == null) {
+                slotsInUse--;
+                return;
+            }
+            // the slot passes straight to the next launch
+            launching++;
+        }
+        log.info("Launching queued {}", next.key);
+        start(next);
+    }
+
+    @FunctionalInterface
+    public interface Launch {
+
+        /**
+         * Launch the job, returning once its execution is created
+         */
+        JobExecution run() throws Exception;
+    }
+
+    /**
+     * A launch shared by all callers that submitted its key while it was pending
+     */
+    public static final class Admission {
+
+        private final String id = UUID.randomUUID().toString();
+        private final String key;
+        private final Launch launch;
+        private final CompletableFuture<JobExecution> started = new CompletableFuture<>();
+        private final CompletableFuture<JobExecution> finished = new CompletableFuture<>();
+
+        private Admission(String key, Launch launch) {
+            this.key = key;
+            this.launch = launch;
+        }
+
+        /**
+         * Identifies the admission for later lookups through {@link ImportLaunchQueue#find}
+         */
+        public String id() {
+            return id;
+        }
+
+        /**
+         * Completes with the job execution once the job is launched
+         */
+        public CompletableFuture<JobExecution> started() {
+            return started;
+        }
+
+        /**
+         * Completes with the job execution once the job has ended
+         */
+        public CompletableFuture<JobExecution> finished() {
+            return finished;
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.example.spring_batch.infrastructure.batch.listener;
 
+import com.example.spring_batch.infrastructure.batch.writer.PersonUpsertItemWriter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.JobExecution;
 import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.item.ExecutionContext;
 import org.springframework.stereotype.Component;
 
 @Slf4j
@@ -26,17 +29,62 @@ public class BatchJobListener implements JobExecutionListener {
         log.info("Start Time: {}", jobExecution.getStartTime());
         log.info("End Time: {}", jobExecution.getEndTime());
         
-        // Log execution summary
-        jobExecution.getStepExecutions().forEach(stepExecution -> {
+        // Log execution summary; partitioned steps already hold the sum of their partitions
+        long totalRead = 0;
+        long totalWritten = 0;
+        long totalSkipped = 0;
+        long[] totalUpserts = new long[3];
+        for (StepExecution stepExecution : jobExecution.getStepExecutions()) {
+            logUpserts(stepExecution, totalUpserts);
+            if (isPartition(stepExecution)) {
+                log.info("  Partition: {} - Read: {}, Written: {}, Skipped: {}",
+                        stepExecution.getStepName(),
+                        stepExecution.getReadCount(),
+                        stepExecution.getWriteCount(),
+                        stepExecution.getSkipCount());
+                continue;
+            }
             log.info("Step: {} - Read: {}, Written: {}, Skipped: {}", 
                     stepExecution.getStepName(),
                     stepExecution.getReadCount(),
                     stepExecution.getWriteCount(),
                     stepExecution.getSkipCount());
-        });
+            totalRead += stepExecution.getReadCount();
+            totalWritten += stepExecution.getWriteCount();
+            totalSkipped += stepExecution.getSkipCount();
+        }
+        log.info("Total - Read: {}, Written: {}, Skipped: {}", totalRead, totalWritten, totalSkipped);
+        if (totalUpserts[0] + totalUpserts[1] + totalUpserts[2] > 0) {
+            log.info("Total - Inserted: {}, Updated: {}, Unchanged: {}", totalUpserts[0], totalUpserts[1], totalUpserts[2]);
+        }
         
         if (jobExecution.getStatus().isUnsuccessful()) {
             log.error("Job failed with exceptions: {}", jobExecution.getAllFailureExceptions());
         }
     }
+
+    /**
+     * Counts of the upsert writer, kept by the executions that wrote: the step, or its partitions
+     */
+    private void logUpserts(StepExecution stepExecution, long[] totals) {
+        ExecutionContext context = stepExecution.getExecutionContext();
+        if (!context.containsKey(PersonUpsertItemWriter.INSERTED_KEY)) {
+            return;
+        }
+        long inserted = context.getLong(PersonUpsertItemWriter.INSERTED_KEY);
+        long updated = context.getLong(PersonUpsertItemWriter.UPDATED_KEY, 0L);
+        long unchanged = context.getLong(PersonUpsertItemWriter.UNCHANGED_KEY, 0L);
+        log.info("  {} - Inserted: {}, Updated: {}, Unchanged: {}",
+                stepExecution.getStepName(), inserted, updated, unchanged);
+        totals[0] += inserted;
+        totals[1] += updated;
+        totals[2] += unchanged;
+    }
+
+    /**
+     * Worker executions of a partitioned step are named {@code <workerStep>:<partition>}
+     */
+    private boolean isPartition(StepExecution stepExecution) {
+        return stepExecution.getStepName().contains(":");
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.example.spring_batch.infrastructure.batch.listener;
+
+import com.example.spring_batch.application.service.JobProgressService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes job progress after every committed chunk and once more when the job ends
+ */
+@Component
+@RequiredArgsConstructor
+public class JobProgressListener implements ChunkListener, JobExecutionListener {
+
+    private final JobProgressService jobProgressService;
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        jobProgressService.publish(context.getStepContext().getStepExecution().getJobExecution());
+    }
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        jobProgressService.complete(jobExecution);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.spring_batch.infrastructure.batch.metadata;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.JobRepository;
+
+/**
+ * Job repository for steps that are never restarted: the step execution context is not saved
+ * after every chunk, only when the step ends. Counts, status and version are still updated per
+ * chunk, so progress reporting and stopping a job work as before.
+ * <p>
+ * A failed step run through it starts over from the beginning of its input.
+ */
+public final class LeanStepJobRepository {
+
+    private LeanStepJobRepository() {
+    }
+
+    public static JobRepository wrap(JobRepository jobRepository) {
+        ProxyFactory proxyFactory = new ProxyFactory(jobRepository);
+        proxyFactory.addInterface(JobRepository.class);
+        proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+            if ("updateExecutionContext".equals(invocation.getMethod().getName())
+                    && invocation.getArguments()[0] instanceof StepExecution stepExecution
+                    && stepExecution.getStatus() == BatchStatus.STARTED) {
+                return null;
+            }
+            return invocation.proceed();
+        });
+        return (JobRepository) proxyFactory.getProxy();
+    }
+}
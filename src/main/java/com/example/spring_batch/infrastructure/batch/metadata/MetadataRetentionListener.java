@@ -0,0 +1,46 @@
+package com.example.spring_batch.infrastructure.batch.metadata;
+
+import com.example.spring_batch.infrastructure.batch.config.ImportJobProperties;
+import com.example.spring_batch.infrastructure.persistence.JobMetadataStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Applies the metadata retention policy after every import job, so the Spring Batch tables stay
+ * bounded without a separate scheduler
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MetadataRetentionListener implements JobExecutionListener {
+
+    private final JobMetadataStore jobMetadataStore;
+    private final ImportJobProperties importJobProperties;
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        if (!importJobProperties.getMetadata().getRetention().isEnabled()) {
+            return;
+        }
+        try {
+            purge();
+        } catch (RuntimeException e) {
+            // the import itself is done; a failed purge is retried after the next one
+            log.warn("Job metadata purge failed", e);
+        }
+    }
+
+    /**
+     * Delete executions older than the retention period, keeping the configured number of latest ones
+     */
+    public JobMetadataStore.PurgeResult purge() {
+        ImportJobProperties.Retention retention = importJobProperties.getMetadata().getRetention();
+        return jobMetadataStore.purge(LocalDateTime.now().minus(retention.getMaxAge()),
+                retention.getKeepLast(), retention.getBatchSize());
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.spring_batch.infrastructure.batch.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.ItemReadListener;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.SkipListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records Micrometer metrics for the import steps:
+ * <ul>
+ *     <li>{@code batch.import.read}, {@code batch.import.process}: latency per item</li>
+ *     <li>{@code batch.import.write}, {@code batch.import.chunk}, {@code batch.import.commit}: latency per chunk</li>
+ *     <li>{@code batch.import.items}: items read, written and filtered</li>
+ *     <li>{@code batch.import.skips}, {@code batch.import.rollbacks}: skipped items per phase and rolled back chunks</li>
+ *     <li>{@code batch.import.throughput}: rows written per second by the running (or last) import</li>
+ * </ul>
+ * Meters are registered once. Start times are kept in a per-thread {@link StepTimings}, which also serves
+ * as the transaction synchronization measuring the commit, so recording allocates nothing per item.
+ * Each partition runs on its own thread and gets its own timings.
+ */
+@Component
+public class ImportMetricsListener implements ItemReadListener<Object>, ItemWriteListener<Object>,
+        ChunkListener, StepExecutionListener, SkipListener<Object, Object> {
+
+    private static final String PREFIX = "batch.import.";
+
+    private final Timer readTimer;
+    private final Timer processTimer;
+    private final Timer writeTimer;
+    private final Timer chunkTimer;
+    private final Timer commitTimer;
+    private final Counter itemsRead;
+    private final Counter itemsWritten;
+    private final Counter itemsFiltered;
+    private final Counter readSkips;
+    private final Counter processSkips;
+    private final Counter writeSkips;
+    private final Counter rollbacks;
+
+    private final ThreadLocal<StepTimings> timings = ThreadLocal.withInitial(StepTimings::new);
+    private final AtomicInteger activeSteps = new AtomicInteger();
+    private final LongAdder rowsWrittenInRun = new LongAdder();
+    private volatile long runStartNanos;
+    private volatile long runEndNanos;
+
+    public ImportMetricsListener(MeterRegistry meterRegistry) {
+        this.readTimer = timer(meterRegistry, "read", "Time to read one item");
+        this.processTimer = timer(meterRegistry, "process", "Time to process one item");
+        this.writeTimer = timer(meterRegistry, "write", "Time to write one chunk");
+        this.chunkTimer = timer(meterRegistry, "chunk", "Time from chunk start to commit");
+        this.commitTimer = timer(meterRegistry, "commit", "Time to commit the chunk transaction");
+        this.itemsRead = items(meterRegistry, "read");
+        this.itemsWritten = items(meterRegistry, "written");
+        this.itemsFiltered = items(meterRegistry, "filtered");
+        this.readSkips = skips(meterRegistry, "read");
+        this.processSkips = skips(meterRegistry, "process");
+        this.writeSkips = skips(meterRegistry, "write");
+        this.rollbacks = Counter.builder(PREFIX + "rollbacks")
+                .description("Chunk transactions rolled back")
+                .register(meterRegistry);
+        Gauge.builder(PREFIX + "throughput", this, ImportMetricsListener::rowsPerSecond)
+                .description("Rows written per second by the running or last import")
+                .baseUnit("rows/s")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Wraps the processor so that its latency and filtered items are recorded on the thread doing
+     * the work, which for the pipelined step is a virtual thread rather than the chunk thread.
+     */
+    public <I, O> ItemProcessor<I, O> timed(ItemProcessor<I, O> delegate) {
+        return item -> {
+            long start = System.nanoTime();
+            try {
+                O result = delegate.process(item);
+                if (result == null) {
+                    itemsFiltered.increment();
+                }
+                return result;
+            } finally {
+                processTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        if (activeSteps.getAndIncrement() == 0) {
+            rowsWrittenInRun.reset();
+            runStartNanos = System.nanoTime();
+            runEndNanos = 0;
+        }
+        timings.get().lastWriteCount = stepExecution.getWriteCount();
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        if (activeSteps.decrementAndGet() == 0) {
+            runEndNanos = System.nanoTime();
+        }
+        timings.remove();
+        return null;
+    }
+
+    @Override
+    public void beforeRead() {
+        timings.get().readStart = System.nanoTime();
+    }
+
+    @Override
+    public void afterRead(Object item) {
+        readTimer.record(System.nanoTime() - timings.get().readStart, TimeUnit.NANOSECONDS);
+        itemsRead.increment();
+    }
+
+    @Override
+    public void onReadError(Exception ex) {
+        readTimer.record(System.nanoTime() - timings.get().readStart, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void beforeWrite(Chunk<?> items) {
+        timings.get().writeStart = System.nanoTime();
+    }
+
+    @Override
+    public void afterWrite(Chunk<?> items) {
+        writeTimer.record(System.nanoTime() - timings.get().writeStart, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onWriteError(Exception exception, Chunk<?> items) {
+        writeTimer.record(System.nanoTime() - timings.get().writeStart, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        StepTimings stepTimings = timings.get();
+        stepTimings.chunkStart = System.nanoTime();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(stepTimings);
+        }
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        StepTimings stepTimings = timings.get();
+        chunkTimer.record(System.nanoTime() - stepTimings.chunkStart, TimeUnit.NANOSECONDS);
+
+        long writeCount = context.getStepContext().getStepExecution().getWriteCount();
+        long written = writeCount - stepTimings.lastWriteCount;
+        stepTimings.lastWriteCount = writeCount;
+        itemsWritten.increment(written);
+        rowsWrittenInRun.add(written);
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        rollbacks.increment();
+    }
+
+    @Override
+    public void onSkipInRead(Throwable t) {
+        readSkips.increment();
+    }
+
+    @Override
+    public void onSkipInProcess(Object item, Throwable t) {
+        processSkips.increment();
+    }
+
+    @Override
+    public void onSkipInWrite(Object item, Throwable t) {
+        writeSkips.increment();
+    }
+
+    private double rowsPerSecond() {
+        long start = runStartNanos;
+        if (start == 0) {
+            return 0;
+        }
+        long end = activeSteps.get() > 0 || runEndNanos == 0 ? System.nanoTime() : runEndNanos;
+        long elapsed = end - start;
+        return elapsed > 0 ? rowsWrittenInRun.sum() * 1e9 / elapsed : 0;
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String name, String description) {
+        return Timer.builder(PREFIX + name)
+                .description(description)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static Counter items(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(PREFIX + "items")
+                .description("Items handled by the import steps")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static Counter skips(MeterRegistry meterRegistry, String phase) {
+        return Counter.builder(PREFIX + "skips")
+                .description("Items skipped by the import steps")
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Start times of the step running on the current thread; registered as synchronization of
+     * every chunk transaction to time its commit.
+     */
+    private final class StepTimings implements TransactionSynchronization {
+
+        private long readStart;
+        private long writeStart;
+        private long chunkStart;
+        private long commitStart;
+        private long lastWriteCount;
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            commitStart = System.nanoTime();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (status == STATUS_COMMITTED && commitStart != 0) {
+                commitTimer.record(System.nanoTime() - commitStart, TimeUnit.NANOSECONDS);
+            }
+            commitStart = 0;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.spring_batch.infrastructure.batch.partition;
+
+import com.example.spring_batch.domain.model.Person;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.batch.item.file.LineMapper;
+import org.springframework.batch.item.file.ResourceAwareItemReaderItemStream;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads the lines of a file that start inside the byte range {@code [startOffset, endOffset)}.
+ * The range is expected to be line aligned, as produced by {@link LineRangePartitioner}; a reader
+ * created without a range reads the whole file after skipping its header lines.
+ * <p>
+ * Next to the item count, the byte offset of the next line is saved in the execution context, so
+ * a restart seeks straight to it instead of reading and discarding every line before it. Offsets
+ * count bytes and lines are only decoded once complete, so multi-byte characters are never split.
+ * Files are entered with a positioned channel; other resources, such as decompressed ones, skip
+ * the bytes without parsing them.
+ * <p>
+ * Input is read in blocks into a byte buffer that is scanned for line feeds, and each line is
+ * decoded at once, straight from the buffer unless it spans two blocks.
+ */
+@Slf4j
+public class ByteRangePersonItemReader extends AbstractItemCountingItemStreamItemReader<Person>
+        implements ResourceAwareItemReaderItemStream<Person> {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String POSITION_KEY = "position";
+
+    private Resource resource;
+    private final long startOffset;
+    private final long endOffset;
+    private final int linesToSkip;
+    private final LineMapper<Person> lineMapper;
+
+    private InputStream inputStream;
+    private long position;
+    private long restartPosition = -1;
+    private int lineCount;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int bufferPosition;
+    private int bufferLimit;
+    // a line continued across blocks
+    private byte[] lineBuffer = new byte[256];
+
+    public ByteRangePersonItemReader(Resource resource, long startOffset, long endOffset,
+                                     LineMapper<Person> lineMapper) {
+        this(resource, startOffset, endOffset, 0, lineMapper);
+    }
+
+    /**
+     * Reader of a whole file, or of every file of a {@code MultiResourceItemReader} when the resource is null
+     */
+    public ByteRangePersonItemReader(Resource resource, int linesToSkip, LineMapper<Person> lineMapper) {
+        this(resource, 0, Long.MAX_VALUE, linesToSkip, lineMapper);
+    }
+
+    private ByteRangePersonItemReader(Resource resource, long startOffset, long endOffset, int linesToSkip,
+                                      LineMapper<Person> lineMapper) {
+        this.resource = resource;
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+        this.linesToSkip = linesToSkip;
+        this.lineMapper = lineMapper;
+    }
+
+    @Override
+    public void setResource(Resource resource) {
+        this.resource = resource;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        restartPosition = isSaveState()
+                ? executionContext.getLong(getExecutionContextKey(POSITION_KEY), -1L)
+                : -1;
+        super.open(executionContext);
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        super.update(executionContext);
+        if (isSaveState() && inputStream != null) {
+            executionContext.putLong(getExecutionContextKey(POSITION_KEY), position);
+        }
+    }
+
+    @Override
+    protected void doOpen() throws Exception {
+        bufferPosition = 0;
+        bufferLimit = 0;
+        if (restartPosition >= 0) {
+            log.info("Restarting {} at byte {}", resource.getFilename(), restartPosition);
+            inputStream = openAt(restartPosition);
+            position = restartPosition;
+            return;
+        }
+
+        log.debug("Opening {} for byte range [{}, {})", resource.getFilename(), startOffset, endOffset);
+        inputStream = openAt(startOffset);
+        position = startOffset;
+        lineCount = 0;
+        for (int i = 0; i < linesToSkip; i++) {
+            if (readLine() == null) {
+                break;
+            }
+        }
+    }
+
+    @Override
+    protected Person doRead() throws Exception {
+        String line = readLine();
+        if (line == null) {
+            return null;
+        }
+        try {
+            return lineMapper.mapLine(line, lineCount);
+        } catch (Exception ex) {
+            throw new FlatFileParseException("Parsing error at line: " + lineCount + " of byte range ["
+                    + startOffset + ", " + endOffset + ") in resource=[" + resource.getDescription()
+                    + "], input=[" + line + "]", ex, line, lineCount);
+        }
+    }
+
+    @Override
+    protected void jumpToItem(int itemIndex) throws Exception {
+        if (restartPosition >= 0) {
+            // already positioned by doOpen
+            lineCount = linesToSkip + itemIndex;
+            return;
+        }
+        for (int i = 0; i < itemIndex; i++) {
+            if (readLine() == null) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    protected void doClose() throws Exception {
+        restartPosition = -1;
+        if (inputStream != null) {
+            inputStream.close();
+            inputStream = null;
+        }
+    }
+
+    private InputStream openAt(long offset) throws IOException {
+        if (resource.isFile()) {
+            FileChannel channel = FileChannel.open(resource.getFile().toPath(), StandardOpenOption.READ);
+            channel.position(offset);
+            return Channels.newInputStream(channel);
+        }
+        InputStream stream = resource.getInputStream();
+        try {
+            stream.skipNBytes(offset);
+        } catch (IOException e) {
+            stream.close();
+            throw e;
+        }
+        return stream;
+    }
+
+    /**
+     * Next line of the range without its line terminator, or {@code null} once the range is exhausted
+     */
+    private String readLine() throws IOException {
+        if (inputStream == null) {
+            throw new ItemStreamException("Reader must be open before it can be read");
+        }
+        if (position >= endOffset) {
+            return null;
+        }
+
+        int length = 0;
+        while (true) {
+            if (bufferPosition == bufferLimit && !fill()) {
+                return length > 0 ? decode(lineBuffer, 0, length) : null;
+            }
+            int start = bufferPosition;
+            int newline = start;
+            while (newline < bufferLimit && buffer[newline] != '\n') {
+                newline++;
+            }
+            boolean complete = newline < bufferLimit;
+            bufferPosition = complete ? newline + 1 : bufferLimit;
+            position += bufferPosition - start;
+
+            if (complete && length == 0) {
+                return decode(buffer, start, newline - start);
+            }
+            int segment = newline - start;
+            if (length + segment > lineBuffer.length) {
+                lineBuffer = Arrays.copyOf(lineBuffer, Math.max(lineBuffer.length * 2, length + segment));
+            }
+            System.arraycopy(buffer, start, lineBuffer, length, segment);
+            length += segment;
+            if (complete) {
+                return decode(lineBuffer, 0, length);
+            }
+        }
+    }
+
+    /**
+     * Read the next block, returning false at the end of the input
+     */
+    private boolean fill() throws IOException {
+        int read = inputStream.read(buffer, 0, buffer.length);
+        bufferPosition = 0;
+        bufferLimit = Math.max(read, 0);
+        return read >= 0;
+    }
+
+    private String decode(byte[] bytes, int offset, int length) {
+        if (length > 0 && bytes[offset + length - 1] == '\r') {
+            length--;
+        }
+        lineCount++;
+        return new String(bytes, offset, length, StandardCharsets.UTF_8);
+    }
+}
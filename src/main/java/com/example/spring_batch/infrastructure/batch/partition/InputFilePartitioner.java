@@ -0,0 +1,76 @@
+package com.example.spring_batch.infrastructure.batch.partition;
+
+import com.example.spring_batch.infrastructure.batch.reader.InputResources;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Partitions the input files of an import. Every partition stores the location of its file under
+ * {@link #INPUT_KEY}.
+ * <p>
+ * Compressed files cannot be entered at an offset, so each one is a single partition without
+ * offsets. Uncompressed files are split into line-aligned byte ranges by {@link LineRangePartitioner},
+ * dividing the grid size among them in proportion to their size, with at least one range per file.
+ */
+@Slf4j
+public class InputFilePartitioner implements Partitioner {
+
+    public static final String INPUT_KEY = "input";
+
+    private final Resource[] resources;
+    private final int linesToSkip;
+
+    public InputFilePartitioner(Resource[] resources, int linesToSkip) {
+        this.resources = resources;
+        this.linesToSkip = linesToSkip;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        if (gridSize < 1) {
+            throw new IllegalArgumentException("Grid size must be positive: " + gridSize);
+        }
+
+        try {
+            long uncompressedBytes = 0;
+            for (Resource resource : resources) {
+                if (!InputResources.isCompressed(resource)) {
+                    uncompressedBytes += resource.contentLength();
+                }
+            }
+
+            Map<String, ExecutionContext> partitions = new LinkedHashMap<>();
+            for (int i = 0; i < resources.length; i++) {
+                Resource resource = resources[i];
+                String location = resource.getURI().toString();
+                if (InputResources.isCompressed(resource)) {
+                    ExecutionContext context = new ExecutionContext();
+                    context.putString(INPUT_KEY, location);
+                    partitions.put("file" + i, context);
+                    continue;
+                }
+
+                int ranges = uncompressedBytes == 0 ? 1
+                        : (int) Math.max(1, Math.round((double) gridSize * resource.contentLength() / uncompressedBytes));
+                Map<String, ExecutionContext> fileRanges = new LineRangePartitioner(resource, linesToSkip).partition(ranges);
+                for (Map.Entry<String, ExecutionContext> range : fileRanges.entrySet()) {
+                    range.getValue().putString(INPUT_KEY, location);
+                    partitions.put("file" + i + "-" + range.getKey(), range.getValue());
+                }
+            }
+
+            log.info("Split {} input files into {} partitions", resources.length, partitions.size());
+            return partitions;
+
+        } catch (IOException e) {
+            throw new ItemStreamException("Failed to partition input files", e);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.spring_batch.infrastructure.batch.partition;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Splits a line-oriented input file into byte ranges that start and end on line boundaries.
+ * Each partition receives {@link #START_OFFSET_KEY} (inclusive) and {@link #END_OFFSET_KEY}
+ * (exclusive) in its execution context.
+ */
+@Slf4j
+public class LineRangePartitioner implements Partitioner {
+
+    public static final String START_OFFSET_KEY = "startOffset";
+    public static final String END_OFFSET_KEY = "endOffset";
+
+    private static final int SCAN_BUFFER_SIZE = 8192;
+
+    private final Resource resource;
+    private final int linesToSkip;
+
+    public LineRangePartitioner(Resource resource, int linesToSkip) {
+        this.resource = resource;
+        this.linesToSkip = linesToSkip;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        if (gridSize < 1) {
+            throw new IllegalArgumentException("Grid size must be positive: " + gridSize);
+        }
+
+        Map<String, ExecutionContext> partitions = new LinkedHashMap<>();
+        try (FileChannel channel = FileChannel.open(resource.getFile().toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long dataStart = skipLines(channel, 0, linesToSkip);
+            long span = Math.max(1, (size - dataStart) / gridSize);
+
+            long start = dataStart;
+            for (int i = 0; i < gridSize && start < size; i++) {
+                long end = i == gridSize - 1 ? size : nextLineStart(channel, Math.max(start + span, start + 1));
+                ExecutionContext context = new ExecutionContext();
+                context.putLong(START_OFFSET_KEY, start);
+                context.putLong(END_OFFSET_KEY, end);
+                partitions.put("partition" + i, context);
+                start = end;
+            }
+
+            log.info("Split {} ({} bytes) into {} partitions", resource.getFilename(), size, partitions.size());
+            return partitions;
+
+        } catch (IOException e) {
+            throw new ItemStreamException("Failed to partition " + resource.getDescription()
+                    + "; byte range partitioning requires a file system resource", e);
+        }
+    }
+
+    /**
+     * Offset right after the given number of lines, starting at {@code position}
+     */
+    private long skipLines(FileChannel channel, long position, int lines) throws IOException {
+        for (int i = 0; i < lines; i++) {
+            position = nextLineStart(channel, position + 1);
+        }
+        return position;
+    }
+
+    /**
+     * Smallest line start offset that is greater than or equal to {@code position},
+     * or the channel size if there is none
+     */
+    private long nextLineStart(FileChannel channel, long position) throws IOException {
+        long size = channel.size();
+        if (position >= size) {
+            return size;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long offset = position - 1;
+        while (offset < size) {
+            buffer.clear();
+            int read = channel.read(buffer, offset);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.spring_batch.infrastructure.batch.partition;
+
+import com.example.spring_batch.infrastructure.persistence.ImportWorkQueue;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.partition.PartitionHandler;
+import org.springframework.batch.core.partition.StepExecutionSplitter;
+import org.springframework.batch.core.repository.JobRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Partition handler of the distributed import: instead of running the worker steps itself, it
+ * queues one {@code import_work_units} row per partition and waits while the
+ * {@link WorkQueueWorker}s of all nodes claim and execute them.
+ * <p>
+ * While waiting it fails units that ran out of attempts; their worker step executions, left
+ * running by the nodes that died, are marked failed so that the partitioned step fails and the
+ * job can be restarted.
+ */
+@Slf4j
+public class WorkQueuePartitionHandler implements PartitionHandler {
+
+    private final ImportWorkQueue workQueue;
+    private final JobExplorer jobExplorer;
+    private final JobRepository jobRepository;
+    private final int gridSize;
+    private final int maxAttempts;
+    private final Duration pollInterval;
+    private final Duration timeout;
+
+    public WorkQueuePartitionHandler(ImportWorkQueue workQueue, JobExplorer jobExplorer, JobRepository jobRepository,
+                                     int gridSize, int maxAttempts, Duration pollInterval, Duration timeout) {
+        this.workQueue = workQueue;
+        this.jobExplorer = jobExplorer;
+        this.jobRepository = jobRepository;
+        this.gridSize = gridSize;
+        this.maxAttempts = maxAttempts;
+        this.pollInterval = pollInterval;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public Set<StepExecution> handle(StepExecutionSplitter stepSplitter, StepExecution managerStepExecution)
+            throws Exception {
+        Set<StepExecution> partitions = stepSplitter.split(managerStepExecution, gridSize);
+        if (partitions.isEmpty()) {
+            return partitions;
+        }
+        workQueue.enqueue(managerStepExecution, partitions);
+
+        LocalDateTime deadline = LocalDateTime.now().plus(timeout);
+        Map<Long, ImportWorkQueue.UnitState> states;
+        while (true) {
+            workQueue.expireLeases(maxAttempts);
+            states = workQueue.states(managerStepExecution.getId());
+            long finished = states.values().stream().filter(ImportWorkQueue.UnitState::isFinished).count();
+            if (finished == partitions.size()) {
+                break;
+            }
+            if (LocalDateTime.now().isAfter(deadline)) {
+                throw new IllegalStateException("Timed out after " + timeout + " waiting for "
+                        + (partitions.size() - finished) + " of " + partitions.size() + " work units");
+            }
+            log.debug("{} of {} work units finished", finished, partitions.size());
+            Thread.sleep(pollInterval.toMillis());
+        }
+
+        Set<StepExecution> results = new HashSet<>();
+        for (StepExecution partition : partitions) {
+            StepExecution result = jobExplorer.getStepExecution(partition.getJobExecutionId(), partition.getId());
+            ImportWorkQueue.UnitState state = states.get(partition.getId());
+            if (result.getStatus().isRunning() || result.getStatus() == BatchStatus.STOPPED) {
+                // abandoned by a node that died or gave up the lease on its last attempt
+                result.setStatus(BatchStatus.FAILED);
+                result.setExitStatus(ExitStatus.FAILED.addExitDescription(state.error()));
+                result.setEndTime(LocalDateTime.now());
+                jobRepository.update(result);
+            }
+            results.add(result);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.spring_batch.infrastructure.batch.partition;
+
+import com.example.spring_batch.domain.model.ImportWorkUnit;
+import com.example.spring_batch.infrastructure.persistence.ImportWorkQueue;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.context.SmartLifecycle;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Claims work units of distributed imports from the {@link ImportWorkQueue} and executes their
+ * worker step executions on this node, on a fixed number of threads.
+ * <p>
+ * While a unit runs its lease is extended every third of the lease duration. If a heartbeat finds
+ * the lease taken over, the step is asked to stop at the next chunk boundary. On shutdown, running
+ * steps are stopped the same way and their units are handed back to the queue. The step execution
+ * then continues from its last committed checkpoint on whichever node claims it next.
+ */
+@Slf4j
+public class WorkQueueWorker implements SmartLifecycle {
+
+    private final ImportWorkQueue workQueue;
+    private final JobExplorer jobExplorer;
+    private final Step workerStep;
+    private final int threads;
+    private final Duration lease;
+    private final Duration pollInterval;
+    private final int maxAttempts;
+    private final String nodeId;
+
+    private final Map<Long, StepExecution> running = new ConcurrentHashMap<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private ScheduledExecutorService heartbeats;
+    private volatile boolean active;
+
+    public WorkQueueWorker(ImportWorkQueue workQueue, JobExplorer jobExplorer, Step workerStep, int threads,
+                           Duration lease, Duration pollInterval, int maxAttempts) {
+        this.workQueue = workQueue;
+        this.jobExplorer = jobExplorer;
+        this.workerStep = workerStep;
+        this.threads = threads;
+        this.lease = lease;
+        this.pollInterval = pollInterval;
+        this.maxAttempts = maxAttempts;
+        this.nodeId = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Only nodes configured with worker threads take part in distributed imports
+     */
+    @Override
+    public boolean isAutoStartup() {
+        return threads > 0;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (active) {
+            return;
+        }
+        active = true;
+        heartbeats = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("import-heartbeat").factory());
+        for (int i = 0; i < threads; i++) {
+            workers.add(Thread.ofPlatform().name("import-worker-" + i).start(this::work));
+        }
+        log.info("Started {} import workers as {}", threads, nodeId);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!active) {
+            return;
+        }
+        active = false;
+        // interrupting a running step could close its file channels, so workers finish their chunk and exit
+        running.values().forEach(StepExecution::setTerminateOnly);
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        workers.clear();
+        heartbeats.shutdownNow();
+        log.info("Stopped import workers of {}", nodeId);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return active;
+    }
+
+    private void work() {
+        while (active) {
+            try {
+                Optional<ImportWorkQueue.Claim> claim = workQueue.claim(nodeId, lease, maxAttempts);
+                if (claim.isPresent()) {
+                    execute(claim.get());
+                } else {
+                    Thread.sleep(pollInterval.toMillis());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Import worker failed to claim or run a work unit", e);
+                try {
+                    Thread.sleep(pollInterval.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void execute(ImportWorkQueue.Claim claim) {
+        StepExecution stepExecution = jobExplorer.getStepExecution(claim.jobExecutionId(), claim.stepExecutionId());
+        if (stepExecution == null) {
+            workQueue.finish(claim.id(), nodeId, ImportWorkUnit.Status.FAILED,
+                    "Step execution " + claim.stepExecutionId() + " not found");
+            return;
+        }
+        if (stepExecution.getStatus() == BatchStatus.COMPLETED) {
+            // the previous owner finished the step but not the unit
+            workQueue.finish(claim.id(), nodeId, ImportWorkUnit.Status.COMPLETED, null);
+            return;
+        }
+
+        log.info("Executing {} (attempt {})", stepExecution.getStepName(), claim.attempts());
+        long period = Math.max(1, lease.toMillis() / 3);
+        ScheduledFuture<?> heartbeat = heartbeats.scheduleAtFixedRate(
+                () -> heartbeat(claim, stepExecution), period, period, TimeUnit.MILLISECONDS);
+        running.put(claim.id(), stepExecution);
+        try {
+            workerStep.execute(stepExecution);
+        } catch (Exception e) {
+            log.error("Work unit {} failed", stepExecution.getStepName(), e);
+            stepExecution.setStatus(BatchStatus.FAILED);
+            stepExecution.addFailureException(e);
+        } finally {
+            heartbeat.cancel(false);
+            running.remove(claim.id());
+        }
+
+        BatchStatus status = stepExecution.getStatus();
+        boolean recorded;
+        if (status == BatchStatus.COMPLETED) {
+            recorded = workQueue.finish(claim.id(), nodeId, ImportWorkUnit.Status.COMPLETED, null);
+        } else if (status == BatchStatus.STOPPED && !active) {
+            recorded = workQueue.release(claim.id(), nodeId);
+        } else {
+            recorded = workQueue.finish(claim.id(), nodeId, ImportWorkUnit.Status.FAILED,
+                    stepExecution.getExitStatus().getExitDescription());
+        }
+        if (!recorded) {
+            log.warn("Lease of {} was lost; its outcome {} is left to the new owner", stepExecution.getStepName(), status);
+        }
+    }
+
+    private void heartbeat(ImportWorkQueue.Claim claim, StepExecution stepExecution) {
+        try {
+            if (!workQueue.heartbeat(claim.id(), nodeId, lease)) {
+                log.warn("Lease of {} was taken over, stopping it", stepExecution.getStepName());
+                stepExecution.setTerminateOnly();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Heartbeat of {} failed", stepExecution.getStepName(), e);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.spring_batch.infrastructure.batch.pipeline;
+
+import org.springframework.batch.item.ItemProcessor;
+
+/**
+ * Delegate of the asynchronous processor that ties a processing failure to the item it failed
+ * for. The failure only surfaces when {@link FilterCountingAsyncItemWriter} resolves the future,
+ * which by then no longer knows the input item; with it, the writer can report a process skip
+ * for the right item instead of failing the write.
+ */
+public class FailureCapturingItemProcessor<I, O> implements ItemProcessor<I, O> {
+
+    private final ItemProcessor<I, O> delegate;
+
+    public FailureCapturingItemProcessor(ItemProcessor<I, O> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public O process(I item) throws Exception {
+        try {
+            return delegate.process(item);
+        } catch (Exception e) {
+            throw new ProcessFailure(item, e);
+        }
+    }
+
+    /**
+     * A failure of the delegate together with the item it was processing
+     */
+    static final class ProcessFailure extends RuntimeException {
+
+        private final transient Object item;
+
+        private ProcessFailure(Object item, Exception cause) {
+            super(cause);
+            this.item = item;
+        }
+
+        Object getItem() {
+            return item;
+        }
+
+        Exception getFailure() {
+            return (Exception) getCause();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.spring_batch.infrastructure.batch.pipeline;
+
+import com.example.spring_batch.infrastructure.batch.chunk.ChunkContributions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.SkipListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.core.step.skip.SkipLimitExceededException;
+import org.springframework.batch.core.step.skip.SkipPolicy;
+import org.springframework.batch.integration.async.AsyncItemWriter;
+import org.springframework.batch.item.Chunk;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * {@link AsyncItemWriter} that keeps the step's counts as they are without the pipeline.
+ * <p>
+ * The step counts every future it hands over as written. Items the asynchronous processor
+ * filtered arrive as {@code null} results, which {@code AsyncItemWriter} silently drops; they are
+ * moved from the write count to the filter count once the chunk transaction commits.
+ * <p>
+ * Processing failures only surface here, where the step would take them for write failures and
+ * scan the chunk. Failures captured by {@link FailureCapturingItemProcessor} are instead checked
+ * against the skip policy: skipped items are left out of the write, reported to the skip listeners
+ * as process skips and moved from the write count to the process skip count on commit. The policy
+ * sees the skips of the chunk so far through {@link ChunkContributions}. When the policy refuses,
+ * the original failure is rethrown and the step handles the chunk as before.
+ */
+@Slf4j
+public class FilterCountingAsyncItemWriter<T> extends AsyncItemWriter<T> {
+
+    private final SkipPolicy skipPolicy;
+    private final List<SkipListener<Object, Object>> skipListeners;
+
+    public FilterCountingAsyncItemWriter(SkipPolicy skipPolicy, List<SkipListener<Object, Object>> skipListeners) {
+        this.skipPolicy = skipPolicy;
+        this.skipListeners = List.copyOf(skipListeners);
+    }
+
+    @Override
+    public void write(Chunk<? extends Future<T>> items) throws Exception {
+        StepContext context = StepSynchronizationManager.getContext();
+        StepExecution stepExecution = context != null ? context.getStepExecution() : null;
+
+        List<Future<T>> written = new ArrayList<>(items.size());
+        List<FailureCapturingItemProcessor.ProcessFailure> skipped = new ArrayList<>();
+        int filtered = 0;
+        for (Future<T> future : items) {
+            try {
+                if (future.get() == null) {
+                    filtered++;
+                    continue;
+                }
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof FailureCapturingItemProcessor.ProcessFailure failure) {
+                    long skipCount = ChunkContributions.stepSkipCount(stepExecution) + skipped.size();
+                    if (!shouldSkip(failure.getFailure(), skipCount)) {
+                        throw failure.getFailure();
+                    }
+                    skipped.add(failure);
+                    continue;
+                }
+                // rethrown with its original cause by the delegate write below
+            }
+            written.add(future);
+        }
+
+        super.write(new Chunk<>(written));
+
+        if (stepExecution != null && (filtered > 0 || !skipped.isEmpty())) {
+            recordAfterCommit(stepExecution, filtered, skipped);
+        }
+    }
+
+    private boolean shouldSkip(Exception failure, long skipCount) {
+        try {
+            return skipPolicy.shouldSkip(failure, skipCount);
+        } catch (SkipLimitExceededException e) {
+            return false;
+        }
+    }
+
+    private void recordAfterCommit(StepExecution stepExecution, int filtered,
+                                   List<FailureCapturingItemProcessor.ProcessFailure> skipped) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(stepExecution, filtered, skipped);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(stepExecution, filtered, skipped);
+            }
+        });
+    }
+
+    private void record(StepExecution stepExecution, int filtered,
+                        List<FailureCapturingItemProcessor.ProcessFailure> skipped) {
+        stepExecution.setWriteCount(stepExecution.getWriteCount() - filtered - skipped.size());
+        stepExecution.setFilterCount(stepExecution.getFilterCount() + filtered);
+        stepExecution.setProcessSkipCount(stepExecution.getProcessSkipCount() + skipped.size());
+        for (FailureCapturingItemProcessor.ProcessFailure failure : skipped) {
+            for (SkipListener<Object, Object> listener : skipListeners) {
+                try {
+                    listener.onSkipInProcess(failure.getItem(), failure.getFailure());
+                } catch (RuntimeException e) {
+                    log.warn("Skip listener failed for a process skip", e);
+                }
+            }
+        }
+    }
+}
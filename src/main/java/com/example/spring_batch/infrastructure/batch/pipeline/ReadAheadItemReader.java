@@ -0,0 +1,214 @@
+package com.example.spring_batch.infrastructure.batch.pipeline;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.scope.ScopedObject;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemStreamSupport;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Reads ahead of the chunk loop on a virtual thread, so the delegate parses the next chunks
+ * while the current one is being written. At most {@code capacity} results are buffered; the
+ * producer blocks once the buffer is full.
+ * <p>
+ * Read failures are handed over in order and rethrown from {@link #read()}, so skip handling
+ * sees them exactly where the delegate raised them.
+ * <p>
+ * The delegate runs ahead of what has been committed, so its current state cannot be saved as is.
+ * Instead the producer snapshots the delegate's state every few reads, and the latest snapshot at or
+ * before the consumed position is saved together with the number of reads consumed after it. A
+ * restart opens the delegate with that state, so a byte offset or the current file of a
+ * multi-file reader is kept, and only replays the remaining reads. A delegate that saves no state
+ * is replayed from the start up to the consumed position.
+ * <p>
+ * The producer thread has no step context, so a step scoped delegate is resolved to its target on
+ * the step thread when the reader is opened, and the producer reads from that target.
+ */
+@Slf4j
+public class ReadAheadItemReader<T> extends ItemStreamSupport implements ItemStreamReader<T> {
+
+    private static final String CONSUMED_COUNT_KEY = "consumed.count";
+    private static final String REPLAY_COUNT_KEY = "replay.count";
+
+    private final ItemStreamReader<T> delegate;
+    private final int capacity;
+    private final int checkpointInterval;
+
+    private ItemStreamReader<T> target;
+    private BlockingQueue<Slot<T>> queue;
+    private Thread producer;
+    private volatile boolean running;
+    private long consumed;
+    private boolean exhausted;
+    // delegate state snapshots by read position, oldest first; empty for a delegate without state
+    private final ConcurrentLinkedDeque<Checkpoint> checkpoints = new ConcurrentLinkedDeque<>();
+
+    public ReadAheadItemReader(ItemStreamReader<T> delegate, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.delegate = delegate;
+        this.capacity = capacity;
+        this.checkpointInterval = Math.max(1, capacity / 8);
+        setName("readAhead");
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        long restartConsumed = executionContext.getLong(getExecutionContextKey(CONSUMED_COUNT_KEY), 0L);
+        long replay = executionContext.getLong(getExecutionContextKey(REPLAY_COUNT_KEY), restartConsumed);
+        target = scopedTarget(delegate);
+        target.open(executionContext);
+
+        checkpoints.clear();
+        ExecutionContext state = new ExecutionContext();
+        target.update(state);
+        if (state.isEmpty()) {
+            log.warn("Read-ahead delegate {} saves no state, a restart replays {} reads from its start",
+                    target.getClass().getSimpleName(), restartConsumed);
+        } else {
+            checkpoints.add(new Checkpoint(restartConsumed - replay, state));
+        }
+
+        queue = new ArrayBlockingQueue<>(capacity);
+        consumed = restartConsumed;
+        exhausted = false;
+        running = true;
+        producer = Thread.ofVirtual()
+                .name("person-read-ahead")
+                .start(() -> produce(restartConsumed - replay, replay));
+        log.debug("Started read-ahead with capacity {}, replaying {} reads", capacity, replay);
+    }
+
+    @Override
+    public T read() throws Exception {
+        if (exhausted) {
+            return null;
+        }
+        Slot<T> slot = queue.take();
+        if (slot.end()) {
+            exhausted = true;
+            return null;
+        }
+        consumed++;
+        if (slot.error() != null) {
+            throw slot.error();
+        }
+        return slot.item();
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        executionContext.putLong(getExecutionContextKey(CONSUMED_COUNT_KEY), consumed);
+        Checkpoint checkpoint = checkpointAt(consumed);
+        if (checkpoint == null) {
+            executionContext.putLong(getExecutionContextKey(REPLAY_COUNT_KEY), consumed);
+            return;
+        }
+        for (Map.Entry<String, Object> entry : checkpoint.state().entrySet()) {
+            executionContext.put(entry.getKey(), entry.getValue());
+        }
+        executionContext.putLong(getExecutionContextKey(REPLAY_COUNT_KEY), consumed - checkpoint.position());
+    }
+
+    /**
+     * Latest snapshot at or before the position, dropping the ones before it
+     */
+    private Checkpoint checkpointAt(long position) {
+        Checkpoint latest = null;
+        for (Iterator<Checkpoint> iterator = checkpoints.iterator(); iterator.hasNext(); ) {
+            Checkpoint checkpoint = iterator.next();
+            if (checkpoint.position() > position) {
+                break;
+            }
+            if (latest != null) {
+                checkpoints.remove(latest);
+            }
+            latest = checkpoint;
+        }
+        return latest;
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        running = false;
+        if (producer != null) {
+            producer.interrupt();
+            try {
+                producer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            producer = null;
+        }
+        queue = null;
+        if (target != null) {
+            target.close();
+            target = null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ItemStreamReader<T> scopedTarget(ItemStreamReader<T> reader) {
+        return reader instanceof ScopedObject scoped ? (ItemStreamReader<T>) scoped.getTargetObject() : reader;
+    }
+
+    private void produce(long position, long replay) {
+        boolean stateful = !checkpoints.isEmpty();
+        long produced = position;
+        try {
+            for (long i = 0; i < replay && running; i++) {
+                produced++;
+                try {
+                    if (target.read() == null) {
+                        break;
+                    }
+                } catch (Exception e) {
+                    log.debug("Ignoring read failure while replaying to the restart position", e);
+                }
+            }
+            while (running) {
+                T item;
+                Exception error = null;
+                try {
+                    item = target.read();
+                } catch (Exception e) {
+                    item = null;
+                    error = e;
+                }
+                if (item == null && error == null) {
+                    queue.put(new Slot<>(null, null, true));
+                    return;
+                }
+                produced++;
+                if (stateful && produced % checkpointInterval == 0) {
+                    ExecutionContext state = new ExecutionContext();
+                    target.update(state);
+                    checkpoints.add(new Checkpoint(produced, state));
+                }
+                queue.put(new Slot<>(item, error, false));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Read-ahead stopped unexpectedly", e);
+            queue.offer(new Slot<>(null, e, false));
+        }
+    }
+
+    private record Slot<T>(T item, Exception error, boolean end) {
+    }
+
+    /**
+     * State of the delegate after {@code position} reads
+     */
+    private record Checkpoint(long position, ExecutionContext state) {
+    }
+}
@@ -13,14 +13,16 @@ public class PersonItemProcessor implements ItemProcessor<Person, Person> {
 
     @Override
     public Person process(Person person) throws Exception {
-        log.debug("Processing person: {} {}", person.getFirstName(), person.getLastName());
-
         // Validate input
         if (person == null) {
             log.warn("Received null person, skipping");
             return null;
         }
 
+        if (log.isDebugEnabled()) {
+            log.debug("Processing person: {} {}", person.getFirstName(), person.getLastName());
+        }
+
         if (Objects.isNull(person.getFirstName()) || Objects.isNull(person.getLastName())) {
             log.warn("Person with null firstName or lastName, skipping: {} {}", 
                     person.getFirstName(), person.getLastName());
@@ -29,9 +31,11 @@ public class PersonItemProcessor implements ItemProcessor<Person, Person> {
 
         // Generate email
         person.generateEmail();
-        
-        log.debug("Generated email: {} for person: {} {}", 
-                person.getEmail(), person.getFirstName(), person.getLastName());
+
+        if (log.isDebugEnabled()) {
+            log.debug("Generated email: {} for person: {} {}",
+                    person.getEmail(), person.getFirstName(), person.getLastName());
+        }
 
         return person;
     }
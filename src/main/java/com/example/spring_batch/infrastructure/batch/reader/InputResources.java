@@ -0,0 +1,140 @@
+package com.example.spring_batch.infrastructure.batch.reader;
+
+import com.github.luben.zstd.ZstdInputStream;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternUtils;
+import org.springframework.util.ResourceUtils;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Resolves the import input and opens compressed input files.
+ * <p>
+ * The input is a single location or an Ant-style pattern such as
+ * {@code /data/drops/persons-*.csv.gz}; locations without a prefix are file system paths.
+ * Files ending in {@code .gz} or {@code .zst} are decompressed while they are read.
+ */
+public final class InputResources {
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private InputResources() {
+    }
+
+    /**
+     * Location with a {@code file:} prefix added when it has none, so it resolves the same way everywhere
+     */
+    public static String normalize(String location) {
+        if (location == null || location.isBlank()) {
+            throw new IllegalArgumentException("Input location must not be empty");
+        }
+        String trimmed = location.trim();
+        if (ResourceUtils.isUrl(trimmed) || trimmed.startsWith(ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX)) {
+            return trimmed;
+        }
+        return ResourceUtils.FILE_URL_PREFIX + trimmed;
+    }
+
+    /**
+     * Existing resources matching the location, ordered by file name
+     *
+     * @throws IllegalArgumentException if nothing matches
+     */
+    public static Resource[] resolve(ResourceLoader resourceLoader, String location) {
+        String normalized = normalize(location);
+        ResourcePatternResolver resolver = ResourcePatternUtils.getResourcePatternResolver(resourceLoader);
+        Resource[] resources;
+        try {
+            resources = resolver.getResources(normalized);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot resolve input " + normalized, e);
+        }
+        Resource[] existing = Arrays.stream(resources)
+                .filter(Resource::exists)
+                .sorted(Comparator.comparing(Resource::getFilename, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .toArray(Resource[]::new);
+        if (existing.length == 0) {
+            throw new IllegalArgumentException("No input file matches " + normalized);
+        }
+        return existing;
+    }
+
+    public static boolean isCompressed(Resource resource) {
+        String filename = resource.getFilename();
+        if (filename == null) {
+            return false;
+        }
+        String lower = filename.toLowerCase(Locale.ROOT);
+        return lower.endsWith(".gz") || lower.endsWith(".zst");
+    }
+
+    /**
+     * Resource whose input stream yields the decompressed content, or the resource itself when it
+     * is not compressed
+     */
+    public static Resource decompressed(Resource resource) {
+        return isCompressed(resource) ? new DecompressingResource(resource) : resource;
+    }
+
+    private static final class DecompressingResource extends AbstractResource {
+
+        private final Resource compressed;
+
+        private DecompressingResource(Resource compressed) {
+            this.compressed = compressed;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            InputStream raw = compressed.getInputStream();
+            try {
+                InputStream decompressing = compressed.getFilename().toLowerCase(Locale.ROOT).endsWith(".gz")
+                        ? new GZIPInputStream(raw, BUFFER_SIZE)
+                        : new ZstdInputStream(new BufferedInputStream(raw, BUFFER_SIZE));
+                return new BufferedInputStream(decompressing, BUFFER_SIZE);
+            } catch (IOException | RuntimeException e) {
+                raw.close();
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean exists() {
+            return compressed.exists();
+        }
+
+        @Override
+        public String getFilename() {
+            return compressed.getFilename();
+        }
+
+        @Override
+        public long lastModified() throws IOException {
+            return compressed.lastModified();
+        }
+
+        @Override
+        public String getDescription() {
+            return "decompressed " + compressed.getDescription();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof DecompressingResource that && compressed.equals(that.compressed);
+        }
+
+        @Override
+        public int hashCode() {
+            return compressed.hashCode();
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.example.spring_batch.infrastructure.batch.reader;
+
+import com.example.spring_batch.domain.model.Person;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamSupport;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.batch.item.file.ResourceAwareItemReaderItemStream;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads persons from a comma separated file by scanning a memory-mapped view of it.
+ * Delimiters, quotes and line ends are found directly in the mapped bytes; only the field
+ * values themselves are copied out to build the {@link Person}, through {@link PersonFieldMapper}.
+ * <p>
+ * Quoted fields may contain delimiters, line breaks and {@code ""} escapes. Values are trimmed,
+ * as with the {@code FieldSet} based reader. The byte offset of the next record is saved in the
+ * execution context so that a restart resumes without rescanning the file.
+ */
+@Slf4j
+public class MappedPersonItemReader extends ItemStreamSupport implements ResourceAwareItemReaderItemStream<Person> {
+
+    public static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private static final String POSITION_KEY = "position";
+    private static final String READ_COUNT_KEY = "read.count";
+    private static final byte DELIMITER = ',';
+    private static final byte QUOTE = '"';
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+    private static final long INCOMPLETE = -1;
+
+    private Resource resource;
+    private final int linesToSkip;
+    private final int windowSize;
+    private boolean saveState = true;
+
+    private FileChannel channel;
+    private long fileSize;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private int windowLimit;
+    private long position;
+    private long readCount;
+    private byte[] scratch = new byte[128];
+    private String error;
+
+    public MappedPersonItemReader(Resource resource, int linesToSkip) {
+        this(resource, linesToSkip, DEFAULT_WINDOW_SIZE);
+    }
+
+    public MappedPersonItemReader(Resource resource, int linesToSkip, int windowSize) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("Window size must be positive: " + windowSize);
+        }
+        this.resource = resource;
+        this.linesToSkip = linesToSkip;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Reader for a {@code MultiResourceItemReader}, which sets the resource before every open
+     */
+    public MappedPersonItemReader(int linesToSkip) {
+        this(null, linesToSkip, DEFAULT_WINDOW_SIZE);
+    }
+
+    @Override
+    public void setResource(Resource resource) {
+        this.resource = resource;
+    }
+
+    public void setSaveState(boolean saveState) {
+        this.saveState = saveState;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        try {
+            channel = FileChannel.open(resource.getFile().toPath(), StandardOpenOption.READ);
+            fileSize = channel.size();
+            window = null;
+
+            if (executionContext.containsKey(getExecutionContextKey(POSITION_KEY))) {
+                position = executionContext.getLong(getExecutionContextKey(POSITION_KEY));
+                readCount = executionContext.getLong(getExecutionContextKey(READ_COUNT_KEY), 0L);
+                log.info("Restarting {} at byte {} after {} records", resource.getFilename(), position, readCount);
+            } else {
+                position = 0;
+                readCount = 0;
+                for (int i = 0; i < linesToSkip && position < fileSize; i++) {
+                    position = skipLine(position);
+                }
+            }
+        } catch (IOException e) {
+            throw new ItemStreamException("Failed to open memory-mapped reader for " + resource.getDescription(), e);
+        }
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        if (saveState) {
+            executionContext.putLong(getExecutionContextKey(POSITION_KEY), position);
+            executionContext.putLong(getExecutionContextKey(READ_COUNT_KEY), readCount);
+        }
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        window = null;
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new ItemStreamException("Failed to close " + resource.getDescription(), e);
+            } finally {
+                channel = null;
+            }
+        }
+    }
+
+    @Override
+    public Person read() throws Exception {
+        if (channel == null) {
+            throw new ItemStreamException("Reader must be open before it can be read");
+        }
+        if (position >= fileSize) {
+            return null;
+        }
+
+        long recordStart = position;
+        Person person;
+        long next;
+        while (true) {
+            ensureMapped(position);
+            person = new Person();
+            error = null;
+            next = parseRecord(person);
+            if (next != INCOMPLETE) {
+                break;
+            }
+            if (windowStart == position) {
+                throw new FlatFileParseException("Record at byte " + recordStart + " is larger than the "
+                        + windowSize + " byte mapping window in resource=[" + resource.getDescription() + "]",
+                        "", (int) readCount + 1);
+            }
+            map(position);
+        }
+
+        position = next;
+        readCount++;
+        if (error != null) {
+            throw new FlatFileParseException("Parsing error at record " + readCount + " (byte " + recordStart
+                    + ") in resource=[" + resource.getDescription() + "]: " + error,
+                    recordText(recordStart, next), (int) readCount);
+        }
+        return person;
+    }
+
+    /**
+     * Parses the record at {@link #position} into the person.
+     *
+     * @return absolute offset of the next record, or {@link #INCOMPLETE} if the record runs past the
+     * mapped window and the window has to be moved
+     */
+    private long parseRecord(Person person) {
+        boolean lastWindow = windowStart + windowLimit >= fileSize;
+        int i = (int) (position - windowStart);
+        int fieldIndex = 0;
+
+        while (true) {
+            int length;
+            if (i < windowLimit && window.get(i) == QUOTE) {
+                i++;
+                length = 0;
+                while (true) {
+                    if (i >= windowLimit) {
+                        if (!lastWindow) {
+                            return INCOMPLETE;
+                        }
+                        error = "unterminated quoted field";
+                        break;
+                    }
+                    byte b = window.get(i);
+                    if (b == QUOTE) {
+                        if (i + 1 >= windowLimit && !lastWindow) {
+                            return INCOMPLETE;
+                        }
+                        if (i + 1 < windowLimit && window.get(i + 1) == QUOTE) {
+                            append(length++, QUOTE);
+                            i += 2;
+                            continue;
+                        }
+                        i++;
+                        break;
+                    }
+                    append(length++, b);
+                    i++;
+                }
+            } else {
+                int start = i;
+                while (i < windowLimit && window.get(i) != DELIMITER && window.get(i) != LF) {
+                    i++;
+                }
+                if (i >= windowLimit && !lastWindow) {
+                    return INCOMPLETE;
+                }
+                int end = i;
+                if (end > start && window.get(end - 1) == CR) {
+                    end--;
+                }
+                length = end - start;
+                ensureScratch(length);
+                window.get(start, scratch, 0, length);
+            }
+
+            if (fieldIndex < PersonFieldMapper.FIELD_COUNT) {
+                PersonFieldMapper.setField(person, fieldIndex, decodeTrimmed(length));
+            }
+            fieldIndex++;
+
+            if (i >= windowLimit) {
+                break;
+            }
+            byte b = window.get(i);
+            if (b == DELIMITER) {
+                i++;
+                continue;
+            }
+            if (b == CR) {
+                if (i + 1 >= windowLimit && !lastWindow) {
+                    return INCOMPLETE;
+                }
+                if (i + 1 < windowLimit && window.get(i + 1) == LF) {
+                    i++;
+                }
+            } else if (b != LF) {
+                if (error == null) {
+                    error = "unexpected character after quoted field";
+                }
+                while (i < windowLimit && window.get(i) != LF) {
+                    i++;
+                }
+                if (i >= windowLimit && !lastWindow) {
+                    return INCOMPLETE;
+                }
+            }
+            i++;
+            break;
+        }
+
+        if (error == null && fieldIndex != PersonFieldMapper.FIELD_COUNT) {
+            error = "expected " + PersonFieldMapper.FIELD_COUNT + " fields but found " + fieldIndex;
+        }
+        return Math.min(windowStart + i, fileSize);
+    }
+
+    private String decodeTrimmed(int length) {
+        int start = 0;
+        int end = length;
+        while (start < end && (scratch[start] & 0xFF) <= ' ') {
+            start++;
+        }
+        while (end > start && (scratch[end - 1] & 0xFF) <= ' ') {
+            end--;
+        }
+        return new String(scratch, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    private void append(int index, byte b) {
+        ensureScratch(index + 1);
+        scratch[index] = b;
+    }
+
+    private void ensureScratch(int length) {
+        if (length > scratch.length) {
+            scratch = Arrays.copyOf(scratch, Math.max(length, scratch.length * 2));
+        }
+    }
+
+    private long skipLine(long from) throws IOException {
+        long offset = from;
+        while (offset < fileSize) {
+            ensureMapped(offset);
+            int i = (int) (offset - windowStart);
+            while (i < windowLimit) {
+                if (window.get(i++) == LF) {
+                    return windowStart + i;
+                }
+            }
+            offset = windowStart + windowLimit;
+        }
+        return fileSize;
+    }
+
+    private String recordText(long start, long end) {
+        int length = (int) Math.min(end - start, 1024);
+        byte[] bytes = new byte[length];
+        window.get((int) (start - windowStart), bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8).stripTrailing();
+    }
+
+    private void ensureMapped(long offset) throws IOException {
+        if (window == null || offset < windowStart || offset >= windowStart + windowLimit) {
+            map(offset);
+        }
+    }
+
+    private void map(long offset) throws IOException {
+        windowStart = offset;
+        windowLimit = (int) Math.min(windowSize, fileSize - offset);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, offset, windowLimit);
+    }
+}
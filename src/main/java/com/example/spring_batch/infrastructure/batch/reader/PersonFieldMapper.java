@@ -0,0 +1,23 @@
+package com.example.spring_batch.infrastructure.batch.reader;
+
+import com.example.spring_batch.domain.model.Person;
+
+/**
+ * Hand-written replacement for {@code BeanWrapperFieldSetMapper<Person>}: assigns CSV columns
+ * {@code firstName,lastName} by position, trimming values the way {@code FieldSet} does.
+ */
+public final class PersonFieldMapper {
+
+    public static final int FIELD_COUNT = 2;
+
+    private PersonFieldMapper() {
+    }
+
+    public static void setField(Person person, int index, String value) {
+        switch (index) {
+            case 0 -> person.setFirstName(value);
+            case 1 -> person.setLastName(value);
+            default -> throw new IllegalArgumentException("Unexpected field index: " + index);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.spring_batch.infrastructure.batch.writer;
+
+import com.example.spring_batch.domain.model.Person;
+import com.example.spring_batch.infrastructure.batch.chunk.ChunkContributions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.core.step.skip.SkipLimitExceededException;
+import org.springframework.batch.core.step.skip.SkipPolicy;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Isolates the items that make a chunk fail without rolling the chunk back. The chunk is written
+ * under a savepoint; when that fails, it is rolled back to the savepoint and split in halves, each
+ * written under its own savepoint, down to the single items that still fail. A bad item costs
+ * about {@code 2 log2(n)} statements instead of the item-by-item transactions of Spring Batch's
+ * scan, and the good items commit with the chunk.
+ * <p>
+ * Savepoints are taken directly on the JDBC connection of the chunk transaction, so they work under
+ * any transaction manager that binds that connection, including the {@code JpaTransactionManager}
+ * that does not allow nested transactions. When the connection is not the transaction's or refuses
+ * a savepoint, the write fails with a {@link CannotCreateTransactionException} instead of taking
+ * every item for a bad one.
+ * <p>
+ * Isolated items are removed from the chunk through {@code Chunk.ChunkIterator#remove(Throwable)},
+ * so the step calls {@code onSkipInWrite} for each of them and leaves them out of the write count.
+ * They are added to the step's write skip count once the chunk commits. The skip policy sees the
+ * skips of the chunk so far through {@link ChunkContributions}; when it refuses an item, for
+ * instance because the skip limit is reached, the original failure is rethrown and the step handles
+ * the chunk as before. Transient failures such as lock timeouts are not tied to an item and are
+ * rethrown too.
+ * <p>
+ * The delegate must write through JDBC on the chunk transaction's connection: a JPA persistence
+ * context is not rolled back with a savepoint. Ids assigned to new persons under a savepoint that
+ * is rolled back are taken back, so the next attempt inserts them again, and so are all ids when
+ * the writer rethrows.
+ */
+@Slf4j
+public class BisectingItemWriter implements ItemWriter<Person> {
+
+    private final ItemWriter<Person> delegate;
+    private final DataSource dataSource;
+    private final SkipPolicy skipPolicy;
+
+    public BisectingItemWriter(ItemWriter<Person> delegate, DataSource dataSource, SkipPolicy skipPolicy) {
+        this.delegate = delegate;
+        this.dataSource = dataSource;
+        this.skipPolicy = skipPolicy;
+    }
+
+    @Override
+    public void write(Chunk<? extends Person> chunk) throws Exception {
+        StepContext context = StepSynchronizationManager.getContext();
+        if (chunk.size() <= 1 || context == null || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            delegate.write(chunk);
+            return;
+        }
+
+        List<Person> items = new ArrayList<>(chunk.getItems());
+        Exception failure = attempt(items);
+        if (failure == null) {
+            return;
+        }
+        rethrowIfNotItemSpecific(failure);
+
+        StepExecution stepExecution = context.getStepExecution();
+        Map<Person, Exception> skipped = new IdentityHashMap<>();
+        long start = System.nanoTime();
+        List<UUID> originalIds = items.stream().map(Person::getId).toList();
+        try {
+            isolate(items, failure, skipped, stepExecution);
+        } catch (Exception e) {
+            // the whole chunk rolls back, so rows written under released savepoints are gone again
+            restoreIds(items, originalIds);
+            throw e;
+        }
+        log.info("Isolated {} failed items of a {} item chunk in {} ms",
+                skipped.size(), items.size(), (System.nanoTime() - start) / 1_000_000);
+
+        removeSkipped(chunk, skipped);
+        countSkipsAfterCommit(stepExecution, skipped.size());
+    }
+
+    private void isolate(List<Person> items, Exception failure, Map<Person, Exception> skipped,
+                         StepExecution stepExecution) throws Exception {
+        if (items.size() == 1) {
+            if (!shouldSkip(failure, ChunkContributions.stepSkipCount(stepExecution) + skipped.size())) {
+                throw failure;
+            }
+            skipped.put(items.get(0), failure);
+            return;
+        }
+
+        int middle = items.size() / 2;
+        for (List<Person> half : List.of(items.subList(0, middle), items.subList(middle, items.size()))) {
+            Exception halfFailure = attempt(half);
+            if (halfFailure != null) {
+                rethrowIfNotItemSpecific(halfFailure);
+                isolate(half, halfFailure, skipped, stepExecution);
+            }
+        }
+    }
+
+    /**
+     * Writes the items under a savepoint
+     *
+     * @return the failure the savepoint was rolled back for, or {@code null} if the items were written
+     */
+    private Exception attempt(List<Person> items) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            Savepoint savepoint = createSavepoint(connection);
+            List<UUID> ids = items.stream().map(Person::getId).toList();
+            try {
+                delegate.write(new Chunk<>(items));
+            } catch (Exception e) {
+                rollbackToSavepoint(connection, savepoint);
+                // rows inserted under the savepoint are gone, so their persons are new again
+                restoreIds(items, ids);
+                return e;
+            }
+            releaseSavepoint(connection, savepoint);
+            return null;
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private Savepoint createSavepoint(Connection connection) {
+        if (!DataSourceUtils.isConnectionTransactional(connection, dataSource)) {
+            throw new CannotCreateTransactionException(
+                    "Bisecting writes need the chunk transaction to be bound to the JDBC connection of the data source");
+        }
+        try {
+            return connection.setSavepoint();
+        } catch (SQLException e) {
+            throw new CannotCreateTransactionException("Could not create a savepoint on the chunk connection", e);
+        }
+    }
+
+    private static void rollbackToSavepoint(Connection connection, Savepoint savepoint) {
+        try {
+            connection.rollback(savepoint);
+        } catch (SQLException e) {
+            throw new TransactionSystemException("Could not roll back to the savepoint of a bisected write", e);
+        }
+    }
+
+    private static void releaseSavepoint(Connection connection, Savepoint savepoint) {
+        try {
+            connection.releaseSavepoint(savepoint);
+        } catch (SQLException e) {
+            // the savepoint ends with the transaction anyway
+            log.debug("Could not release a savepoint: {}", e.getMessage());
+        }
+    }
+
+    private static void restoreIds(List<Person> items, List<UUID> ids) {
+        for (int i = 0; i < items.size(); i++) {
+            items.get(i).setId(ids.get(i));
+        }
+    }
+
+    private boolean shouldSkip(Exception failure, long skipCount) {
+        try {
+            return skipPolicy.shouldSkip(failure, skipCount);
+        } catch (SkipLimitExceededException e) {
+            return false;
+        }
+    }
+
+    private static <W> void removeSkipped(Chunk<W> chunk, Map<?, Exception> skipped) {
+        for (Chunk<W>.ChunkIterator iterator = chunk.iterator(); iterator.hasNext(); ) {
+            Exception cause = skipped.get(iterator.next());
+            if (cause != null) {
+                iterator.remove(cause);
+            }
+        }
+    }
+
+    private static void rethrowIfNotItemSpecific(Exception failure) throws Exception {
+        if (failure instanceof TransientDataAccessException) {
+            throw failure;
+        }
+    }
+
+    private static void countSkipsAfterCommit(StepExecution stepExecution, int skips) {
+        if (skips == 0) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                stepExecution.setWriteSkipCount(stepExecution.getWriteSkipCount() + skips);
+            }
+        });
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.spring_batch.infrastructure.batch.writer;
+
+import com.example.spring_batch.domain.model.Person;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Streams new persons into PostgreSQL with {@code COPY ... FROM STDIN (FORMAT BINARY)},
+ * one round trip per chunk, on the connection bound to the chunk transaction.
+ * Persons that already carry an id are handed to the batched update of {@link PersonJdbcBatchItemWriter},
+ * and like there, the ids assigned to new persons are taken back when the chunk transaction rolls back.
+ */
+@Slf4j
+public class PersonCopyItemWriter implements ItemWriter<Person> {
+
+    private static final String COPY_SQL =
+            "COPY persons (" + PersonJdbcBatchItemWriter.INSERT_COLUMNS + ") FROM STDIN (FORMAT BINARY)";
+    private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+    private static final short FIELD_COUNT = 6;
+    private static final int UUID_LENGTH = 16;
+    private static final int TIMESTAMP_LENGTH = 8;
+    private static final int ESTIMATED_ROW_SIZE = 128;
+    private static final LocalDateTime POSTGRES_EPOCH = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    private final DataSource dataSource;
+    private final PersonJdbcBatchItemWriter updateWriter;
+
+    public PersonCopyItemWriter(DataSource dataSource, PersonJdbcBatchItemWriter updateWriter) {
+        this.dataSource = dataSource;
+        this.updateWriter = updateWriter;
+    }
+
+    @Override
+    public void write(Chunk<? extends Person> chunk) throws Exception {
+        List<Person> inserts = new ArrayList<>(chunk.size());
+        List<Person> updates = new ArrayList<>();
+        for (Person person : chunk) {
+            if (person.getId() == null) {
+                person.prepareForInsert();
+                inserts.add(person);
+            } else {
+                updates.add(person);
+            }
+        }
+
+        PersonJdbcBatchItemWriter.resetIdsOnRollback(inserts);
+        try {
+            if (!inserts.isEmpty()) {
+                copy(inserts);
+            }
+        } catch (Exception e) {
+            PersonJdbcBatchItemWriter.resetIds(inserts);
+            throw e;
+        }
+        if (!updates.isEmpty()) {
+            updateWriter.write(new Chunk<>(updates));
+        }
+    }
+
+    private void copy(List<Person> persons) throws Exception {
+        byte[] payload = encode(persons);
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            long rows = connection.unwrap(PGConnection.class)
+                    .getCopyAPI()
+                    .copyIn(COPY_SQL, new ByteArrayInputStream(payload));
+            log.debug("Copied {} persons in {} bytes", rows, payload.length);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    static byte[] encode(List<Person> persons) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(SIGNATURE.length + 10 + persons.size() * ESTIMATED_ROW_SIZE);
+        DataOutputStream out = new DataOutputStream(buffer);
+
+        out.write(SIGNATURE);
+        out.writeInt(0); // flags
+        out.writeInt(0); // header extension length
+
+        for (Person person : persons) {
+            out.writeShort(FIELD_COUNT);
+            writeUuid(out, person.getId());
+            writeText(out, person.getFirstName());
+            writeText(out, person.getLastName());
+            writeText(out, person.getEmail());
+            writeTimestamp(out, person.getCreatedAt());
+            writeTimestamp(out, person.getUpdatedAt());
+        }
+
+        out.writeShort(-1); // trailer
+        out.flush();
+        return buffer.toByteArray();
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID value) throws IOException {
+        out.writeInt(UUID_LENGTH);
+        out.writeLong(value.getMostSignificantBits());
+        out.writeLong(value.getLeastSignificantBits());
+    }
+
+    private static void writeText(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Binary timestamps are microseconds since 2000-01-01 00:00:00
+     */
+    private static void writeTimestamp(DataOutputStream out, LocalDateTime value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(TIMESTAMP_LENGTH);
+        out.writeLong(ChronoUnit.MICROS.between(POSTGRES_EPOCH, value));
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.spring_batch.infrastructure.batch.writer;
+
+import com.example.spring_batch.domain.model.Person;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.jdbc.JdbcUpdateAffectedIncorrectNumberOfRowsException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Writes persons with plain JDBC: new persons as multi-row {@code INSERT ... VALUES (..), (..)}
+ * statements sent as one JDBC batch, persons that already carry an id as a batched {@code UPDATE}.
+ * Ids of new persons are assigned here, so anything upstream that sets an id marks an existing row.
+ * <p>
+ * The ids assigned here are taken back when the chunk transaction rolls back for any reason, so the
+ * retried chunk inserts those persons again instead of updating rows that no longer exist. An update
+ * that matches no row fails instead of being counted as written.
+ */
+@Slf4j
+public class PersonJdbcBatchItemWriter implements ItemWriter<Person> {
+
+    static final String INSERT_COLUMNS = "id, first_name, last_name, email, created_at, updated_at";
+    private static final int INSERT_COLUMN_COUNT = 6;
+    private static final String UPDATE_SQL =
+            "UPDATE persons SET first_name = ?, last_name = ?, email = ?, updated_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int rowsPerStatement;
+    private final String fullInsertSql;
+
+    public PersonJdbcBatchItemWriter(JdbcTemplate jdbcTemplate, int rowsPerStatement) {
+        if (rowsPerStatement < 1) {
+            throw new IllegalArgumentException("Rows per statement must be positive: " + rowsPerStatement);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.rowsPerStatement = rowsPerStatement;
+        this.fullInsertSql = insertSql(rowsPerStatement);
+    }
+
+    @Override
+    public void write(Chunk<? extends Person> chunk) throws Exception {
+        List<Person> inserts = new ArrayList<>(chunk.size());
+        List<Person> updates = new ArrayList<>();
+        for (Person person : chunk) {
+            if (person.getId() == null) {
+                person.prepareForInsert();
+                inserts.add(person);
+            } else {
+                person.prepareForUpdate();
+                updates.add(person);
+            }
+        }
+
+        resetIdsOnRollback(inserts);
+        try {
+            insert(inserts);
+            update(updates);
+        } catch (RuntimeException e) {
+            resetIds(inserts);
+            throw e;
+        }
+        log.debug("Wrote {} inserts and {} updates", inserts.size(), updates.size());
+    }
+
+    /**
+     * Persons whose insert was rolled back must be inserted again when the chunk is retried,
+     * so the ids assigned here are taken back
+     */
+    static void resetIds(List<Person> inserted) {
+        for (Person person : inserted) {
+            person.setId(null);
+        }
+    }
+
+    /**
+     * Takes back the ids assigned to new persons if the surrounding transaction rolls back, also when
+     * the failure comes after this writer, for instance from another writer of the chunk or the commit
+     */
+    static void resetIdsOnRollback(List<Person> inserted) {
+        if (inserted.isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        List<Person> persons = List.copyOf(inserted);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    resetIds(persons);
+                }
+            }
+        });
+    }
+
+    private void insert(List<Person> persons) {
+        int fullStatements = persons.size() / rowsPerStatement;
+        if (fullStatements > 0) {
+            jdbcTemplate.batchUpdate(fullInsertSql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    bindRows(ps, persons, i * rowsPerStatement, rowsPerStatement);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return fullStatements;
+                }
+            });
+        }
+
+        int remaining = persons.size() - fullStatements * rowsPerStatement;
+        if (remaining > 0) {
+            jdbcTemplate.update(insertSql(remaining),
+                    ps -> bindRows(ps, persons, fullStatements * rowsPerStatement, remaining));
+        }
+    }
+
+    private void update(List<Person> persons) {
+        if (persons.isEmpty()) {
+            return;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, persons, persons.size(), (ps, person) -> {
+            ps.setString(1, person.getFirstName());
+            ps.setString(2, person.getLastName());
+            ps.setString(3, person.getEmail());
+            ps.setObject(4, person.getUpdatedAt());
+            ps.setObject(5, person.getId());
+        });
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // drivers may report success without a count
+                if (count == 0) {
+                    throw new JdbcUpdateAffectedIncorrectNumberOfRowsException(UPDATE_SQL, 1, count);
+                }
+            }
+        }
+    }
+
+    private static void bindRows(PreparedStatement ps, List<Person> persons, int from, int count)
+            throws SQLException {
+        int index = 1;
+        for (int i = from; i < from + count; i++) {
+            Person person = persons.get(i);
+            ps.setObject(index++, person.getId());
+            ps.setString(index++, person.getFirstName());
+            ps.setString(index++, person.getLastName());
+            ps.setString(index++, person.getEmail());
+            ps.setObject(index++, person.getCreatedAt());
+            ps.setObject(index++, person.getUpdatedAt());
+        }
+    }
+
+    private static String insertSql(int rows) {
+        String placeholders = "(" + "?, ".repeat(INSERT_COLUMN_COUNT - 1) + "?)";
+        StringJoiner values = new StringJoiner(", ");
+        for (int i = 0; i < rows; i++) {
+            values.add(placeholders);
+        }
+        return "INSERT INTO persons (" + INSERT_COLUMNS + ") VALUES " + values;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.spring_batch.infrastructure.batch.writer;
+
+import com.example.spring_batch.domain.model.Person;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.database.JpaItemWriter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link JpaItemWriter} that persists new persons instead of merging copies of them, so the
+ * generated id ends up on the written item itself. Persons that already carry an id are merged.
+ * Ids assigned to a chunk are taken back when its transaction rolls back, also when a later writer
+ * of the chunk or the commit fails, as in {@link PersonJdbcBatchItemWriter}.
+ */
+public class PersonJpaItemWriter extends JpaItemWriter<Person> {
+
+    public PersonJpaItemWriter(EntityManagerFactory entityManagerFactory) {
+        setEntityManagerFactory(entityManagerFactory);
+    }
+
+    @Override
+    public void write(Chunk<? extends Person> items) {
+        List<Person> inserts = new ArrayList<>(items.size());
+        for (Person person : items) {
+            if (person.getId() == null) {
+                inserts.add(person);
+            }
+        }
+
+        PersonJdbcBatchItemWriter.resetIdsOnRollback(inserts);
+        try {
+            super.write(items);
+        } catch (RuntimeException e) {
+            PersonJdbcBatchItemWriter.resetIds(inserts);
+            throw e;
+        }
+    }
+
+    @Override
+    protected void doWrite(EntityManager entityManager, Chunk<? extends Person> items) {
+        for (Person person : items) {
+            if (person.getId() == null) {
+                entityManager.persist(person);
+            } else {
+                entityManager.merge(person);
+            }
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.example.spring_batch.infrastructure.batch.writer;
+
+import com.example.spring_batch.domain.model.Person;
+import com.example.spring_batch.infrastructure.persistence.PersonStatisticsStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+/**
+ * Writes every chunk as one set-based upsert keyed on {@code email}: a row with a new email is
+ * inserted, a row whose names differ from the stored ones updates them together with
+ * {@code updated_at}, and a row equal to the stored one is left untouched. Ids carried by the
+ * persons are ignored; afterwards every person holds the id of its row.
+ * <p>
+ * On PostgreSQL the chunk is one {@code INSERT ... ON CONFLICT (email) DO UPDATE ... WHERE ... IS
+ * DISTINCT FROM} whose {@code RETURNING (xmax = 0)} tells inserts from updates, joined with the
+ * rows it left alone. Other databases read the existing rows of the chunk's emails first and then
+ * apply a single {@code MERGE}. Rows are sent in email order so that concurrent partitions lock
+ * them in the same order, and within a chunk the last row of an email wins.
+ * <p>
+ * Since only this writer knows which rows were new, it updates the persons statistics itself.
+ * Inserted, updated and unchanged counts are added to the step execution context under
+ * {@link #INSERTED_KEY}, {@link #UPDATED_KEY} and {@link #UNCHANGED_KEY} once the chunk commits.
+ */
+@Slf4j
+public class PersonUpsertItemWriter implements ItemWriter<Person> {
+
+    public static final String INSERTED_KEY = "upsert.inserted";
+    public static final String UPDATED_KEY = "upsert.updated";
+    public static final String UNCHANGED_KEY = "upsert.unchanged";
+
+    /**
+     * Keeps a statement below the 65535 bind parameters PostgreSQL accepts
+     */
+    static final int MAX_ROWS_PER_STATEMENT = 10_000;
+
+    private static final String VALUES_ROW = "(CAST(? AS UUID), CAST(? AS VARCHAR(100)), CAST(? AS VARCHAR(100)), "
+            + "CAST(? AS VARCHAR(255)), CAST(? AS TIMESTAMP), CAST(? AS TIMESTAMP))";
+    private static final String SOURCE_COLUMNS = "(" + PersonJdbcBatchItemWriter.INSERT_COLUMNS + ")";
+    private static final String UPSERT_POSTGRESQL = "WITH input " + SOURCE_COLUMNS + " AS (VALUES %s), "
+            + "upserted AS (INSERT INTO persons " + SOURCE_COLUMNS + " SELECT * FROM input "
+            + "ON CONFLICT (email) DO UPDATE SET first_name = EXCLUDED.first_name, "
+            + "last_name = EXCLUDED.last_name, updated_at = EXCLUDED.updated_at "
+            + "WHERE (persons.first_name, persons.last_name) IS DISTINCT FROM (EXCLUDED.first_name, EXCLUDED.last_name) "
+            + "RETURNING id, email, (xmax = 0) AS inserted) "
+            + "SELECT id, email, CASE WHEN inserted THEN 'I' ELSE 'U' END FROM upserted "
+            + "UNION ALL SELECT p.id, p.email, 'N' FROM persons p JOIN input i ON p.email = i.email "
+            + "WHERE NOT EXISTS (SELECT 1 FROM upserted u WHERE u.email = p.email)";
+    private static final String MERGE = "MERGE INTO persons p USING (VALUES %s) s " + SOURCE_COLUMNS + " "
+            + "ON p.email = s.email "
+            + "WHEN MATCHED AND (p.first_name <> s.first_name OR p.last_name <> s.last_name) THEN "
+            + "UPDATE SET first_name = s.first_name, last_name = s.last_name, updated_at = s.updated_at "
+            + "WHEN NOT MATCHED THEN INSERT " + SOURCE_COLUMNS
+            + " VALUES (s.id, s.first_name, s.last_name, s.email, s.created_at, s.updated_at)";
+    private static final String SELECT_EXISTING = "SELECT id, email, first_name, last_name FROM persons WHERE email IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PersonStatisticsStore personStatisticsStore;
+    private final boolean postgreSql;
+
+    public PersonUpsertItemWriter(JdbcTemplate jdbcTemplate, PersonStatisticsStore personStatisticsStore,
+                                  boolean postgreSql) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.personStatisticsStore = personStatisticsStore;
+        this.postgreSql = postgreSql;
+    }
+
+    @Override
+    public void write(Chunk<? extends Person> chunk) throws Exception {
+        List<UUID> originalIds = new ArrayList<>(chunk.size());
+        for (Person person : chunk) {
+            originalIds.add(person.getId());
+        }
+
+        Outcome outcome = new Outcome();
+        try {
+            List<Person> rows = rowsToWrite(chunk, outcome);
+            for (int from = 0; from < rows.size(); from += MAX_ROWS_PER_STATEMENT) {
+                List<Person> statementRows = rows.subList(from, Math.min(rows.size(), from + MAX_ROWS_PER_STATEMENT));
+                if (postgreSql) {
+                    upsert(statementRows, outcome);
+                } else {
+                    merge(statementRows, outcome);
+                }
+            }
+            for (Person superseded : outcome.superseded) {
+                superseded.setId(outcome.idsByEmail.get(superseded.getEmail()));
+            }
+        } catch (RuntimeException e) {
+            // a retried chunk decides again which of its rows are new
+            int i = 0;
+            for (Person person : chunk) {
+                person.setId(originalIds.get(i++));
+            }
+            throw e;
+        }
+
+        log.debug("Upserted chunk - Inserted: {}, Updated: {}, Unchanged: {}",
+                outcome.inserted.size(), outcome.updated, outcome.unchanged);
+        StepContext context = StepSynchronizationManager.getContext();
+        personStatisticsStore.recordWritten(outcome.inserted,
+                context != null ? context.getStepExecution().getJobExecutionId() : null, chunk.size());
+        countAfterCommit(context, outcome);
+    }
+
+    /**
+     * The rows of the chunk in email order, prepared for insert, with earlier rows of a repeated
+     * email left out; rows without an email never conflict and are all kept
+     */
+    private static List<Person> rowsToWrite(Chunk<? extends Person> chunk, Outcome outcome) {
+        Map<String, Person> lastByEmail = new LinkedHashMap<>();
+        List<Person> rows = new ArrayList<>(chunk.size());
+        for (Person person : chunk) {
+            person.setId(null);
+            person.prepareForInsert();
+            if (person.getEmail() == null) {
+                rows.add(person);
+                continue;
+            }
+            Person previous = lastByEmail.put(person.getEmail(), person);
+            if (previous != null) {
+                outcome.superseded.add(previous);
+                outcome.unchanged++;
+            }
+        }
+        rows.addAll(lastByEmail.values());
+        rows.sort(Comparator.comparing(Person::getEmail, Comparator.nullsLast(Comparator.naturalOrder())));
+        return rows;
+    }
+
+    private void upsert(List<Person> rows, Outcome outcome) {
+        Set<UUID> insertedIds = new HashSet<>();
+        Map<String, UUID> existingIds = new HashMap<>();
+        Set<String> updatedEmails = new HashSet<>();
+        jdbcTemplate.query(UPSERT_POSTGRESQL.formatted(valuesRows(rows.size())), ps -> bindRows(ps, rows), rs -> {
+            UUID id = rs.getObject(1, UUID.class);
+            String result = rs.getString(3);
+            if ("I".equals(result)) {
+                insertedIds.add(id);
+                return;
+            }
+            existingIds.put(rs.getString(2), id);
+            if ("U".equals(result)) {
+                updatedEmails.add(rs.getString(2));
+            }
+        });
+
+        for (Person person : rows) {
+            if (insertedIds.contains(person.getId())) {
+                outcome.inserted(person);
+                continue;
+            }
+            // a row committed concurrently after the statement's snapshot is neither returned nor joined
+            person.setId(existingIds.get(person.getEmail()));
+            outcome.existing(person, updatedEmails.contains(person.getEmail()));
+        }
+    }
+
+    private void merge(List<Person> rows, Outcome outcome) {
+        Map<String, Person> existing = findExisting(rows);
+        List<Person> changed = new ArrayList<>(rows.size());
+        for (Person person : rows) {
+            Person stored = person.getEmail() != null ? existing.get(person.getEmail()) : null;
+            if (stored == null) {
+                changed.add(person);
+                outcome.inserted(person);
+                continue;
+            }
+            person.setId(stored.getId());
+            boolean differs = !Objects.equals(person.getFirstName(), stored.getFirstName())
+                    || !Objects.equals(person.getLastName(), stored.getLastName());
+            if (differs) {
+                changed.add(person);
+            }
+            outcome.existing(person, differs);
+        }
+
+        if (!changed.isEmpty()) {
+            jdbcTemplate.update(MERGE.formatted(valuesRows(changed.size())), ps -> bindRows(ps, changed));
+        }
+    }
+
+    private Map<String, Person> findExisting(List<Person> rows) {
+        List<String> emails = rows.stream().map(Person::getEmail).filter(Objects::nonNull).toList();
+        Map<String, Person> existing = new HashMap<>();
+        if (emails.isEmpty()) {
+            return existing;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(emails.size(), "?"));
+        jdbcTemplate.query(SELECT_EXISTING.formatted(placeholders), ps -> {
+            for (int i = 0; i < emails.size(); i++) {
+                ps.setString(i + 1, emails.get(i));
+            }
+        }, rs -> {
+            Person stored = new Person();
+            stored.setId(rs.getObject(1, UUID.class));
+            stored.setEmail(rs.getString(2));
+            stored.setFirstName(rs.getString(3));
+            stored.setLastName(rs.getString(4));
+            existing.put(stored.getEmail(), stored);
+        });
+        return existing;
+    }
+
+    private static void bindRows(PreparedStatement ps, List<Person> rows) throws SQLException {
+        int index = 1;
+        for (Person person : rows) {
+            ps.setObject(index++, person.getId());
+            ps.setString(index++, person.getFirstName());
+            ps.setString(index++, person.getLastName());
+            ps.setString(index++, person.getEmail());
+            ps.setObject(index++, person.getCreatedAt());
+            ps.setObject(index++, person.getUpdatedAt());
+        }
+    }
+
+    private static String valuesRows(int rows) {
+        StringJoiner values = new StringJoiner(", ");
+        for (int i = 0; i < rows; i++) {
+            values.add(VALUES_ROW);
+        }
+        return values.toString();
+    }
+
+    /**
+     * Counts of a rolled back chunk are discarded with it; the step execution context is saved
+     * with the next chunk or when the step ends
+     */
+    private static void countAfterCommit(StepContext context, Outcome outcome) {
+        if (context == null) {
+            return;
+        }
+        StepExecution stepExecution = context.getStepExecution();
+        Runnable count = () -> {
+            ExecutionContext executionContext = stepExecution.getExecutionContext();
+            add(executionContext, INSERTED_KEY, outcome.inserted.size());
+            add(executionContext, UPDATED_KEY, outcome.updated);
+            add(executionContext, UNCHANGED_KEY, outcome.unchanged);
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            count.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                count.run();
+            }
+        });
+    }
+
+    private static void add(ExecutionContext executionContext, String key, long delta) {
+        executionContext.putLong(key, executionContext.getLong(key, 0L) + delta);
+    }
+
+    private static final class Outcome {
+
+        private final List<Person> inserted = new ArrayList<>();
+        private final List<Person> superseded = new ArrayList<>();
+        private final Map<String, UUID> idsByEmail = new HashMap<>();
+        private long updated;
+        private long unchanged;
+
+        private void inserted(Person person) {
+            inserted.add(person);
+            remember(person);
+        }
+
+        private void existing(Person person, boolean updated) {
+            if (updated) {
+                this.updated++;
+            } else {
+                unchanged++;
+            }
+            remember(person);
+        }
+
+        private void remember(Person person) {
+            if (person.getEmail() != null) {
+                idsByEmail.put(person.getEmail(), person.getId());
+            }
+        }
+    }
+}
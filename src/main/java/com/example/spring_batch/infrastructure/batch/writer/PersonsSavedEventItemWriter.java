@@ -0,0 +1,30 @@
+package com.example.spring_batch.infrastructure.batch.writer;
+
+import com.example.spring_batch.domain.event.PersonsSavedEvent;
+import com.example.spring_batch.domain.model.Person;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+/**
+ * Publishes a {@link PersonsSavedEvent} for every chunk written by the delegate. The event is
+ * published in the chunk transaction, so transactional listeners never see rolled back rows.
+ */
+public class PersonsSavedEventItemWriter implements ItemWriter<Person> {
+
+    private final ItemWriter<Person> delegate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public PersonsSavedEventItemWriter(ItemWriter<Person> delegate, ApplicationEventPublisher eventPublisher) {
+        this.delegate = delegate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void write(Chunk<? extends Person> chunk) throws Exception {
+        delegate.write(chunk);
+        eventPublisher.publishEvent(new PersonsSavedEvent(List.copyOf(chunk.getItems())));
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.spring_batch.infrastructure.batch.writer;
+
+import com.example.spring_batch.domain.model.Person;
+import com.example.spring_batch.infrastructure.batch.config.ImportJobProperties;
+import com.example.spring_batch.infrastructure.batch.delta.RowHashes;
+import com.example.spring_batch.infrastructure.persistence.DeltaIndexStore;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the hashes of every written person in the delta import index, in the chunk transaction
+ * after the delegate wrote the chunk, so the index never runs ahead of the table. Rows are hashed
+ * as written, e.g. with the suffixed email of a duplicate, together with the id they were written
+ * under.
+ */
+public class RowHashItemWriter implements ItemWriter<Person> {
+
+    private final ItemWriter<Person> delegate;
+    private final DeltaIndexStore deltaIndexStore;
+    private final ImportJobProperties.DeltaKey key;
+
+    public RowHashItemWriter(ItemWriter<Person> delegate, DeltaIndexStore deltaIndexStore,
+                             ImportJobProperties.DeltaKey key) {
+        this.delegate = delegate;
+        this.deltaIndexStore = deltaIndexStore;
+        this.key = key;
+    }
+
+    @Override
+    public void write(Chunk<? extends Person> chunk) throws Exception {
+        delegate.write(chunk);
+
+        List<DeltaIndexStore.RowHash> rowHashes = new ArrayList<>(chunk.size());
+        for (Person person : chunk) {
+            rowHashes.add(new DeltaIndexStore.RowHash(RowHashes.key(person, key), RowHashes.content(person), person.getId()));
+        }
+        deltaIndexStore.saveRowHashes(rowHashes);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.spring_batch.infrastructure.batch.writer;
+
+import com.example.spring_batch.domain.model.Person;
+import com.example.spring_batch.infrastructure.persistence.PersonStatisticsStore;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Updates the persons statistics in the chunk transaction after the delegate wrote the chunk.
+ * Persons without an id before the write are the inserted ones; the others are updates of
+ * existing rows with the same email, which only count towards the job execution's written rows.
+ */
+public class StatisticsItemWriter implements ItemWriter<Person> {
+
+    private final ItemWriter<Person> delegate;
+    private final PersonStatisticsStore personStatisticsStore;
+
+    public StatisticsItemWriter(ItemWriter<Person> delegate, PersonStatisticsStore personStatisticsStore) {
+        this.delegate = delegate;
+        this.personStatisticsStore = personStatisticsStore;
+    }
+
+    @Override
+    public void write(Chunk<? extends Person> chunk) throws Exception {
+        List<Person> inserts = new ArrayList<>(chunk.size());
+        for (Person person : chunk) {
+            if (person.getId() == null) {
+                inserts.add(person);
+            }
+        }
+
+        delegate.write(chunk);
+
+        StepContext context = StepSynchronizationManager.getContext();
+        Long jobExecutionId = context != null ? context.getStepExecution().getJobExecutionId() : null;
+        personStatisticsStore.recordWritten(inserts, jobExecutionId, chunk.size());
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.spring_batch.infrastructure.persistence;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+/**
+ * Identifies the database behind the application data source, for code paths
+ * that use vendor specific SQL
+ */
+@Slf4j
+@Component
+public class DatabasePlatform {
+
+    private final String productName;
+
+    public DatabasePlatform(DataSource dataSource) {
+        String name;
+        try {
+            name = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        } catch (MetaDataAccessException e) {
+            log.warn("Could not determine database product, assuming a generic SQL database", e);
+            name = "unknown";
+        }
+        this.productName = name;
+        log.info("Detected database platform: {}", productName);
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public boolean isPostgreSql() {
+        return "PostgreSQL".equalsIgnoreCase(productName);
+    }
+
+    public boolean isH2() {
+        return "H2".equalsIgnoreCase(productName);
+    }
+}
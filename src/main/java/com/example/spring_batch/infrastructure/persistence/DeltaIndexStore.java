@@ -0,0 +1,168 @@
+package com.example.spring_batch.infrastructure.persistence;
+
+import com.example.spring_batch.domain.model.Person;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * State of delta imports: the {@code person_row_hashes} content hash and person id per natural key
+ * and the {@code imported_files} fingerprints of completely imported input files
+ */
+@Slf4j
+@Component
+public class DeltaIndexStore {
+
+    private static final int FETCH_SIZE = 10_000;
+    private static final int SEED_BATCH_SIZE = 1_000;
+    private static final String UPSERT_POSTGRESQL = "INSERT INTO person_row_hashes (key_hash, content_hash, person_id) VALUES (?, ?, ?) "
+            + "ON CONFLICT (key_hash) DO UPDATE SET content_hash = EXCLUDED.content_hash, person_id = EXCLUDED.person_id";
+    private static final String UPSERT_MERGE = "MERGE INTO person_row_hashes t "
+            + "USING (VALUES (CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS UUID))) s (key_hash, content_hash, person_id) "
+            + "ON t.key_hash = s.key_hash "
+            + "WHEN MATCHED THEN UPDATE SET content_hash = s.content_hash, person_id = s.person_id "
+            + "WHEN NOT MATCHED THEN INSERT (key_hash, content_hash, person_id) VALUES (s.key_hash, s.content_hash, s.person_id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String upsertSql;
+
+    public DeltaIndexStore(JdbcTemplate jdbcTemplate, DatabasePlatform databasePlatform) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.upsertSql = databasePlatform.isPostgreSql() ? UPSERT_POSTGRESQL : UPSERT_MERGE;
+    }
+
+    public long countRowHashes() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM person_row_hashes", Long.class);
+    }
+
+    /**
+     * Stream every stored row hash to the consumer
+     */
+    public void forEachRowHash(RowHashConsumer consumer) {
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement("SELECT key_hash, content_hash FROM person_row_hashes");
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, resultSet -> {
+            consumer.accept(resultSet.getLong(1), resultSet.getLong(2));
+        });
+    }
+
+    /**
+     * Id of the person last written under the key, if it was recorded
+     */
+    public Optional<UUID> findPersonId(long keyHash) {
+        return jdbcTemplate.queryForList("SELECT person_id FROM person_row_hashes WHERE key_hash = ?",
+                        UUID.class, keyHash).stream()
+                .filter(Objects::nonNull)
+                .findFirst();
+    }
+
+    /**
+     * Store the hashes of written rows in the caller's transaction; keys are updated in order to
+     * keep concurrent partitions from deadlocking on each other's rows
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void saveRowHashes(Collection<RowHash> rowHashes) {
+        if (rowHashes.isEmpty()) {
+            return;
+        }
+        // the last hash of a key wins, as it would row by row
+        SortedMap<Long, RowHash> byKey = new TreeMap<>();
+        for (RowHash rowHash : rowHashes) {
+            byKey.put(rowHash.keyHash(), rowHash);
+        }
+        jdbcTemplate.batchUpdate(upsertSql, arguments(byKey.values()));
+    }
+
+    /**
+     * Hash every person already in the table into the index, for a first delta import over
+     * persons imported without it
+     *
+     * @return the number of persons hashed
+     */
+    @Transactional
+    public long seedRowHashes(Function<Person, RowHash> hasher) {
+        List<RowHash> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        long[] seeded = {0};
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement("SELECT id, first_name, last_name, email FROM persons");
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, resultSet -> {
+            batch.add(hasher.apply(Person.builder()
+                    .id(resultSet.getObject(1, UUID.class))
+                    .firstName(resultSet.getString(2))
+                    .lastName(resultSet.getString(3))
+                    .email(resultSet.getString(4))
+                    .build()));
+            if (batch.size() == SEED_BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(upsertSql, arguments(batch));
+                seeded[0] += batch.size();
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(upsertSql, arguments(batch));
+            seeded[0] += batch.size();
+        }
+        return seeded[0];
+    }
+
+    private static List<Object[]> arguments(Collection<RowHash> rowHashes) {
+        List<Object[]> arguments = new ArrayList<>(rowHashes.size());
+        for (RowHash rowHash : rowHashes) {
+            arguments.add(new Object[]{rowHash.keyHash(), rowHash.contentHash(), rowHash.personId()});
+        }
+        return arguments;
+    }
+
+    /**
+     * The given fingerprints that belong to files imported before
+     */
+    public Set<String> findImported(Collection<String> fingerprints) {
+        Set<String> imported = new HashSet<>();
+        for (String fingerprint : fingerprints) {
+            imported.addAll(jdbcTemplate.queryForList(
+                    "SELECT fingerprint FROM imported_files WHERE fingerprint = ?", String.class, fingerprint));
+        }
+        return imported;
+    }
+
+    public void recordImported(String fingerprint, String fileName, long sizeBytes, long jobExecutionId) {
+        int updated = jdbcTemplate.update("UPDATE imported_files SET job_execution_id = ?, imported_at = ? "
+                        + "WHERE fingerprint = ?", jobExecutionId, Timestamp.valueOf(LocalDateTime.now()), fingerprint);
+        if (updated == 0) {
+            jdbcTemplate.update("INSERT INTO imported_files (fingerprint, file_name, size_bytes, job_execution_id, imported_at) "
+                            + "VALUES (?, ?, ?, ?, ?)",
+                    fingerprint, fileName, sizeBytes, jobExecutionId, Timestamp.valueOf(LocalDateTime.now()));
+        }
+    }
+
+    /**
+     * Natural key hash and content hash of a written row, and the id of the person it was written as
+     */
+    public record RowHash(long keyHash, long contentHash, UUID personId) {
+    }
+
+    @FunctionalInterface
+    public interface RowHashConsumer {
+        void accept(long keyHash, long contentHash);
+    }
+}
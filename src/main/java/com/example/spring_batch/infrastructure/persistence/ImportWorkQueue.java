@@ -0,0 +1,172 @@
+package com.example.spring_batch.infrastructure.persistence;
+
+import com.example.spring_batch.domain.model.ImportWorkUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Queue of {@link ImportWorkUnit}s in the {@code import_work_units} table, shared by all
+ * application nodes through the database.
+ * <p>
+ * A node claims a unit by taking a lease on it, which it extends with heartbeats while the unit
+ * runs. A unit whose lease expired belongs to a node that died or lost its connection and can be
+ * claimed again, up to a maximum number of attempts. Updates by the owner check that it still holds
+ * the lease, so a node that lost its unit cannot overwrite the new owner's result.
+ * <p>
+ * On PostgreSQL a claim is one statement that locks the first available unit with
+ * {@code FOR UPDATE SKIP LOCKED}, so concurrent claims never wait on each other. Other databases
+ * read a few candidates and take the first one a conditional update succeeds on.
+ */
+@Slf4j
+@Component
+public class ImportWorkQueue {
+
+    private static final int CANDIDATES = 16;
+    private static final String AVAILABLE = "(status = 'PENDING' OR (status = 'CLAIMED' AND lease_expires_at < ? AND attempts < ?))";
+    private static final String CLAIM_SET = "SET status = 'CLAIMED', owner = ?, lease_expires_at = ?, heartbeat_at = ?, "
+            + "attempts = attempts + 1, updated_at = ? ";
+    private static final String CLAIM_POSTGRESQL = "UPDATE import_work_units " + CLAIM_SET
+            + "WHERE id = (SELECT id FROM import_work_units WHERE " + AVAILABLE
+            + " ORDER BY id LIMIT 1 FOR UPDATE SKIP LOCKED) "
+            + "RETURNING id, job_execution_id, step_execution_id, attempts";
+    private static final RowMapper<Claim> CLAIM_MAPPER = (rs, rowNum) -> new Claim(
+            rs.getLong("id"), rs.getLong("job_execution_id"), rs.getLong("step_execution_id"), rs.getInt("attempts"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+
+    public ImportWorkQueue(JdbcTemplate jdbcTemplate, DatabasePlatform databasePlatform) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databasePlatform = databasePlatform;
+    }
+
+    /**
+     * Queue one pending unit per worker step execution of a partitioned step
+     */
+    public void enqueue(StepExecution managerStepExecution, Collection<StepExecution> stepExecutions) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> arguments = new ArrayList<>(stepExecutions.size());
+        for (StepExecution stepExecution : stepExecutions) {
+            arguments.add(new Object[]{managerStepExecution.getJobExecutionId(), managerStepExecution.getId(),
+                    stepExecution.getId(), stepExecution.getStepName(), now, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO import_work_units (job_execution_id, manager_step_execution_id, "
+                + "step_execution_id, partition_name, status, attempts, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, 'PENDING', 0, ?, ?)", arguments);
+        log.info("Queued {} work units for step execution {}", stepExecutions.size(), managerStepExecution.getId());
+    }
+
+    /**
+     * Take the lease on the oldest pending unit, or on one whose lease expired with attempts left
+     */
+    public Optional<Claim> claim(String owner, Duration lease, int maxAttempts) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp nowTimestamp = Timestamp.valueOf(now);
+        Timestamp leaseExpiresAt = Timestamp.valueOf(now.plus(lease));
+
+        if (databasePlatform.isPostgreSql()) {
+            return jdbcTemplate.query(CLAIM_POSTGRESQL, CLAIM_MAPPER,
+                    owner, leaseExpiresAt, nowTimestamp, nowTimestamp, nowTimestamp, maxAttempts).stream().findFirst();
+        }
+
+        List<Long> candidates = jdbcTemplate.queryForList("SELECT id FROM import_work_units WHERE " + AVAILABLE
+                + " ORDER BY id LIMIT " + CANDIDATES, Long.class, nowTimestamp, maxAttempts);
+        for (Long id : candidates) {
+            int claimed = jdbcTemplate.update("UPDATE import_work_units " + CLAIM_SET + "WHERE id = ? AND " + AVAILABLE,
+                    owner, leaseExpiresAt, nowTimestamp, nowTimestamp, id, nowTimestamp, maxAttempts);
+            if (claimed == 1) {
+                return Optional.of(jdbcTemplate.queryForObject("SELECT id, job_execution_id, step_execution_id, attempts "
+                        + "FROM import_work_units WHERE id = ?", CLAIM_MAPPER, id));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Extend the lease of a claimed unit
+     *
+     * @return {@code false} if the owner no longer holds the lease
+     */
+    public boolean heartbeat(long id, String owner, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        return jdbcTemplate.update("UPDATE import_work_units SET lease_expires_at = ?, heartbeat_at = ?, updated_at = ? "
+                        + "WHERE id = ? AND owner = ? AND status = 'CLAIMED'",
+                Timestamp.valueOf(now.plus(lease)), Timestamp.valueOf(now), Timestamp.valueOf(now), id, owner) == 1;
+    }
+
+    /**
+     * Record the outcome of a claimed unit
+     *
+     * @return {@code false} if the owner no longer holds the lease
+     */
+    public boolean finish(long id, String owner, ImportWorkUnit.Status status, String error) {
+        return jdbcTemplate.update("UPDATE import_work_units SET status = ?, error = ?, lease_expires_at = NULL, "
+                        + "updated_at = ? WHERE id = ? AND owner = ? AND status = 'CLAIMED'",
+                status.name(), truncate(error), Timestamp.valueOf(LocalDateTime.now()), id, owner) == 1;
+    }
+
+    /**
+     * Hand a claimed unit back without counting the attempt, e.g. when its node shuts down
+     */
+    public boolean release(long id, String owner) {
+        return jdbcTemplate.update("UPDATE import_work_units SET status = 'PENDING', owner = NULL, "
+                        + "lease_expires_at = NULL, attempts = attempts - 1, updated_at = ? "
+                        + "WHERE id = ? AND owner = ? AND status = 'CLAIMED'",
+                Timestamp.valueOf(LocalDateTime.now()), id, owner) == 1;
+    }
+
+    /**
+     * Fail units whose lease expired after their last attempt
+     */
+    public int expireLeases(int maxAttempts) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int expired = jdbcTemplate.update("UPDATE import_work_units SET status = 'FAILED', error = ?, updated_at = ? "
+                        + "WHERE status = 'CLAIMED' AND lease_expires_at < ? AND attempts >= ?",
+                "Lease expired after " + maxAttempts + " attempts", now, now, maxAttempts);
+        if (expired > 0) {
+            log.warn("Failed {} work units whose lease expired after {} attempts", expired, maxAttempts);
+        }
+        return expired;
+    }
+
+    /**
+     * Status and error of the units of a partitioned step, by worker step execution id
+     */
+    public Map<Long, UnitState> states(long managerStepExecutionId) {
+        Map<Long, UnitState> states = new HashMap<>();
+        jdbcTemplate.query("SELECT step_execution_id, status, error FROM import_work_units "
+                        + "WHERE manager_step_execution_id = ?",
+                resultSet -> {
+                    states.put(resultSet.getLong("step_execution_id"), new UnitState(
+                            ImportWorkUnit.Status.valueOf(resultSet.getString("status")), resultSet.getString("error")));
+                }, managerStepExecutionId);
+        return states;
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > 2500 ? error.substring(0, 2500) : error;
+    }
+
+    public record Claim(long id, long jobExecutionId, long stepExecutionId, int attempts) {
+    }
+
+    public record UnitState(ImportWorkUnit.Status status, String error) {
+
+        public boolean isFinished() {
+            return status == ImportWorkUnit.Status.COMPLETED || status == ImportWorkUnit.Status.FAILED;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.spring_batch.infrastructure.persistence;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Deletes old executions from the Spring Batch metadata tables, together with their step
+ * executions, contexts, parameters and work units, and job instances left without executions.
+ * <p>
+ * Executions are purged oldest first in batches, one transaction per batch, so that a large
+ * backlog never holds locks for long. Executions that have not ended are never touched.
+ */
+@Slf4j
+@Component
+public class JobMetadataStore {
+
+    private static final String EXPIRED = "SELECT JOB_EXECUTION_ID FROM BATCH_JOB_EXECUTION "
+            + "WHERE JOB_EXECUTION_ID < ? AND END_TIME IS NOT NULL AND END_TIME < ? "
+            + "ORDER BY JOB_EXECUTION_ID LIMIT ?";
+    private static final String NEWEST_KEPT = "SELECT JOB_EXECUTION_ID FROM BATCH_JOB_EXECUTION "
+            + "ORDER BY JOB_EXECUTION_ID DESC LIMIT 1 OFFSET ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public JobMetadataStore(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Delete the executions that ended before the cutoff, except the {@code keepLast} most recent ones
+     */
+    public PurgeResult purge(LocalDateTime endedBefore, int keepLast, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        long firstKept = firstKeptExecutionId(keepLast);
+        Timestamp cutoff = Timestamp.valueOf(endedBefore);
+
+        PurgeResult total = PurgeResult.NONE;
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList(EXPIRED, Long.class, firstKept, cutoff, batchSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            total = total.plus(transactionTemplate.execute(status -> delete(ids)));
+            if (ids.size() < batchSize) {
+                break;
+            }
+        }
+        if (total.jobExecutions() > 0) {
+            log.info("Purged {} job executions, {} step executions and {} job instances that ended before {}",
+                    total.jobExecutions(), total.stepExecutions(), total.jobInstances(), endedBefore);
+        }
+        return total;
+    }
+
+    private long firstKeptExecutionId(int keepLast) {
+        if (keepLast < 1) {
+            return Long.MAX_VALUE;
+        }
+        List<Long> newest = jdbcTemplate.queryForList(NEWEST_KEPT, Long.class, keepLast - 1);
+        // fewer executions than are kept: none of them is purged
+        return newest.isEmpty() ? Long.MIN_VALUE : newest.get(0);
+    }
+
+    private PurgeResult delete(List<Long> jobExecutionIds) {
+        String in = "(" + String.join(", ", Collections.nCopies(jobExecutionIds.size(), "?")) + ")";
+        Object[] ids = jobExecutionIds.toArray();
+
+        List<Long> jobInstanceIds = jdbcTemplate.queryForList(
+                "SELECT DISTINCT JOB_INSTANCE_ID FROM BATCH_JOB_EXECUTION WHERE JOB_EXECUTION_ID IN " + in, Long.class, ids);
+        jdbcTemplate.update("DELETE FROM import_work_units WHERE job_execution_id IN " + in, ids);
+        jdbcTemplate.update("DELETE FROM BATCH_STEP_EXECUTION_CONTEXT WHERE STEP_EXECUTION_ID IN "
+                + "(SELECT STEP_EXECUTION_ID FROM BATCH_STEP_EXECUTION WHERE JOB_EXECUTION_ID IN " + in + ")", ids);
+        int stepExecutions = jdbcTemplate.update("DELETE FROM BATCH_STEP_EXECUTION WHERE JOB_EXECUTION_ID IN " + in, ids);
+        jdbcTemplate.update("DELETE FROM BATCH_JOB_EXECUTION_CONTEXT WHERE JOB_EXECUTION_ID IN " + in, ids);
+        jdbcTemplate.update("DELETE FROM BATCH_JOB_EXECUTION_PARAMS WHERE JOB_EXECUTION_ID IN " + in, ids);
+        int jobExecutions = jdbcTemplate.update("DELETE FROM BATCH_JOB_EXECUTION WHERE JOB_EXECUTION_ID IN " + in, ids);
+
+        int jobInstances = 0;
+        if (!jobInstanceIds.isEmpty()) {
+            jobInstances = jdbcTemplate.update("DELETE FROM BATCH_JOB_INSTANCE WHERE JOB_INSTANCE_ID IN ("
+                    + String.join(", ", Collections.nCopies(jobInstanceIds.size(), "?")) + ") "
+                    + "AND NOT EXISTS (SELECT 1 FROM BATCH_JOB_EXECUTION e "
+                    + "WHERE e.JOB_INSTANCE_ID = BATCH_JOB_INSTANCE.JOB_INSTANCE_ID)", jobInstanceIds.toArray());
+        }
+        return new PurgeResult(jobExecutions, stepExecutions, jobInstances);
+    }
+
+    public record PurgeResult(long jobExecutions, long stepExecutions, long jobInstances) {
+
+        static final PurgeResult NONE = new PurgeResult(0, 0, 0);
+
+        PurgeResult plus(PurgeResult other) {
+            return new PurgeResult(jobExecutions + other.jobExecutions,
+                    stepExecutions + other.stepExecutions, jobInstances + other.jobInstances);
+        }
+    }
+}
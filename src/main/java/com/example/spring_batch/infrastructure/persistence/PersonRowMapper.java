@@ -0,0 +1,31 @@
+package com.example.spring_batch.infrastructure.persistence;
+
+import com.example.spring_batch.domain.model.Person;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * Maps a {@code persons} row selected with {@link #COLUMNS} to a detached {@link Person}
+ */
+public class PersonRowMapper implements RowMapper<Person> {
+
+    public static final String COLUMNS = "id, first_name, last_name, email, created_at, updated_at";
+
+    @Override
+    public Person mapRow(ResultSet resultSet, int rowNum) throws SQLException {
+        Person person = new Person();
+        person.setId(resultSet.getObject("id", UUID.class));
+        person.setFirstName(resultSet.getString("first_name"));
+        person.setLastName(resultSet.getString("last_name"));
+        person.setEmail(resultSet.getString("email"));
+        Timestamp createdAt = resultSet.getTimestamp("created_at");
+        person.setCreatedAt(createdAt != null ? createdAt.toLocalDateTime() : null);
+        Timestamp updatedAt = resultSet.getTimestamp("updated_at");
+        person.setUpdatedAt(updatedAt != null ? updatedAt.toLocalDateTime() : null);
+        return person;
+    }
+}
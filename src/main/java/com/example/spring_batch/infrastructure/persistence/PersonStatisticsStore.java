@@ -0,0 +1,173 @@
+package com.example.spring_batch.infrastructure.persistence;
+
+import com.example.spring_batch.domain.model.Person;
+import com.example.spring_batch.domain.model.PersonStatistic;
+import com.example.spring_batch.domain.repository.PersonStatisticRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Maintains the {@code person_statistics} counters: total persons, persons per email domain and
+ * rows written per import job execution.
+ * <p>
+ * Increments are applied with a single upsert per counter in the caller's transaction, so they
+ * commit or roll back together with the rows they count. Counters are updated in name order to
+ * keep concurrent partitions from deadlocking on each other's rows.
+ */
+@Slf4j
+@Component
+public class PersonStatisticsStore {
+
+    private static final int FETCH_SIZE = 10_000;
+    private static final String UPSERT_POSTGRESQL = "INSERT INTO person_statistics (stat_name, stat_value) VALUES (?, ?) "
+            + "ON CONFLICT (stat_name) DO UPDATE SET stat_value = person_statistics.stat_value + EXCLUDED.stat_value";
+    private static final String UPSERT_MERGE = "MERGE INTO person_statistics t "
+            + "USING (VALUES (CAST(? AS VARCHAR(255)), CAST(? AS BIGINT))) s (stat_name, stat_value) "
+            + "ON t.stat_name = s.stat_name "
+            + "WHEN MATCHED THEN UPDATE SET stat_value = t.stat_value + s.stat_value "
+            + "WHEN NOT MATCHED THEN INSERT (stat_name, stat_value) VALUES (s.stat_name, s.stat_value)";
+    private static final String JOB_EXECUTION_WRITES = "SELECT JOB_EXECUTION_ID, SUM(WRITE_COUNT) FROM BATCH_STEP_EXECUTION "
+            + "WHERE STEP_NAME NOT LIKE '%:%' GROUP BY JOB_EXECUTION_ID";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+    private final PersonStatisticRepository personStatisticRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String upsertSql;
+
+    public PersonStatisticsStore(JdbcTemplate jdbcTemplate,
+                                 DatabasePlatform databasePlatform,
+                                 PersonStatisticRepository personStatisticRepository,
+                                 TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databasePlatform = databasePlatform;
+        this.personStatisticRepository = personStatisticRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.upsertSql = databasePlatform.isPostgreSql() ? UPSERT_POSTGRESQL : UPSERT_MERGE;
+    }
+
+    /**
+     * Count newly inserted persons and, when written by an import, all rows the job execution wrote
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordWritten(Collection<? extends Person> inserted, Long jobExecutionId, long written) {
+        SortedMap<String, Long> deltas = new TreeMap<>();
+        if (!inserted.isEmpty()) {
+            deltas.put(PersonStatistic.TOTAL, (long) inserted.size());
+            for (Person person : inserted) {
+                String domain = domainOf(person.getEmail());
+                if (domain != null) {
+                    deltas.merge(PersonStatistic.domain(domain), 1L, Long::sum);
+                }
+            }
+        }
+        if (jobExecutionId != null && written > 0) {
+            deltas.put(PersonStatistic.jobExecution(jobExecutionId), written);
+        }
+        apply(deltas);
+    }
+
+    /**
+     * Move an updated person between email domain counters when its domain changed
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordEmailChange(String previousEmail, String email) {
+        String previousDomain = domainOf(previousEmail);
+        String domain = domainOf(email);
+        if (Objects.equals(previousDomain, domain)) {
+            return;
+        }
+        SortedMap<String, Long> deltas = new TreeMap<>();
+        if (previousDomain != null) {
+            deltas.put(PersonStatistic.domain(previousDomain), -1L);
+        }
+        if (domain != null) {
+            deltas.put(PersonStatistic.domain(domain), 1L);
+        }
+        apply(deltas);
+    }
+
+    private void apply(SortedMap<String, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Object[]> arguments = new ArrayList<>(deltas.size());
+        deltas.forEach((name, delta) -> arguments.add(new Object[]{name, delta}));
+        jdbcTemplate.batchUpdate(upsertSql, arguments);
+    }
+
+    /**
+     * Recompute all counters: one streaming pass over {@code persons} for the totals and domains,
+     * the step executions for the rows written per job execution. On PostgreSQL the table is locked
+     * first, so writers committing during the rebuild are either included in the scan or apply their
+     * increments after it.
+     */
+    @Transactional
+    public long rebuild() {
+        long start = System.currentTimeMillis();
+        if (databasePlatform.isPostgreSql()) {
+            jdbcTemplate.execute("LOCK TABLE person_statistics IN EXCLUSIVE MODE");
+        }
+
+        Map<String, Long> counters = new HashMap<>();
+        long[] total = {0};
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement("SELECT email FROM persons");
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, resultSet -> {
+            total[0]++;
+            String domain = domainOf(resultSet.getString(1));
+            if (domain != null) {
+                counters.merge(PersonStatistic.domain(domain), 1L, Long::sum);
+            }
+        });
+        counters.put(PersonStatistic.TOTAL, total[0]);
+        jdbcTemplate.query(JOB_EXECUTION_WRITES, resultSet -> {
+            counters.put(PersonStatistic.jobExecution(resultSet.getLong(1)), resultSet.getLong(2));
+        });
+
+        jdbcTemplate.update("DELETE FROM person_statistics");
+        List<Object[]> arguments = new ArrayList<>(counters.size());
+        counters.forEach((name, value) -> arguments.add(new Object[]{name, value}));
+        jdbcTemplate.batchUpdate("INSERT INTO person_statistics (stat_name, stat_value) VALUES (?, ?)", arguments);
+
+        log.info("Rebuilt {} person statistics from {} persons in {} ms",
+                counters.size(), total[0], System.currentTimeMillis() - start);
+        return total[0];
+    }
+
+    /**
+     * Build the counters on the first start, when the table is still empty
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (!personStatisticRepository.existsById(PersonStatistic.TOTAL)) {
+            log.info("No person statistics found, building them");
+            transactionTemplate.executeWithoutResult(status -> rebuild());
+        }
+    }
+
+    static String domainOf(String email) {
+        if (email == null) {
+            return null;
+        }
+        int at = email.lastIndexOf('@');
+        return at >= 0 && at < email.length() - 1 ? email.substring(at + 1) : null;
+    }
+}
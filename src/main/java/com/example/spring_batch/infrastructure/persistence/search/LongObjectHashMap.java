@@ -0,0 +1,159 @@
+package com.example.spring_batch.infrastructure.persistence.search;
+
+/**
+ * Open-addressing hash map from primitive {@code long} keys to object values with linear probing.
+ * Keys and values live in two parallel arrays, so no key is boxed and no entry object allocated.
+ * Removal shifts the following entries of the probe sequence back instead of leaving tombstones.
+ * Not thread-safe.
+ */
+public class LongObjectHashMap<V> {
+
+    private static final long EMPTY = 0L;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+    private boolean containsEmptyKey;
+    private V emptyKeyValue;
+    private int resizeThreshold;
+
+    public LongObjectHashMap(int expectedSize) {
+        long wanted = Math.max(16, (long) (expectedSize / LOAD_FACTOR));
+        if (wanted > 1 << 30) {
+            throw new IllegalArgumentException("Too many entries for a LongObjectHashMap: " + expectedSize);
+        }
+        int capacity = Integer.highestOneBit((int) wanted - 1) << 1;
+        keys = new long[capacity];
+        values = new Object[capacity];
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * @return the value mapped to the key, or {@code null} if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        if (key == EMPTY) {
+            return containsEmptyKey ? emptyKeyValue : null;
+        }
+        int mask = keys.length - 1;
+        int index = mix(key) & mask;
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                return (V) values[index];
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    public void put(long key, V value) {
+        if (key == EMPTY) {
+            if (!containsEmptyKey) {
+                containsEmptyKey = true;
+                size++;
+            }
+            emptyKeyValue = value;
+            return;
+        }
+
+        int mask = keys.length - 1;
+        int index = mix(key) & mask;
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                values[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = value;
+        if (++size > resizeThreshold) {
+            resize();
+        }
+    }
+
+    /**
+     * @return the value that was mapped to the key, or {@code null} if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        if (key == EMPTY) {
+            if (!containsEmptyKey) {
+                return null;
+            }
+            V value = emptyKeyValue;
+            containsEmptyKey = false;
+            emptyKeyValue = null;
+            size--;
+            return value;
+        }
+
+        int mask = keys.length - 1;
+        int index = mix(key) & mask;
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                V value = (V) values[index];
+                closeGap(index);
+                size--;
+                return value;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Moves every following entry of the probe sequence whose home slot does not lie between the
+     * gap and the entry into the gap, so lookups never stop early at the freed slot
+     */
+    private void closeGap(int gap) {
+        int mask = keys.length - 1;
+        int index = gap;
+        while (true) {
+            index = (index + 1) & mask;
+            long key = keys[index];
+            if (key == EMPTY) {
+                break;
+            }
+            int home = mix(key) & mask;
+            if (((index - home) & mask) >= ((index - gap) & mask)) {
+                keys[gap] = key;
+                values[gap] = values[index];
+                gap = index;
+            }
+        }
+        keys[gap] = EMPTY;
+        values[gap] = null;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[oldKeys.length << 1];
+        values = new Object[oldValues.length << 1];
+        resizeThreshold = (int) (keys.length * LOAD_FACTOR);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != EMPTY) {
+                int index = mix(key) & mask;
+                while (keys[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private static int mix(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
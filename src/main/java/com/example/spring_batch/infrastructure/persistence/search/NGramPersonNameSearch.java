@@ -0,0 +1,348 @@
+package com.example.spring_batch.infrastructure.persistence.search;
+
+import com.example.spring_batch.domain.event.PersonsSavedEvent;
+import com.example.spring_batch.domain.model.Person;
+import com.example.spring_batch.domain.repository.PersonNameSearch;
+import com.example.spring_batch.domain.repository.PersonRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-process name search for databases without trigram indexes (H2).
+ * <p>
+ * Every indexed person gets a document number; an inverted index maps each trigram of the
+ * lowercased first and last name, packed into a {@code long}, to the ascending document numbers
+ * containing it. A search intersects the posting lists of the query's trigrams and confirms each
+ * candidate with a substring check; queries shorter than three characters check every document.
+ * Only the requested page is kept in order while matching, then those persons are loaded by id.
+ * <p>
+ * The index is loaded from {@code persons} once the application is ready and then kept current
+ * from the {@link PersonsSavedEvent}s of the batch writer and {@code PersonService}, after their
+ * transactions commit. An updated person keeps its document number: postings of trigrams its
+ * names no longer contain are removed and new ones inserted, so the index stays the size of the
+ * table however often persons are saved again. Until the index is loaded, searches go to the
+ * database, in the same order.
+ */
+@Slf4j
+public class NGramPersonNameSearch implements PersonNameSearch {
+
+    private static final int N = 3;
+    private static final int FETCH_SIZE = 10_000;
+    // the database's order: UUIDs compare as unsigned bytes, not as UUID.compareTo does
+    private static final Comparator<Document> ORDER = Comparator
+            .comparing((Document document) -> document.lastName)
+            .thenComparing(document -> document.firstName)
+            .thenComparing(document -> document.id.getMostSignificantBits(), Long::compareUnsigned)
+            .thenComparing(document -> document.id.getLeastSignificantBits(), Long::compareUnsigned);
+    private static final Sort DATABASE_ORDER = Sort.by("lastName", "firstName", "id");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PersonRepository personRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Document> documents = new ArrayList<>();
+    private final Map<UUID, Integer> documentsById = new HashMap<>();
+    private final LongObjectHashMap<PostingList> postings = new LongObjectHashMap<>(1 << 12);
+    private volatile boolean loaded;
+
+    public NGramPersonNameSearch(JdbcTemplate jdbcTemplate, PersonRepository personRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.personRepository = personRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            jdbcTemplate.query(connection -> {
+                var statement = connection.prepareStatement("SELECT id, first_name, last_name FROM persons");
+                statement.setFetchSize(FETCH_SIZE);
+                return statement;
+            }, resultSet -> {
+                index(resultSet.getObject(1, UUID.class), resultSet.getString(2), resultSet.getString(3));
+            });
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Name search index loaded with {} persons and {} trigrams in {} ms",
+                documentsById.size(), postings.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonsSaved(PersonsSavedEvent event) {
+        refresh(event.persons());
+    }
+
+    void refresh(Collection<Person> persons) {
+        lock.writeLock().lock();
+        try {
+            for (Person person : persons) {
+                if (person.getId() != null) {
+                    index(person.getId(), person.getFirstName(), person.getLastName());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Page<Person> search(String name, Pageable pageable) {
+        if (!loaded) {
+            return personRepository.searchByName(name,
+                    PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), DATABASE_ORDER));
+        }
+
+        String query = name.toLowerCase(Locale.ROOT);
+        int limit = (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + pageable.getPageSize());
+        // max-heap of the best `limit` matches, so the worst one is evicted first
+        PriorityQueue<Document> best = new PriorityQueue<>(Math.min(limit, 1024) + 1, ORDER.reversed());
+        long total = 0;
+
+        lock.readLock().lock();
+        try {
+            int[] candidates = candidates(query);
+            int count = candidates != null ? candidates.length : documents.size();
+            for (int i = 0; i < count; i++) {
+                Document document = documents.get(candidates != null ? candidates[i] : i);
+                if (!document.matches(query)) {
+                    continue;
+                }
+                total++;
+                if (best.size() < limit) {
+                    best.add(document);
+                } else if (limit > 0 && ORDER.compare(document, best.peek()) < 0) {
+                    best.poll();
+                    best.add(document);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Document[] ordered = best.toArray(new Document[0]);
+        Arrays.sort(ordered, ORDER);
+        List<UUID> ids = Arrays.stream(ordered)
+                .skip(pageable.getOffset())
+                .map(document -> document.id)
+                .toList();
+        Map<UUID, Person> persons = personRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Person::getId, Function.identity()));
+        List<Person> page = ids.stream()
+                .map(persons::get)
+                .filter(person -> person != null)
+                .toList();
+        return new PageImpl<>(page, pageable, total);
+    }
+
+    /**
+     * Document numbers that contain every trigram of the query, or {@code null} if the query is
+     * too short to use the index
+     */
+    private int[] candidates(String query) {
+        if (query.length() < N) {
+            return null;
+        }
+        List<PostingList> lists = new ArrayList<>();
+        for (int i = 0; i + N <= query.length(); i++) {
+            PostingList list = postings.get(gram(query, i));
+            if (list == null) {
+                return new int[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+
+        PostingList smallest = lists.get(0);
+        int[] result = new int[smallest.size];
+        int count = 0;
+        for (int i = 0; i < smallest.size; i++) {
+            int document = smallest.documents[i];
+            boolean inAll = true;
+            for (int j = 1; j < lists.size() && inAll; j++) {
+                inAll = lists.get(j).contains(document);
+            }
+            if (inAll) {
+                result[count++] = document;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    int documentCount() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int gramCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void index(UUID id, String firstName, String lastName) {
+        Document document = new Document(id, firstName, lastName);
+        Integer existing = documentsById.get(id);
+        if (existing == null) {
+            int number = documents.size();
+            documents.add(document);
+            documentsById.put(id, number);
+            for (long gram : document.grams()) {
+                posting(gram).add(number);
+            }
+            return;
+        }
+
+        int number = existing;
+        Document previous = documents.set(number, document);
+        if (previous.lowerFirstName.equals(document.lowerFirstName)
+                && previous.lowerLastName.equals(document.lowerLastName)) {
+            return;
+        }
+        long[] grams = document.grams();
+        for (long gram : previous.grams()) {
+            if (Arrays.binarySearch(grams, gram) < 0) {
+                PostingList list = postings.get(gram);
+                list.remove(number);
+                if (list.size == 0) {
+                    postings.remove(gram);
+                }
+            }
+        }
+        for (long gram : grams) {
+            posting(gram).add(number);
+        }
+    }
+
+    private PostingList posting(long gram) {
+        PostingList list = postings.get(gram);
+        if (list == null) {
+            list = new PostingList();
+            postings.put(gram, list);
+        }
+        return list;
+    }
+
+    private static long gram(String value, int from) {
+        return ((long) value.charAt(from) << 32) | ((long) value.charAt(from + 1) << 16) | value.charAt(from + 2);
+    }
+
+    private static final class Document {
+
+        private final UUID id;
+        private final String firstName;
+        private final String lastName;
+        private final String lowerFirstName;
+        private final String lowerLastName;
+
+        private Document(UUID id, String firstName, String lastName) {
+            this.id = id;
+            this.firstName = firstName != null ? firstName : "";
+            this.lastName = lastName != null ? lastName : "";
+            this.lowerFirstName = this.firstName.toLowerCase(Locale.ROOT);
+            this.lowerLastName = this.lastName.toLowerCase(Locale.ROOT);
+        }
+
+        private boolean matches(String query) {
+            return lowerFirstName.contains(query) || lowerLastName.contains(query);
+        }
+
+        /**
+         * Distinct trigrams of both names in ascending order
+         */
+        private long[] grams() {
+            long[] grams = new long[gramCount(lowerFirstName) + gramCount(lowerLastName)];
+            int count = addGrams(lowerFirstName, grams, 0);
+            count = addGrams(lowerLastName, grams, count);
+            Arrays.sort(grams, 0, count);
+            int distinct = 0;
+            for (int i = 0; i < count; i++) {
+                if (distinct == 0 || grams[distinct - 1] != grams[i]) {
+                    grams[distinct++] = grams[i];
+                }
+            }
+            return Arrays.copyOf(grams, distinct);
+        }
+
+        private static int gramCount(String value) {
+            return Math.max(0, value.length() - N + 1);
+        }
+
+        private static int addGrams(String value, long[] grams, int from) {
+            for (int i = 0; i + N <= value.length(); i++) {
+                grams[from++] = gram(value, i);
+            }
+            return from;
+        }
+    }
+
+    /**
+     * Ascending document numbers without duplicates. New documents are appended; only updated
+     * documents, which keep their number, are inserted in place or removed.
+     */
+    private static final class PostingList {
+
+        private int[] documents = new int[4];
+        private int size;
+
+        private void add(int document) {
+            int position = size == 0 || documents[size - 1] < document
+                    ? -(size + 1)
+                    : Arrays.binarySearch(documents, 0, size, document);
+            if (position >= 0) {
+                return;
+            }
+            int insertion = -(position + 1);
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+            }
+            System.arraycopy(documents, insertion, documents, insertion + 1, size - insertion);
+            documents[insertion] = document;
+            size++;
+        }
+
+        private void remove(int document) {
+            int position = Arrays.binarySearch(documents, 0, size, document);
+            if (position >= 0) {
+                System.arraycopy(documents, position + 1, documents, position, size - position - 1);
+                size--;
+            }
+        }
+
+        private boolean contains(int document) {
+            return Arrays.binarySearch(documents, 0, size, document) >= 0;
+        }
+    }
+}
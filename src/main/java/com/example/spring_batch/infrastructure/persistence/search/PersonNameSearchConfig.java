@@ -0,0 +1,31 @@
+package com.example.spring_batch.infrastructure.persistence.search;
+
+import com.example.spring_batch.domain.repository.PersonNameSearch;
+import com.example.spring_batch.domain.repository.PersonRepository;
+import com.example.spring_batch.infrastructure.persistence.DatabasePlatform;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Slf4j
+@Configuration
+public class PersonNameSearchConfig {
+
+    /**
+     * Trigram indexes on PostgreSQL, an in-process n-gram index elsewhere
+     */
+    @Bean
+    public PersonNameSearch personNameSearch(DatabasePlatform databasePlatform,
+                                             JdbcTemplate jdbcTemplate,
+                                             PersonRepository personRepository,
+                                             @Value("${persons.search.exact-count:false}") boolean exactCount) {
+        if (databasePlatform.isPostgreSql()) {
+            log.info("Configuring trigram indexed name search, exact match counts {}", exactCount ? "on" : "off");
+            return new TrigramPersonNameSearch(jdbcTemplate, exactCount);
+        }
+        log.info("Configuring in-process n-gram name search on {}", databasePlatform.getProductName());
+        return new NGramPersonNameSearch(jdbcTemplate, personRepository);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.spring_batch.infrastructure.persistence.search;
+
+import com.example.spring_batch.domain.model.Person;
+import com.example.spring_batch.domain.repository.PersonNameSearch;
+import com.example.spring_batch.infrastructure.persistence.PersonRowMapper;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * PostgreSQL name search. {@code pg_trgm} GIN indexes on {@code lower(first_name)} and
+ * {@code lower(last_name)}, created by {@code schema-postgresql-search.sql}, let the planner answer
+ * {@code LIKE '%x%'} with bitmap index scans. Patterns shorter than three characters have no
+ * trigram to look up and still scan.
+ * <p>
+ * Counting every match costs as much as the search itself, so unless {@code exactCount} is set a
+ * page fetches one row more than it shows and its total only tells whether another page follows.
+ */
+public class TrigramPersonNameSearch implements PersonNameSearch {
+
+    private static final String MATCHES = "lower(first_name) LIKE lower(?) ESCAPE '\\' OR lower(last_name) LIKE lower(?) ESCAPE '\\'";
+    private static final String SEARCH_SQL = "SELECT " + PersonRowMapper.COLUMNS + " FROM persons WHERE " + MATCHES
+            + " ORDER BY last_name, first_name, id LIMIT ? OFFSET ?";
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM persons WHERE " + MATCHES;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean exactCount;
+    private final PersonRowMapper rowMapper = new PersonRowMapper();
+
+    public TrigramPersonNameSearch(JdbcTemplate jdbcTemplate, boolean exactCount) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.exactCount = exactCount;
+    }
+
+    @Override
+    public Page<Person> search(String name, Pageable pageable) {
+        String pattern = "%" + escapeLike(name) + "%";
+        if (exactCount) {
+            List<Person> persons = jdbcTemplate.query(SEARCH_SQL, rowMapper,
+                    pattern, pattern, pageable.getPageSize(), pageable.getOffset());
+            return PageableExecutionUtils.getPage(persons, pageable,
+                    () -> jdbcTemplate.queryForObject(COUNT_SQL, Long.class, pattern, pattern));
+        }
+
+        List<Person> persons = jdbcTemplate.query(SEARCH_SQL, rowMapper,
+                pattern, pattern, pageable.getPageSize() + 1, pageable.getOffset());
+        boolean more = persons.size() > pageable.getPageSize();
+        List<Person> page = more ? persons.subList(0, pageable.getPageSize()) : persons;
+        return new PageImpl<>(page, pageable, pageable.getOffset() + page.size() + (more ? 1 : 0));
+    }
+
+    static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == '_' || c == '\\') {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
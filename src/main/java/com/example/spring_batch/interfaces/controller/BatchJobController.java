@@ -1,11 +1,17 @@
 package com.example.spring_batch.interfaces.controller;
 
 import com.example.spring_batch.application.service.BatchJobService;
+import com.example.spring_batch.application.service.JobProgressService;
+import com.example.spring_batch.infrastructure.persistence.JobMetadataStore;
 import com.example.spring_batch.interfaces.dto.ApiResponse;
+import com.example.spring_batch.shared.exception.LaunchQueueFullException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @Slf4j
 @RestController
@@ -39,17 +45,75 @@ public class BatchJobController {
      * Start the import persons job
      */
     @PostMapping("/import-persons")
-    public ResponseEntity<ApiResponse<BatchJobService.JobExecutionResult>> startImportPersonsJob() {
+    public ResponseEntity<ApiResponse<BatchJobService.JobExecutionResult>> startImportPersonsJob(
+            @RequestParam(defaultValue = "false") boolean async,
+            @RequestParam(required = false) String input) {
         log.info("Starting import persons job");
         
         try {
-            BatchJobService.JobExecutionResult result = batchJobService.startImportPersonsJob();
+            BatchJobService.JobExecutionResult result = batchJobService.startImportPersonsJob(async, input);
+            if (async) {
+                String message = result.getJobExecutionId() == null ? "Job queued" : "Job launched";
+                return ResponseEntity.accepted().body(ApiResponse.success(message, result));
+            }
             return ResponseEntity.ok(ApiResponse.success("Job started successfully", result));
-            
+
+        } catch (LaunchQueueFullException e) {
+            log.warn("Rejected job launch: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body(ApiResponse.error(e.getMessage()));
+
         } catch (Exception e) {
             log.error("Failed to start job", e);
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error("Failed to start job: " + e.getMessage()));
         }
     }
+
+    /**
+     * Get a launch by its admission id: queue position while queued, then its job execution
+     */
+    @GetMapping("/admissions/{id}")
+    public ResponseEntity<ApiResponse<BatchJobService.JobExecutionResult>> getAdmission(@PathVariable String id) {
+        log.info("Getting job launch with admission id: {}", id);
+
+        return batchJobService.getAdmission(id)
+                .map(result -> ResponseEntity.ok(ApiResponse.success("Job launch found", result)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Get status and counts of a job execution
+     */
+    @GetMapping("/executions/{id}")
+    public ResponseEntity<ApiResponse<JobProgressService.JobProgress>> getJobExecution(@PathVariable Long id) {
+        log.info("Getting job execution with id: {}", id);
+
+        return batchJobService.getJobExecution(id)
+                .map(progress -> ResponseEntity.ok(ApiResponse.success("Job execution found", progress)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Delete job executions past the retention period from the Spring Batch tables
+     */
+    @PostMapping("/metadata/purge")
+    public ResponseEntity<ApiResponse<JobMetadataStore.PurgeResult>> purgeJobMetadata() {
+        log.info("Purging job metadata");
+
+        JobMetadataStore.PurgeResult result = batchJobService.purgeJobMetadata();
+        return ResponseEntity.ok(ApiResponse.success("Job metadata purged", result));
+    }
+
+    /**
+     * Stream progress of a job execution as server-sent events
+     */
+    @GetMapping(value = "/executions/{id}/progress", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamJobProgress(@PathVariable Long id) {
+        log.info("Streaming progress of job execution with id: {}", id);
+
+        return batchJobService.streamJobProgress(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
 } 
\ No newline at end of file
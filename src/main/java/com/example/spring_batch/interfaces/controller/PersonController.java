@@ -1,7 +1,9 @@
 package com.example.spring_batch.interfaces.controller;
 
+import com.example.spring_batch.application.service.PersonExportService;
 import com.example.spring_batch.application.service.PersonService;
 import com.example.spring_batch.interfaces.dto.ApiResponse;
+import com.example.spring_batch.interfaces.dto.CursorPage;
 import com.example.spring_batch.interfaces.dto.PersonDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -9,11 +11,19 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 @Slf4j
 @RestController
@@ -21,7 +31,10 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class PersonController {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 1000;
+
     private final PersonService personService;
+    private final PersonExportService personExportService;
 
     /**
      * Get all persons with pagination
@@ -45,6 +58,67 @@ public class PersonController {
         return ResponseEntity.ok(ApiResponse.success("Persons retrieved successfully", persons));
     }
 
+    /**
+     * Get persons by cursor, ordered by creation time and id, without counting unless asked
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<ApiResponse<CursorPage<PersonDto>>> getPersonsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        log.info("Getting persons by cursor - cursor: {}, size: {}, sortDir: {}", cursor, size, sortDir);
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+
+        CursorPage<PersonDto> persons = personService.findPersonsByCursor(
+                cursor, size, sortDir.equalsIgnoreCase("desc"), includeTotal);
+
+        return ResponseEntity.ok(ApiResponse.success("Persons retrieved successfully", persons));
+    }
+
+    /**
+     * Export persons as NDJSON or CSV, streamed row by row, optionally gzip compressed
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPersons(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+
+        log.info("Exporting persons - format: {}, from: {}, to: {}, gzip: {}", format, from, to, gzip);
+
+        PersonExportService.ExportFormat exportFormat = PersonExportService.ExportFormat.valueOf(format.toUpperCase());
+        String extension = exportFormat == PersonExportService.ExportFormat.CSV ? "csv" : "ndjson";
+        MediaType mediaType = exportFormat == PersonExportService.ExportFormat.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+
+        StreamingResponseBody body = output -> {
+            if (gzip) {
+                try (GZIPOutputStream compressed = new GZIPOutputStream(output, 64 * 1024)) {
+                    personExportService.export(exportFormat, from, to, compressed);
+                }
+            } else {
+                personExportService.export(exportFormat, from, to, output);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("persons." + extension)
+                        .build()
+                        .toString());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
     /**
      * Get person by ID
      */
@@ -99,4 +173,16 @@ public class PersonController {
         
         return ResponseEntity.ok(ApiResponse.success("Statistics retrieved", statistics));
     }
+
+    /**
+     * Rebuild person statistics from the persons table
+     */
+    @PostMapping("/statistics/rebuild")
+    public ResponseEntity<ApiResponse<PersonService.PersonStatistics>> rebuildStatistics() {
+        log.info("Rebuilding person statistics");
+
+        PersonService.PersonStatistics statistics = personService.rebuildStatistics();
+
+        return ResponseEntity.ok(ApiResponse.success("Statistics rebuilt", statistics));
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.example.spring_batch.interfaces.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset listing. {@code nextCursor} continues after the last element and is
+ * {@code null} on the last page; {@code totalElements} is only filled in when requested.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+    private Long totalElements;
+}
@@ -1,18 +1,17 @@
 package com.example.spring_batch.interfaces.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
-import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.Value;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
-@Data
+/**
+ * Immutable view of a person, safe to share from the lookup cache
+ */
+@Value
 @Builder
-@NoArgsConstructor
-@AllArgsConstructor
 public class PersonDto {
 
     private UUID id;
@@ -0,0 +1,8 @@
+package com.example.spring_batch.shared.exception;
+
+public class LaunchQueueFullException extends BatchJobException {
+
+    public LaunchQueueFullException(String message) {
+        super(message);
+    }
+}
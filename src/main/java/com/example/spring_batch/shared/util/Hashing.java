@@ -0,0 +1,28 @@
+package com.example.spring_batch.shared.util;
+
+/**
+ * String hashing shared by the import's duplicate detection and delta index. The values are
+ * persisted in {@code person_row_hashes}, so the function must not change.
+ */
+public final class Hashing {
+
+    private Hashing() {
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-16 code units, finished with the MurmurHash3 mixer
+     */
+    public static long hash64(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe1a85ec3L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,6 @@
+-- PostgreSQL only: trigram indexes behind the name search's LIKE '%x%' lookups
+-- Kept apart from schema-postgresql.sql, which H2 runs as well in the dev profile and the tests
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_persons_first_name_trgm ON persons USING gin (lower(first_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_persons_last_name_trgm ON persons USING gin (lower(last_name) gin_trgm_ops);
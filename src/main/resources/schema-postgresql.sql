@@ -1,4 +1,5 @@
 -- Spring Batch Metadata Tables for PostgreSQL
+-- The dev profile runs this script on H2 as well, so it only uses DDL both databases accept
 
 -- BATCH_JOB_INSTANCE
 CREATE TABLE IF NOT EXISTS BATCH_JOB_INSTANCE  (
@@ -79,8 +80,74 @@ CREATE TABLE IF NOT EXISTS BATCH_STEP_EXECUTION_CONTEXT  (
     references BATCH_STEP_EXECUTION(STEP_EXECUTION_ID)
 );
 
+-- Indexes for JobRepository lookups and the metadata purge
+CREATE INDEX IF NOT EXISTS BATCH_JOB_INST_NAME_IDX ON BATCH_JOB_INSTANCE (JOB_NAME, JOB_INSTANCE_ID);
+CREATE INDEX IF NOT EXISTS BATCH_JOB_EXEC_INST_IDX ON BATCH_JOB_EXECUTION (JOB_INSTANCE_ID, JOB_EXECUTION_ID);
+CREATE INDEX IF NOT EXISTS BATCH_JOB_EXEC_RUNNING_IDX ON BATCH_JOB_EXECUTION (JOB_INSTANCE_ID, END_TIME);
+CREATE INDEX IF NOT EXISTS BATCH_JOB_EXEC_END_IDX ON BATCH_JOB_EXECUTION (END_TIME);
+CREATE INDEX IF NOT EXISTS BATCH_JOB_EXEC_PARAMS_EXEC_IDX ON BATCH_JOB_EXECUTION_PARAMS (JOB_EXECUTION_ID);
+CREATE INDEX IF NOT EXISTS BATCH_STEP_EXEC_JOB_EXEC_IDX ON BATCH_STEP_EXECUTION (JOB_EXECUTION_ID, STEP_EXECUTION_ID);
+CREATE INDEX IF NOT EXISTS BATCH_STEP_EXEC_NAME_IDX ON BATCH_STEP_EXECUTION (STEP_NAME, JOB_EXECUTION_ID);
+
 -- Spring Batch Sequences
 CREATE SEQUENCE IF NOT EXISTS BATCH_STEP_EXECUTION_SEQ;
 CREATE SEQUENCE IF NOT EXISTS BATCH_JOB_EXECUTION_SEQ;
 CREATE SEQUENCE IF NOT EXISTS BATCH_JOB_INSTANCE_SEQ;
-CREATE SEQUENCE IF NOT EXISTS BATCH_JOB_SEQ; 
\ No newline at end of file
+CREATE SEQUENCE IF NOT EXISTS BATCH_JOB_SEQ;
+
+-- Application tables, also created by Hibernate outside of production where ddl-auto is update
+
+-- Persons, with the indexes behind name ordering and keyset pagination over (created_at, id)
+CREATE TABLE IF NOT EXISTS persons (
+    id UUID NOT NULL PRIMARY KEY,
+    first_name VARCHAR(100) NOT NULL,
+    last_name VARCHAR(100) NOT NULL,
+    email VARCHAR(255) UNIQUE,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS idx_persons_name_order ON persons (last_name, first_name, id);
+CREATE INDEX IF NOT EXISTS idx_persons_created_at_id ON persons (created_at, id);
+-- the trigram indexes of the name search are PostgreSQL only, see schema-postgresql-search.sql
+
+-- Persons statistics counters, maintained by the writers
+CREATE TABLE IF NOT EXISTS person_statistics (
+    stat_name VARCHAR(255) NOT NULL PRIMARY KEY,
+    stat_value BIGINT NOT NULL
+);
+
+-- Distributed partition work units, claimed by worker nodes under a lease
+CREATE TABLE IF NOT EXISTS import_work_units (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    job_execution_id BIGINT NOT NULL,
+    manager_step_execution_id BIGINT NOT NULL,
+    step_execution_id BIGINT NOT NULL UNIQUE,
+    partition_name VARCHAR(255) NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    owner VARCHAR(255),
+    attempts INTEGER NOT NULL,
+    lease_expires_at TIMESTAMP,
+    heartbeat_at TIMESTAMP,
+    error VARCHAR(2500),
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_import_work_units_status_id ON import_work_units (status, id);
+CREATE INDEX IF NOT EXISTS idx_import_work_units_manager ON import_work_units (manager_step_execution_id);
+CREATE INDEX IF NOT EXISTS idx_import_work_units_job_execution ON import_work_units (job_execution_id);
+
+-- Delta import state: content hash and person per natural key and fingerprints of imported files
+CREATE TABLE IF NOT EXISTS person_row_hashes (
+    key_hash BIGINT NOT NULL PRIMARY KEY,
+    content_hash BIGINT NOT NULL,
+    person_id UUID
+);
+-- added after the table was first shipped; rows written before have no person
+ALTER TABLE person_row_hashes ADD COLUMN IF NOT EXISTS person_id UUID;
+CREATE TABLE IF NOT EXISTS imported_files (
+    fingerprint VARCHAR(64) NOT NULL PRIMARY KEY,
+    file_name VARCHAR(1024) NOT NULL,
+    size_bytes BIGINT NOT NULL,
+    job_execution_id BIGINT NOT NULL,
+    imported_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,141 @@
+package com.example.spring_batch.application.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+class JobProgressServiceTests {
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private JobExplorer jobExplorer;
+
+    private JobProgressService jobProgressService;
+
+    @BeforeEach
+    void createService() {
+        jobProgressService = new JobProgressService(jobExplorer);
+    }
+
+    @Test
+    void snapshotUsesPartitionCountsWhileTheyExist() {
+        JobExecution jobExecution = new JobExecution(1L);
+        counts(jobExecution.createStepExecution("importPersonsStep"), 0, 0);
+        counts(jobExecution.createStepExecution("importPersonsWorkerStep:partition0"), 10, 8);
+        counts(jobExecution.createStepExecution("importPersonsWorkerStep:partition1"), 5, 4);
+
+        JobProgressService.JobProgress progress = jobProgressService.snapshot(jobExecution);
+
+        assertThat(progress.getStatus()).isEqualTo("STARTING");
+        assertThat(progress.getReadCount()).isEqualTo(15);
+        assertThat(progress.getWriteCount()).isEqualTo(12);
+        assertThat(progress.getFilterCount()).isEqualTo(3);
+        assertThat(progress.getRowsPerSecond()).isZero();
+    }
+
+    @Test
+    void snapshotUsesStepCountsWithoutPartitions() {
+        JobExecution jobExecution = new JobExecution(1L);
+        jobExecution.setStatus(BatchStatus.COMPLETED);
+        jobExecution.setExitStatus(ExitStatus.COMPLETED);
+        counts(jobExecution.createStepExecution("importPersonsStep"), 20, 18);
+
+        JobProgressService.JobProgress progress = jobProgressService.snapshot(jobExecution);
+
+        assertThat(progress.getStatus()).isEqualTo("COMPLETED");
+        assertThat(progress.getExitCode()).isEqualTo("COMPLETED");
+        assertThat(progress.getReadCount()).isEqualTo(20);
+        assertThat(progress.getWriteCount()).isEqualTo(18);
+    }
+
+    @Test
+    void closesTheStreamOfAnEndedJobRightAway() throws Exception {
+        JobExecution jobExecution = running();
+        end(jobExecution);
+
+        assertThat(isClosed(jobProgressService.subscribe(jobExecution))).isTrue();
+    }
+
+    @Test
+    void keepsTheStreamOpenUntilTheJobCompletes() throws Exception {
+        JobExecution jobExecution = running();
+        SseEmitter emitter = jobProgressService.subscribe(jobExecution);
+
+        jobProgressService.publish(jobExecution);
+        assertThat(isClosed(emitter)).isFalse();
+
+        jobProgressService.complete(jobExecution);
+        assertThat(isClosed(emitter)).isTrue();
+    }
+
+    @Test
+    void closesTheStreamWhenTheJobCompletedBeforeTheSubscription() throws Exception {
+        JobExecution jobExecution = running();
+        // the listener broadcasts before the end of the job is stored, so the caller still read it running
+        jobProgressService.complete(jobExecution);
+
+        assertThat(isClosed(jobProgressService.subscribe(jobExecution))).isTrue();
+    }
+
+    @Test
+    void closesTheStreamWhenTheJobEndedWithoutABroadcastHere() throws Exception {
+        JobExecution jobExecution = running();
+        JobExecution stale = jobExplorer.getJobExecution(jobExecution.getId());
+        end(jobExecution);
+
+        assertThat(stale.isRunning()).isTrue();
+        assertThat(isClosed(jobProgressService.subscribe(stale))).isTrue();
+    }
+
+    private JobExecution running() throws Exception {
+        JobParameters parameters = new JobParametersBuilder()
+                .addString("run", UUID.randomUUID().toString())
+                .toJobParameters();
+        return jobRepository.createJobExecution("progressTestJob", parameters);
+    }
+
+    private void end(JobExecution jobExecution) {
+        jobExecution.setStatus(BatchStatus.COMPLETED);
+        jobExecution.setExitStatus(ExitStatus.COMPLETED);
+        jobExecution.setEndTime(LocalDateTime.now());
+        jobRepository.update(jobExecution);
+    }
+
+    private static void counts(StepExecution stepExecution, long read, long written) {
+        stepExecution.setReadCount(read);
+        stepExecution.setWriteCount(written);
+        stepExecution.setFilterCount(read - written);
+    }
+
+    /**
+     * A completed emitter refuses further events, an open one buffers them until the response starts
+     */
+    private static boolean isClosed(SseEmitter emitter) throws Exception {
+        try {
+            emitter.send(SseEmitter.event().comment("probe"));
+            return false;
+        } catch (IllegalStateException e) {
+            return true;
+        }
+    }
+}
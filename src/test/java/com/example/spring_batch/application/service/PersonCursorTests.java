@@ -0,0 +1,47 @@
+package com.example.spring_batch.application.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PersonCursorTests {
+
+    @Test
+    void decodesWhatItEncodes() {
+        PersonCursor cursor = new PersonCursor(LocalDateTime.of(2024, 2, 29, 23, 59, 59, 123_456_000),
+                UUID.fromString("0190f6a2-7c1e-7d3a-9b2c-1a2b3c4d5e6f"));
+
+        String token = cursor.encode();
+
+        assertThat(token).doesNotContain("=", "+", "/");
+        assertThat(PersonCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    void keepsTheCreationTimeAtFullPrecision() {
+        PersonCursor cursor = new PersonCursor(LocalDateTime.of(2024, 1, 1, 0, 0), new UUID(0, 1));
+
+        assertThat(PersonCursor.decode(cursor.encode()).createdAt()).isEqualTo(cursor.createdAt());
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertThatThrownBy(() -> PersonCursor.decode("not base64!")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PersonCursor.decode(token("2024-01-01T00:00")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PersonCursor.decode(token("yesterday|" + new UUID(0, 1))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PersonCursor.decode(token("2024-01-01T00:00|not-a-uuid")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String token(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.spring_batch.application.service;
+
+import com.example.spring_batch.interfaces.controller.PersonController;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PersonExportServiceTests {
+
+    private static final UUID FIRST = UUID.fromString("00000000-0000-7000-8000-000000000001");
+    private static final UUID SECOND = UUID.fromString("00000000-0000-7000-8000-000000000002");
+    private static final UUID THIRD = UUID.fromString("00000000-0000-7000-8000-000000000003");
+
+    private static final LocalDateTime DAY_ONE = LocalDateTime.of(2024, 1, 1, 8, 0);
+    private static final LocalDateTime DAY_TWO = LocalDateTime.of(2024, 1, 2, 8, 0);
+    private static final LocalDateTime DAY_THREE = LocalDateTime.of(2024, 1, 3, 8, 0);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private JdbcTemplate jdbcTemplate;
+    private PersonExportService personExportService;
+    private PersonController personController;
+
+    @BeforeEach
+    void insertPersons() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:export;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE persons ("
+                + "id UUID PRIMARY KEY, "
+                + "first_name VARCHAR(100) NOT NULL, "
+                + "last_name VARCHAR(100) NOT NULL, "
+                + "email VARCHAR(255) UNIQUE, "
+                + "created_at TIMESTAMP NOT NULL, "
+                + "updated_at TIMESTAMP)");
+        personExportService = new PersonExportService(jdbcTemplate, new DataSourceTransactionManager(dataSource), objectMapper);
+        // only the export endpoint is called
+        personController = new PersonController(null, personExportService);
+        // inserted out of creation order
+        insert(THIRD, "Zoe", "Plain", "zoe@example.com", DAY_THREE, DAY_THREE.plusHours(1));
+        insert(FIRST, "Ann", "O'Hara, \"Jr\"", "ann@example.com", DAY_ONE, null);
+        insert(SECOND, "Multi\nLine", "Smith", "multi@example.com", DAY_TWO, null);
+    }
+
+    @AfterEach
+    void dropTables() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void quotesCsvFieldsOnlyWhenNeeded() {
+        String csv = export(PersonExportService.ExportFormat.CSV, null, null);
+
+        assertThat(csv).isEqualTo("""
+                id,firstName,lastName,email,createdAt,updatedAt
+                %s,Ann,"O'Hara, ""Jr""",ann@example.com,2024-01-01 08:00:00,
+                %s,"Multi
+                Line",Smith,multi@example.com,2024-01-02 08:00:00,
+                %s,Zoe,Plain,zoe@example.com,2024-01-03 08:00:00,2024-01-03 09:00:00
+                """.formatted(FIRST, SECOND, THIRD));
+    }
+
+    @Test
+    void writesMissingNdjsonValuesAsNulls() throws Exception {
+        List<JsonNode> rows = ndjson(export(PersonExportService.ExportFormat.NDJSON, null, null));
+
+        assertThat(rows).hasSize(3);
+        assertThat(rows.get(0).get("id").asText()).isEqualTo(FIRST.toString());
+        assertThat(rows.get(0).get("lastName").asText()).isEqualTo("O'Hara, \"Jr\"");
+        assertThat(rows.get(0).get("createdAt").asText()).isEqualTo("2024-01-01 08:00:00");
+        assertThat(rows.get(0).has("updatedAt")).isTrue();
+        assertThat(rows.get(0).get("updatedAt").isNull()).isTrue();
+        assertThat(rows.get(1).get("firstName").asText()).isEqualTo("Multi\nLine");
+        assertThat(rows.get(2).get("updatedAt").asText()).isEqualTo("2024-01-03 09:00:00");
+    }
+
+    @Test
+    void exportsFromInclusiveToExclusive() throws Exception {
+        assertThat(ids(export(PersonExportService.ExportFormat.NDJSON, DAY_TWO, null))).containsExactly(SECOND, THIRD);
+        assertThat(ids(export(PersonExportService.ExportFormat.NDJSON, null, DAY_TWO))).containsExactly(FIRST);
+        assertThat(ids(export(PersonExportService.ExportFormat.NDJSON, DAY_ONE, DAY_THREE))).containsExactly(FIRST, SECOND);
+        assertThat(ids(export(PersonExportService.ExportFormat.NDJSON, DAY_THREE.plusDays(1), null))).isEmpty();
+        assertThat(export(PersonExportService.ExportFormat.CSV, DAY_TWO, DAY_TWO))
+                .isEqualTo("id,firstName,lastName,email,createdAt,updatedAt\n");
+    }
+
+    @Test
+    void gzipsTheExportWhenAsked() throws Exception {
+        ResponseEntity<StreamingResponseBody> response = personController.exportPersons("csv", DAY_TWO, null, true);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        response.getBody().writeTo(output);
+
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+            assertThat(new String(input.readAllBytes(), StandardCharsets.UTF_8))
+                    .isEqualTo(export(PersonExportService.ExportFormat.CSV, DAY_TWO, null));
+        }
+    }
+
+    private String export(PersonExportService.ExportFormat format, LocalDateTime from, LocalDateTime to) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        personExportService.export(format, from, to, output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    private List<JsonNode> ndjson(String export) throws Exception {
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : export.split("\n")) {
+            if (!line.isEmpty()) {
+                rows.add(objectMapper.readTree(line));
+            }
+        }
+        return rows;
+    }
+
+    private List<UUID> ids(String export) throws Exception {
+        return ndjson(export).stream().map(row -> UUID.fromString(row.get("id").asText())).toList();
+    }
+
+    private void insert(UUID id, String firstName, String lastName, String email,
+                        LocalDateTime createdAt, LocalDateTime updatedAt) {
+        jdbcTemplate.update("INSERT INTO persons (id, first_name, last_name, email, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)",
+                id, firstName, lastName, email, createdAt, updatedAt);
+    }
+}
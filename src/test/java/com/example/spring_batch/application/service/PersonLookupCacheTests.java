@@ -0,0 +1,148 @@
+package com.example.spring_batch.application.service;
+
+import com.example.spring_batch.domain.event.PersonsSavedEvent;
+import com.example.spring_batch.domain.model.Person;
+import com.example.spring_batch.interfaces.dto.PersonDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PersonLookupCacheTests {
+
+    private static final UUID ID = UUID.fromString("00000000-0000-7000-8000-000000000001");
+
+    private final AtomicInteger loads = new AtomicInteger();
+    // stands in for the persons table
+    private final Map<UUID, PersonDto> stored = new HashMap<>();
+    private PersonLookupCache cache;
+
+    @BeforeEach
+    void createCache() {
+        cache = new PersonLookupCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(10));
+        stored.put(ID, person("ann@example.com"));
+    }
+
+    @Test
+    void servesRepeatedLookupsFromTheCache() {
+        assertThat(getById()).map(PersonDto::getEmail).contains("ann@example.com");
+        assertThat(getById()).isPresent();
+        assertThat(getByEmail("ann@example.com")).map(PersonDto::getId).contains(ID);
+        assertThat(loads).hasValue(2);
+        assertThat(getByEmail("ann@example.com")).isPresent();
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void doesNotCacheMissingPersons() {
+        stored.clear();
+
+        assertThat(getById()).isEmpty();
+        stored.put(ID, person("ann@example.com"));
+
+        assertThat(getById()).isPresent();
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void reloadsSavedPersons() {
+        getById();
+        getByEmail("ann@example.com");
+        stored.put(ID, person("ann@example.com", "Cooper"));
+
+        cache.onPersonsSaved(saved("ann@example.com"));
+
+        assertThat(getById()).map(PersonDto::getLastName).contains("Cooper");
+        assertThat(getByEmail("ann@example.com")).map(PersonDto::getLastName).contains("Cooper");
+    }
+
+    @Test
+    void forgetsTheOldEmailOfAPersonWhoseEmailChanged() {
+        getByEmail("ann@example.com");
+        stored.put(ID, person("ann.cooper@example.com"));
+
+        // the event only carries the new email
+        cache.onPersonsSaved(saved("ann.cooper@example.com"));
+
+        assertThat(getByEmail("ann@example.com")).isEmpty();
+        assertThat(getByEmail("ann.cooper@example.com")).map(PersonDto::getId).contains(ID);
+    }
+
+    @Test
+    void doesNotTrustTheOldEmailOnceThePersonIsCachedWithItsNewOne() {
+        getByEmail("ann@example.com");
+        stored.put(ID, person("ann.cooper@example.com"));
+        cache.onPersonsSaved(saved("ann.cooper@example.com"));
+        getById();
+
+        assertThat(getByEmail("ann@example.com")).isEmpty();
+    }
+
+    @Test
+    void doesNotCacheAnEmailLookupThatRacedWithASave() {
+        Optional<PersonDto> raced = cache.getByEmail("ann@example.com", email -> {
+            loads.incrementAndGet();
+            Optional<PersonDto> read = load(email);
+            // saved after the lookup read the old row, before it could be cached
+            stored.put(ID, person("ann@example.com", "Cooper"));
+            cache.onPersonsSaved(saved("ann@example.com"));
+            return read;
+        });
+
+        assertThat(raced).map(PersonDto::getLastName).contains("Marsh");
+        assertThat(getByEmail("ann@example.com")).map(PersonDto::getLastName).contains("Cooper");
+        assertThat(getById()).map(PersonDto::getLastName).contains("Cooper");
+        assertThat(loads).hasValue(2);
+    }
+
+    private Optional<PersonDto> getById() {
+        return cache.getById(ID, id -> {
+            loads.incrementAndGet();
+            return Optional.ofNullable(stored.get(id));
+        });
+    }
+
+    private Optional<PersonDto> getByEmail(String email) {
+        return cache.getByEmail(email, key -> {
+            loads.incrementAndGet();
+            return load(key);
+        });
+    }
+
+    private Optional<PersonDto> load(String email) {
+        return stored.values().stream().filter(person -> person.getEmail().equals(email)).findFirst();
+    }
+
+    private PersonsSavedEvent saved(String email) {
+        PersonDto current = stored.get(ID);
+        return new PersonsSavedEvent(List.of(Person.builder()
+                .id(ID)
+                .firstName(current.getFirstName())
+                .lastName(current.getLastName())
+                .email(email)
+                .build()));
+    }
+
+    private static PersonDto person(String email) {
+        return person(email, "Marsh");
+    }
+
+    private static PersonDto person(String email, String lastName) {
+        return PersonDto.builder()
+                .id(ID)
+                .firstName("Ann")
+                .lastName(lastName)
+                .email(email)
+                .fullName("Ann " + lastName)
+                .build();
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.spring_batch.application.service;
+
+import com.example.spring_batch.domain.model.Person;
+import com.example.spring_batch.interfaces.dto.CursorPage;
+import com.example.spring_batch.interfaces.dto.PersonDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+class PersonServiceCursorTests {
+
+    private static final LocalDateTime EARLY = LocalDateTime.of(2024, 1, 1, 8, 0);
+    private static final LocalDateTime SAME = LocalDateTime.of(2024, 1, 1, 9, 0);
+    private static final LocalDateTime LATE = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    @Autowired
+    private PersonService personService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void insertPersons() {
+        jdbcTemplate.update("DELETE FROM persons");
+        // three persons share a creation time, inserted out of id order
+        insert(5, LATE);
+        insert(3, SAME);
+        insert(1, SAME);
+        insert(2, SAME);
+        insert(4, EARLY);
+    }
+
+    @AfterEach
+    void deletePersons() {
+        jdbcTemplate.update("DELETE FROM persons");
+    }
+
+    @Test
+    void pagesOldestFirstBreakingTiesById() {
+        assertThat(allPages(false)).containsExactly(List.of(id(4), id(1)), List.of(id(2), id(3)), List.of(id(5)));
+    }
+
+    @Test
+    void pagesNewestFirstBreakingTiesById() {
+        assertThat(allPages(true)).containsExactly(List.of(id(5), id(3)), List.of(id(2), id(1)), List.of(id(4)));
+    }
+
+    @Test
+    void endsWithoutACursorWhenTheLastPageIsFull() {
+        CursorPage<PersonDto> first = personService.findPersonsByCursor(null, 4, false, true);
+        CursorPage<PersonDto> last = personService.findPersonsByCursor(first.getNextCursor(), 1, false, false);
+
+        assertThat(first.isHasNext()).isTrue();
+        assertThat(first.getTotalElements()).isNotNull();
+        assertThat(last.getContent()).extracting(PersonDto::getId).containsExactly(id(5));
+        assertThat(last.isHasNext()).isFalse();
+        assertThat(last.getNextCursor()).isNull();
+        assertThat(last.getTotalElements()).isNull();
+    }
+
+    @Test
+    void returnsAnEmptyLastPageAfterTheLastPerson() {
+        CursorPage<PersonDto> all = personService.findPersonsByCursor(null, 5, false, false);
+        assertThat(all.isHasNext()).isFalse();
+
+        String afterLast = PersonCursor.after(Person.builder()
+                .createdAt(LATE).id(id(5)).build()).encode();
+        CursorPage<PersonDto> empty = personService.findPersonsByCursor(afterLast, 5, false, false);
+
+        assertThat(empty.getContent()).isEmpty();
+        assertThat(empty.isHasNext()).isFalse();
+        assertThat(empty.getNextCursor()).isNull();
+    }
+
+    private List<List<UUID>> allPages(boolean descending) {
+        List<List<UUID>> pages = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<PersonDto> page = personService.findPersonsByCursor(cursor, 2, descending, false);
+            pages.add(page.getContent().stream().map(PersonDto::getId).toList());
+            assertThat(page.getSize()).isEqualTo(page.getContent().size());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return pages;
+    }
+
+    private void insert(int n, LocalDateTime createdAt) {
+        jdbcTemplate.update("INSERT INTO persons (id, first_name, last_name, email, created_at) VALUES (?, ?, 'L', ?, ?)",
+                id(n), "F" + n, "p" + n + "@example.com", createdAt);
+    }
+
+    private static UUID id(int n) {
+        return new UUID(0, n);
+    }
+}
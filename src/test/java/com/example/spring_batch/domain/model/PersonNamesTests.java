@@ -0,0 +1,60 @@
+package com.example.spring_batch.domain.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PersonNamesTests {
+
+    private static final List<String> NAMES = List.of(
+            "John", "SMITH", "o'brien", "Van der Berg", "Mary-Jane", "ÁNGEL", "Zoë", "İsmail", "Irmak",
+            "Straße", "ΣΟΦΙΑ", "名前", " Padded ", "", "A1_b2");
+
+    private final Locale defaultLocale = Locale.getDefault();
+
+    @AfterEach
+    void restoreLocale() {
+        Locale.setDefault(defaultLocale);
+    }
+
+    @Test
+    void emailMatchesFormatBasedImplementation() {
+        for (Locale locale : List.of(Locale.ROOT, Locale.US, Locale.GERMANY, Locale.forLanguageTag("tr-TR"),
+                Locale.forLanguageTag("az-AZ"), Locale.forLanguageTag("lt-LT"))) {
+            Locale.setDefault(locale);
+            for (String firstName : NAMES) {
+                for (String lastName : NAMES) {
+                    String expected = String.format("%s.%s@example.com", firstName.toLowerCase(), lastName.toLowerCase());
+                    assertThat(PersonNames.email(firstName, lastName))
+                            .as("%s / %s in %s", firstName, lastName, locale)
+                            .isEqualTo(expected);
+                }
+            }
+        }
+    }
+
+    @Test
+    void fullNameMatchesFormatBasedImplementation() {
+        for (String firstName : NAMES) {
+            for (String lastName : NAMES) {
+                assertThat(PersonNames.fullName(firstName, lastName))
+                        .isEqualTo(String.format("%s %s", firstName, lastName).trim());
+            }
+        }
+        assertThat(PersonNames.fullName(null, "Smith")).isEqualTo(String.format("%s %s", null, "Smith").trim());
+        assertThat(PersonNames.fullName("John", null)).isEqualTo(String.format("%s %s", "John", null).trim());
+    }
+
+    @Test
+    void emailBufferIsNotSharedBetweenResults() {
+        String first = PersonNames.email("Anna", "Lee");
+        String second = PersonNames.email("Bob", "Stone");
+
+        assertThat(first).isEqualTo("anna.lee@example.com");
+        assertThat(second).isEqualTo("bob.stone@example.com");
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.spring_batch.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UuidV7Tests {
+
+    @Test
+    void setsVersionVariantAndTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID uuid = UuidV7.next();
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        assertThat(UuidV7.timestamp(uuid)).isGreaterThanOrEqualTo(before);
+        assertThatThrownBy(() -> UuidV7.timestamp(UUID.randomUUID())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void increasesWithinTheSameMillisecond() {
+        UUID previous = UuidV7.next();
+        for (int i = 0; i < 100_000; i++) {
+            UUID next = UuidV7.next();
+            assertThat(Long.compareUnsigned(next.getMostSignificantBits(), previous.getMostSignificantBits()))
+                    .isPositive();
+            previous = next;
+        }
+    }
+
+    @Test
+    void counterOverflowCarriesIntoTimestamp() {
+        UUID last = UuidV7.build((1000L << 12) | 0xFFF, 0);
+        UUID carried = UuidV7.build(((1000L << 12) | 0xFFF) + 1, -1);
+
+        assertThat(UuidV7.timestamp(last)).isEqualTo(1000);
+        assertThat(UuidV7.timestamp(carried)).isEqualTo(1001);
+        assertThat(carried.version()).isEqualTo(7);
+        assertThat(carried.variant()).isEqualTo(2);
+    }
+
+    @Test
+    void isUniqueAcrossThreads() throws InterruptedException {
+        int threads = 8;
+        int perThread = 20_000;
+        ConcurrentLinkedQueue<UUID> generated = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                List<UUID> local = new ArrayList<>(perThread);
+                for (int i = 0; i < perThread; i++) {
+                    local.add(UuidV7.next());
+                }
+                generated.addAll(local);
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        List<Long> prefixes = generated.stream().map(UUID::getMostSignificantBits).toList();
+        assertThat(prefixes).hasSize(threads * perThread).doesNotHaveDuplicates();
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.spring_batch.infrastructure.batch.chunk;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.repeat.context.RepeatContextSupport;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveChunkCompletionPolicyTests {
+
+    // far longer and far shorter than any chunk of the tests takes
+    private static final Duration SLOW_TARGET = Duration.ofHours(1);
+    private static final Duration FAST_TARGET = Duration.ofNanos(1);
+
+    private StepExecution stepExecution;
+
+    @BeforeEach
+    void registerStep() {
+        stepExecution = new StepExecution("importPersonsStep", new JobExecution(1L), 2L);
+        StepSynchronizationManager.register(stepExecution);
+    }
+
+    @AfterEach
+    void closeStep() {
+        StepSynchronizationManager.close();
+    }
+
+    @Test
+    void growsTowardsTheTargetAtMostTwofoldPerChunk() throws Exception {
+        AdaptiveChunkCompletionPolicy policy = started(new AdaptiveChunkCompletionPolicy(100, 10, 1000, SLOW_TARGET));
+
+        assertThat(chunkSize(policy)).isEqualTo(100);
+        chunk(policy, 100);
+        assertThat(chunkSize(policy)).isEqualTo(200);
+        chunk(policy, 200);
+        assertThat(chunkSize(policy)).isEqualTo(400);
+        chunk(policy, 400);
+        chunk(policy, 800);
+        assertThat(chunkSize(policy)).isEqualTo(1000);
+        assertThat(stepExecution.getExecutionContext().getInt(AdaptiveChunkCompletionPolicy.CHUNK_SIZE_KEY)).isEqualTo(1000);
+        assertThat(stepExecution.getExecutionContext().getString(AdaptiveChunkCompletionPolicy.LAST_CHANGE_KEY)).isEqualTo("throughput");
+    }
+
+    @Test
+    void shrinksHalfWayTowardsTheTargetWhenChunksAreTooSlow() throws Exception {
+        AdaptiveChunkCompletionPolicy policy = started(new AdaptiveChunkCompletionPolicy(100, 10, 1000, FAST_TARGET));
+
+        chunk(policy, 100);
+        assertThat(chunkSize(policy)).isEqualTo(50);
+        chunk(policy, 50);
+        assertThat(chunkSize(policy)).isEqualTo(25);
+        chunk(policy, 25);
+        chunk(policy, 13);
+        assertThat(chunkSize(policy)).isEqualTo(10);
+        assertThat(stepExecution.getExecutionContext().getInt(AdaptiveChunkCompletionPolicy.CHANGE_COUNT_KEY)).isEqualTo(4);
+    }
+
+    @Test
+    void halvesTheChunkSizeOnRollback() {
+        AdaptiveChunkCompletionPolicy policy = started(new AdaptiveChunkCompletionPolicy(100, 10, 1000, SLOW_TARGET));
+        ChunkContext chunkContext = new ChunkContext(new StepContext(stepExecution));
+
+        policy.beforeChunk(chunkContext);
+        policy.afterChunkError(chunkContext);
+        assertThat(chunkSize(policy)).isEqualTo(50);
+        assertThat(stepExecution.getExecutionContext().getString(AdaptiveChunkCompletionPolicy.LAST_CHANGE_KEY)).isEqualTo("rollback");
+
+        policy.afterChunkError(chunkContext);
+        policy.afterChunkError(chunkContext);
+        policy.afterChunkError(chunkContext);
+        assertThat(chunkSize(policy)).isEqualTo(10);
+    }
+
+    @Test
+    void shrinksByAQuarterAfterAChunkWithSkips() throws Exception {
+        AdaptiveChunkCompletionPolicy policy = started(new AdaptiveChunkCompletionPolicy(100, 10, 1000, SLOW_TARGET));
+        ChunkContext chunkContext = new ChunkContext(new StepContext(stepExecution));
+
+        policy.beforeChunk(chunkContext);
+        stepExecution.setReadCount(stepExecution.getReadCount() + 100);
+        policy.onSkipInProcess("bad", new IllegalArgumentException("bad"));
+        policy.afterChunk(chunkContext);
+        assertThat(chunkSize(policy)).isEqualTo(75);
+        assertThat(stepExecution.getExecutionContext().getString(AdaptiveChunkCompletionPolicy.LAST_CHANGE_KEY)).isEqualTo("skip");
+
+        // the next chunk without skips sizes by throughput again
+        chunk(policy, 75);
+        assertThat(chunkSize(policy)).isEqualTo(150);
+    }
+
+    @Test
+    void keepsSizesWithinTheBounds() {
+        assertThat(chunkSize(started(new AdaptiveChunkCompletionPolicy(5000, 10, 1000, SLOW_TARGET)))).isEqualTo(1000);
+        assertThat(chunkSize(started(new AdaptiveChunkCompletionPolicy(1, 10, 1000, SLOW_TARGET)))).isEqualTo(10);
+
+        stepExecution.getExecutionContext().putInt(AdaptiveChunkCompletionPolicy.CHUNK_SIZE_KEY, 2);
+        assertThat(chunkSize(started(new AdaptiveChunkCompletionPolicy(100, 10, 1000, SLOW_TARGET)))).isEqualTo(10);
+
+        assertThatThrownBy(() -> new AdaptiveChunkCompletionPolicy(100, 0, 1000, SLOW_TARGET))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AdaptiveChunkCompletionPolicy(100, 10, 5, SLOW_TARGET))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void restartContinuesFromTheStoredSize() {
+        stepExecution.getExecutionContext().putInt(AdaptiveChunkCompletionPolicy.CHUNK_SIZE_KEY, 300);
+
+        assertThat(chunkSize(started(new AdaptiveChunkCompletionPolicy(100, 10, 1000, SLOW_TARGET)))).isEqualTo(300);
+    }
+
+    private AdaptiveChunkCompletionPolicy started(AdaptiveChunkCompletionPolicy policy) {
+        policy.beforeStep(stepExecution);
+        return policy;
+    }
+
+    /**
+     * Runs one chunk of {@code items} reads, taking at least a millisecond
+     */
+    private void chunk(AdaptiveChunkCompletionPolicy policy, int items) throws InterruptedException {
+        ChunkContext chunkContext = new ChunkContext(new StepContext(stepExecution));
+        policy.beforeChunk(chunkContext);
+        Thread.sleep(1);
+        stepExecution.setReadCount(stepExecution.getReadCount() + items);
+        policy.afterChunk(chunkContext);
+    }
+
+    private static int chunkSize(AdaptiveChunkCompletionPolicy policy) {
+        RepeatContextSupport context = (RepeatContextSupport) policy.start(null);
+        int size = 0;
+        while (!policy.isComplete(context)) {
+            context.increment();
+            size++;
+        }
+        return size;
+    }
+}
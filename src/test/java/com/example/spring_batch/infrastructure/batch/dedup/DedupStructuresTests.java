@@ -0,0 +1,49 @@
+package com.example.spring_batch.infrastructure.batch.dedup;
+
+import com.example.spring_batch.shared.util.Hashing;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DedupStructuresTests {
+
+    @Test
+    void longHashSetMatchesJavaSetAcrossResizes() {
+        LongHashSet set = new LongHashSet(4);
+        Set<Long> reference = new HashSet<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100_000; i++) {
+            long value = i % 1000 == 0 ? 0L : random.nextLong() % 50_000;
+            assertThat(set.add(value)).isEqualTo(reference.add(value));
+        }
+
+        assertThat(set.size()).isEqualTo(reference.size());
+        for (long value = -50_000; value < 50_000; value += 7) {
+            assertThat(set.contains(value)).isEqualTo(reference.contains(value));
+        }
+    }
+
+    @Test
+    void bloomFilterHasNoFalseNegativesAndBoundedFalsePositives() {
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filter.put(Hashing.hash64("person" + i + "@example.com"));
+        }
+
+        for (int i = 0; i < 100_000; i++) {
+            assertThat(filter.mightContain(Hashing.hash64("person" + i + "@example.com"))).isTrue();
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(Hashing.hash64("other" + i + "@example.com"))) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.spring_batch.infrastructure.batch.dedup;
+
+import com.example.spring_batch.domain.model.Person;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+class DuplicateEmailItemProcessorTests {
+
+    @Autowired
+    private DuplicateEmailItemProcessor processor;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private JobExecution jobExecution;
+
+    @BeforeEach
+    void startRun() {
+        jdbcTemplate.update("DELETE FROM persons");
+        jobExecution = new JobExecution(1L);
+        processor.beforeJob(jobExecution);
+        StepSynchronizationManager.register(new StepExecution("importPersonsStep", jobExecution, 2L));
+    }
+
+    @AfterEach
+    void endRun() {
+        StepSynchronizationManager.close();
+        processor.afterJob(jobExecution);
+        jdbcTemplate.update("DELETE FROM persons");
+    }
+
+    @Test
+    void dropsARepeatedEmailOfTheRun() {
+        assertThat(processor.process(person("ann@example.com"))).isNotNull();
+
+        assertThat(processor.process(person("ann@example.com"))).isNull();
+        assertThat(processor.process(person("bob@example.com"))).isNotNull();
+    }
+
+    @Test
+    void keepsARowWhoseEmailIsOnlyMatchedByItsHash() {
+        Person skipped = processor.process(person("ann@example.com"));
+        // the hash of the skipped row stays seen, as a colliding email's would
+        processor.onSkipInWrite(skipped, new IllegalStateException("write failed"));
+
+        assertThat(processor.process(person("ann@example.com"))).isNotNull();
+        assertThat(processor.process(person("ann@example.com"))).isNull();
+    }
+
+    @Test
+    void confirmsAHashOnlyMatchAgainstTheDatabase() {
+        Person written = processor.process(person("ann@example.com"));
+        processor.onSkipInWrite(written, new IllegalStateException("write failed"));
+        // committed by another node in the meantime
+        jdbcTemplate.update("INSERT INTO persons (id, first_name, last_name, email, created_at) VALUES (?, ?, ?, ?, ?)",
+                UUID.randomUUID(), "Ann", "Marsh", "ann@example.com", LocalDateTime.now());
+
+        assertThat(processor.process(person("ann@example.com"))).isNull();
+    }
+
+    private static Person person(String email) {
+        return Person.builder()
+                .firstName("Ann")
+                .lastName("Marsh")
+                .email(email)
+                .build();
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.spring_batch.infrastructure.batch.delta;
+
+import com.example.spring_batch.domain.model.Person;
+import com.example.spring_batch.domain.repository.PersonRepository;
+import com.example.spring_batch.infrastructure.batch.config.ImportJobProperties;
+import com.example.spring_batch.infrastructure.persistence.DeltaIndexStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+class DeltaItemProcessorTests {
+
+    private static final UUID ANN = UUID.fromString("00000000-0000-7000-8000-000000000001");
+    private static final UUID ANN_DUPLICATE = UUID.fromString("00000000-0000-7000-8000-000000000002");
+    private static final UUID BOB = UUID.fromString("00000000-0000-7000-8000-000000000003");
+
+    @Autowired
+    private DeltaIndexStore deltaIndexStore;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final JobExecution jobExecution = new JobExecution(1L);
+    private DeltaItemProcessor processor;
+
+    @BeforeEach
+    @AfterEach
+    void deleteRows() {
+        jdbcTemplate.update("DELETE FROM person_row_hashes");
+        jdbcTemplate.update("DELETE FROM persons");
+    }
+
+    @AfterEach
+    void endRun() {
+        StepSynchronizationManager.close();
+        if (processor != null) {
+            processor.afterJob(jobExecution);
+        }
+    }
+
+    @Test
+    void seedsAnEmptyIndexFromTheStoredPersons() {
+        insert(ANN, "Ann", "Marsh", "ann.marsh@example.com");
+        insert(BOB, "Bob", "Stone", "bob.stone@example.com");
+
+        start(ImportJobProperties.DeltaKey.EMAIL);
+
+        assertThat(deltaIndexStore.countRowHashes()).isEqualTo(2);
+        assertThat(processor.process(person("Bob", "Stone", "bob.stone@example.com"))).isNull();
+        assertThat(processor.process(person("Ann", "Cooper", "ann.marsh@example.com")))
+                .extracting(Person::getId).isEqualTo(ANN);
+    }
+
+    @Test
+    void updatesTheSamePersonWhenTheEmailOfANameKeyedRowChanges() {
+        insert(ANN, "Ann", "Marsh", "ann.marsh@example.com");
+
+        start(ImportJobProperties.DeltaKey.NAME);
+        Person changed = processor.process(person(" ANN ", "marsh", "ann.cooper@example.com"));
+
+        assertThat(changed).isNotNull();
+        assertThat(changed.getId()).isEqualTo(ANN);
+        assertThat(changed.getEmail()).isEqualTo("ann.cooper@example.com");
+    }
+
+    @Test
+    void recognizesARowWrittenUnderASuffixedEmail() {
+        insert(ANN, "Ann", "Marsh", "ann.marsh@example.com");
+        // a second row with the same email, written by the suffix policy of an earlier import
+        insert(ANN_DUPLICATE, "Anne", "Marsh", "ann.marsh.2@example.com");
+
+        start(ImportJobProperties.DeltaKey.EMAIL);
+
+        assertThat(processor.process(person("Ann", "Marsh", "ann.marsh@example.com"))).isNull();
+        assertThat(processor.process(person("Anne", "Marsh", "ann.marsh@example.com"))).isNull();
+        // another changed row with that email is new, not a change of the first one
+        Person third = processor.process(person("Annie", "Marsh", "ann.marsh@example.com"));
+        assertThat(third).isNotNull();
+        assertThat(third.getId()).isNull();
+    }
+
+    private void start(ImportJobProperties.DeltaKey key) {
+        ImportJobProperties properties = new ImportJobProperties();
+        properties.getDelta().setEnabled(true);
+        properties.getDelta().setKey(key);
+        processor = new DeltaItemProcessor(deltaIndexStore, personRepository, properties);
+        processor.beforeJob(jobExecution);
+        StepSynchronizationManager.register(new StepExecution("importPersonsStep", jobExecution, 2L));
+    }
+
+    private void insert(UUID id, String firstName, String lastName, String email) {
+        jdbcTemplate.update("INSERT INTO persons (id, first_name, last_name, email, created_at) VALUES (?, ?, ?, ?, ?)",
+                id, firstName, lastName, email, LocalDateTime.now());
+    }
+
+    private static Person person(String firstName, String lastName, String email) {
+        return Person.builder()
+                .firstName(firstName)
+                .lastName(lastName)
+                .email(email)
+                .build();
+    }
+}
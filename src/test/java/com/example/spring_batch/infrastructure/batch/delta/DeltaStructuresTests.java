@@ -0,0 +1,51 @@
+package com.example.spring_batch.infrastructure.batch.delta;
+
+import com.example.spring_batch.domain.model.Person;
+import com.example.spring_batch.infrastructure.batch.config.ImportJobProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeltaStructuresTests {
+
+    @Test
+    void longLongHashMapKeepsEveryEntryAcrossResizes() {
+        LongLongHashMap map = new LongLongHashMap(4);
+        for (long key = -50_000; key < 50_000; key++) {
+            map.put(key, key * 31);
+        }
+
+        assertThat(map.size()).isEqualTo(100_000);
+        assertThat(map.get(0, -1)).isZero();
+        assertThat(map.get(-50_000, -1)).isEqualTo(-50_000 * 31L);
+        assertThat(map.get(49_999, -1)).isEqualTo(49_999 * 31L);
+        assertThat(map.get(50_000, -1)).isEqualTo(-1);
+        assertThat(map.containsKey(123)).isTrue();
+
+        map.put(123, 7);
+        assertThat(map.get(123, -1)).isEqualTo(7);
+        assertThat(map.size()).isEqualTo(100_000);
+    }
+
+    @Test
+    void rowHashesSeparateKeyFromContent() {
+        Person person = person("John", "Doe", "john.doe@example.com");
+        Person renamed = person(" JOHN ", "doe", "john.doe@example.com");
+
+        assertThat(RowHashes.key(renamed, ImportJobProperties.DeltaKey.NAME))
+                .isEqualTo(RowHashes.key(person, ImportJobProperties.DeltaKey.NAME));
+        assertThat(RowHashes.key(renamed, ImportJobProperties.DeltaKey.EMAIL))
+                .isEqualTo(RowHashes.key(person, ImportJobProperties.DeltaKey.EMAIL));
+        assertThat(RowHashes.content(renamed)).isNotEqualTo(RowHashes.content(person));
+        assertThat(RowHashes.content(person)).isEqualTo(RowHashes.content(person("John", "Doe", "john.doe@example.com")));
+        assertThat(RowHashes.content(person)).isNotZero();
+    }
+
+    private static Person person(String firstName, String lastName, String email) {
+        Person person = new Person();
+        person.setFirstName(firstName);
+        person.setLastName(lastName);
+        person.setEmail(email);
+        return person;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.spring_batch.infrastructure.batch.launch;
+
+import com.example.spring_batch.infrastructure.batch.config.ImportJobProperties;
+import com.example.spring_batch.shared.exception.LaunchQueueFullException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.listener.CompositeJobExecutionListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImportLaunchQueueTests {
+
+    private final List<String> launched = new ArrayList<>();
+    private final AtomicLong executionIds = new AtomicLong();
+    private ImportLaunchQueue queue;
+
+    @BeforeEach
+    void createQueue() {
+        ImportJobProperties properties = new ImportJobProperties();
+        properties.getLaunch().setMaxConcurrent(1);
+        properties.getLaunch().setQueueCapacity(2);
+        queue = new ImportLaunchQueue(properties);
+    }
+
+    @Test
+    void coalescesLaunchesOfAPendingKey() {
+        ImportLaunchQueue.Admission first = queue.submit("a.csv", launch("a.csv"));
+        ImportLaunchQueue.Admission second = queue.submit("a.csv", launch("a.csv"));
+
+        assertThat(second).isSameAs(first);
+        assertThat(launched).containsExactly("a.csv");
+        assertThat(first.started()).isCompleted();
+    }
+
+    @Test
+    void startsQueuedLaunchesInOrderAsSlotsFree() {
+        ImportLaunchQueue.Admission a = queue.submit("a.csv", launch("a.csv"));
+        ImportLaunchQueue.Admission b = queue.submit("b.csv", launch("b.csv"));
+        ImportLaunchQueue.Admission c = queue.submit("c.csv", launch("c.csv"));
+
+        assertThat(launched).containsExactly("a.csv");
+        assertThat(queue.position(b)).isEqualTo(1);
+        assertThat(queue.position(c)).isEqualTo(2);
+        assertThat(queue.submit("b.csv", launch("b.csv"))).isSameAs(b);
+
+        JobExecution aExecution = a.started().join();
+        queue.afterJob(aExecution);
+
+        assertThat(a.finished().join()).isSameAs(aExecution);
+        assertThat(launched).containsExactly("a.csv", "b.csv");
+        assertThat(b.started()).isCompleted();
+        assertThat(queue.position(c)).isEqualTo(1);
+        // the finished key can be launched again
+        assertThat(queue.submit("a.csv", launch("a.csv"))).isNotSameAs(a);
+    }
+
+    @Test
+    void rejectsLaunchesOnceTheQueueIsFull() {
+        queue.submit("a.csv", launch("a.csv"));
+        queue.submit("b.csv", launch("b.csv"));
+        queue.submit("c.csv", launch("c.csv"));
+
+        assertThatThrownBy(() -> queue.submit("d.csv", launch("d.csv")))
+                .isInstanceOf(LaunchQueueFullException.class);
+        assertThat(launched).containsExactly("a.csv");
+    }
+
+    @Test
+    void releasesTheSlotWhenTheLaunchFails() {
+        ImportLaunchQueue.Admission failed = queue.submit("a.csv", () -> {
+            throw new IllegalStateException("no connection");
+        });
+        ImportLaunchQueue.Admission next = queue.submit("b.csv", launch("b.csv"));
+
+        assertThat(failed.finished()).isCompletedExceptionally();
+        assertThat(next.started()).isCompleted();
+    }
+
+    @Test
+    void finishesAJobThatEndedBeforeItsLaunchReturned() {
+        ImportLaunchQueue.Admission admission = queue.submit("a.csv", () -> {
+            JobExecution jobExecution = new JobExecution(executionIds.incrementAndGet());
+            queue.afterJob(jobExecution);
+            return jobExecution;
+        });
+
+        assertThat(admission.finished()).isCompleted();
+        assertThat(queue.submit("b.csv", launch("b.csv")).started()).isCompleted();
+    }
+
+    @Test
+    void startsTheNextLaunchOnlyAfterTheOtherListenersSawTheJobEnd() {
+        List<String> ended = new ArrayList<>();
+        JobExecutionListener recorder = new JobExecutionListener() {
+            @Override
+            public void afterJob(JobExecution jobExecution) {
+                ended.add("execution " + jobExecution.getId());
+            }
+        };
+        CompositeJobExecutionListener listeners = new CompositeJobExecutionListener();
+        listeners.register(recorder);
+        listeners.register(queue);
+
+        JobExecution first = queue.submit("a.csv", launch("a.csv")).started().join();
+        queue.submit("b.csv", () -> {
+            launched.add("b.csv with " + ended);
+            return new JobExecution(executionIds.incrementAndGet());
+        });
+        listeners.afterJob(first);
+
+        assertThat(launched).containsExactly("a.csv", "b.csv with [execution 1]");
+    }
+
+    @Test
+    void findsAdmissionsByIdAfterTheyLeftTheQueue() {
+        ImportLaunchQueue.Admission a = queue.submit("a.csv", launch("a.csv"));
+        ImportLaunchQueue.Admission b = queue.submit("b.csv", launch("b.csv"));
+
+        assertThat(queue.find(b.id())).containsSame(b);
+        assertThat(b.started()).isNotDone();
+
+        queue.afterJob(a.started().join());
+
+        assertThat(queue.find(a.id())).containsSame(a);
+        assertThat(queue.find(b.id()).orElseThrow().started()).isCompleted();
+        assertThat(queue.find("unknown")).isEmpty();
+    }
+
+    private ImportLaunchQueue.Launch launch(String key) {
+        return () -> {
+            launched.add(key);
+            return new JobExecution(executionIds.incrementAndGet());
+        };
+    }
+}
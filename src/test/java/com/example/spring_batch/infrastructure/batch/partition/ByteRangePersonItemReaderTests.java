@@ -0,0 +1,153 @@
+package com.example.spring_batch.infrastructure.batch.partition;
+
+import com.example.spring_batch.domain.model.Person;
+import com.example.spring_batch.infrastructure.batch.reader.InputResources;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.file.mapping.BeanWrapperFieldSetMapper;
+import org.springframework.batch.item.file.mapping.DefaultLineMapper;
+import org.springframework.batch.item.file.transform.DelimitedLineTokenizer;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ByteRangePersonItemReaderTests {
+
+    private static final String CSV = "firstName,lastName\r\n"
+            + "Jösé,Núñez\r\n"
+            + "名前,Doe\n"
+            + "Zoë,Ångström\n"
+            + "John,Smith\n"
+            + "Jane,Roe";
+
+    private static final List<String> NAMES = List.of("Jösé Núñez", "名前 Doe", "Zoë Ångström", "John Smith", "Jane Roe");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void restartSeeksToSavedByteOffset() throws Exception {
+        Path file = tempDir.resolve("persons.csv");
+        Files.writeString(file, CSV, StandardCharsets.UTF_8);
+
+        assertResumesAfterEveryItem(new FileSystemResource(file));
+    }
+
+    @Test
+    void restartSkipsDecompressedBytes() throws Exception {
+        Path file = tempDir.resolve("persons.csv.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write(CSV.getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertResumesAfterEveryItem(InputResources.decompressed(new FileSystemResource(file)));
+    }
+
+    @Test
+    void readsLinesSpanningReadBlocks() throws Exception {
+        // far more than one 64 KiB block, with a line longer than a block and multi-byte characters on every line
+        StringBuilder csv = new StringBuilder("firstName,lastName\r\n");
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            String firstName = i == 7_000 ? "Ä".repeat(100_000) : "Jösé" + i;
+            csv.append(firstName).append(",Núñez\r\n");
+            names.add(firstName + " Núñez");
+        }
+        Path file = tempDir.resolve("persons.csv");
+        byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+        Files.write(file, bytes);
+
+        assertThat(readAll(reader(new FileSystemResource(file)))).containsExactlyElementsOf(names);
+
+        // two line aligned ranges after the header, split inside a block
+        int header = lineEnd(bytes, 0);
+        int split = header;
+        for (int i = 0; i < 12_345; i++) {
+            split = lineEnd(bytes, split);
+        }
+        List<String> ranges = new ArrayList<>(readAll(rangeReader(new FileSystemResource(file), header, split)));
+        assertThat(ranges).hasSize(12_345);
+        ranges.addAll(readAll(rangeReader(new FileSystemResource(file), split, bytes.length)));
+        assertThat(ranges).containsExactlyElementsOf(names);
+    }
+
+    private static int lineEnd(byte[] bytes, int from) {
+        int i = from;
+        while (bytes[i] != '\n') {
+            i++;
+        }
+        return i + 1;
+    }
+
+    private static List<String> readAll(ByteRangePersonItemReader reader) throws Exception {
+        List<String> names = new ArrayList<>();
+        reader.open(new ExecutionContext());
+        Person person;
+        while ((person = reader.read()) != null) {
+            names.add(person.getFullName());
+        }
+        reader.close();
+        return names;
+    }
+
+    private void assertResumesAfterEveryItem(Resource resource) throws Exception {
+        for (int stopAfter = 0; stopAfter <= NAMES.size(); stopAfter++) {
+            ExecutionContext executionContext = new ExecutionContext();
+            List<String> names = new ArrayList<>();
+
+            ByteRangePersonItemReader first = reader(resource);
+            first.open(executionContext);
+            for (int i = 0; i < stopAfter; i++) {
+                names.add(first.read().getFullName());
+            }
+            first.update(executionContext);
+            first.close();
+
+            assertThat(executionContext.getLong("reader.position")).isPositive();
+            assertThat(executionContext.getInt("reader.read.count")).isEqualTo(stopAfter);
+
+            ByteRangePersonItemReader restarted = reader(resource);
+            restarted.open(executionContext);
+            Person person;
+            while ((person = restarted.read()) != null) {
+                names.add(person.getFullName());
+            }
+            restarted.close();
+
+            assertThat(names).containsExactlyElementsOf(NAMES);
+        }
+    }
+
+    private ByteRangePersonItemReader reader(Resource resource) {
+        ByteRangePersonItemReader reader = new ByteRangePersonItemReader(resource, 1, lineMapper());
+        reader.setName("reader");
+        return reader;
+    }
+
+    private ByteRangePersonItemReader rangeReader(Resource resource, long startOffset, long endOffset) {
+        ByteRangePersonItemReader reader = new ByteRangePersonItemReader(resource, startOffset, endOffset, lineMapper());
+        reader.setName("reader");
+        return reader;
+    }
+
+    private static DefaultLineMapper<Person> lineMapper() {
+        DelimitedLineTokenizer tokenizer = new DelimitedLineTokenizer();
+        tokenizer.setNames("firstName", "lastName");
+        BeanWrapperFieldSetMapper<Person> fieldSetMapper = new BeanWrapperFieldSetMapper<>();
+        fieldSetMapper.setTargetType(Person.class);
+        DefaultLineMapper<Person> lineMapper = new DefaultLineMapper<>();
+        lineMapper.setLineTokenizer(tokenizer);
+        lineMapper.setFieldSetMapper(fieldSetMapper);
+        return lineMapper;
+    }
+}
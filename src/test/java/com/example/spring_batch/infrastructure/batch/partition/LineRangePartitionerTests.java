@@ -0,0 +1,80 @@
+package com.example.spring_batch.infrastructure.batch.partition;
+
+import com.example.spring_batch.domain.model.Person;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.file.mapping.BeanWrapperFieldSetMapper;
+import org.springframework.batch.item.file.mapping.DefaultLineMapper;
+import org.springframework.batch.item.file.transform.DelimitedLineTokenizer;
+import org.springframework.core.io.FileSystemResource;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LineRangePartitionerTests {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void partitionsCoverEveryDataLineExactlyOnce() throws Exception {
+        StringBuilder csv = new StringBuilder("firstName,lastName\n");
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String firstName = i % 7 == 0 ? "Jösé" + i : "John" + i;
+            csv.append(firstName).append(",Doe").append(i).append(i % 3 == 0 ? "\r\n" : "\n");
+            expected.add(firstName + " Doe" + i);
+        }
+        Path file = tempDir.resolve("persons.csv");
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+        FileSystemResource resource = new FileSystemResource(file);
+
+        Map<String, ExecutionContext> partitions = new LineRangePartitioner(resource, 1).partition(7);
+
+        assertThat(partitions).hasSize(7);
+        List<String> actual = new ArrayList<>();
+        for (ExecutionContext context : partitions.values()) {
+            ByteRangePersonItemReader reader = new ByteRangePersonItemReader(resource,
+                    context.getLong(LineRangePartitioner.START_OFFSET_KEY),
+                    context.getLong(LineRangePartitioner.END_OFFSET_KEY),
+                    lineMapper());
+            reader.setName("reader");
+            reader.open(new ExecutionContext());
+            Person person;
+            while ((person = reader.read()) != null) {
+                actual.add(person.getFullName());
+            }
+            reader.close();
+        }
+        assertThat(actual).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void gridLargerThanLineCountYieldsOnePartitionPerLine() throws Exception {
+        Path file = tempDir.resolve("small.csv");
+        Files.writeString(file, "firstName,lastName\nA,B\nC,D\n", StandardCharsets.UTF_8);
+
+        Map<String, ExecutionContext> partitions = new LineRangePartitioner(new FileSystemResource(file), 1)
+                .partition(10);
+
+        assertThat(partitions).hasSize(2);
+    }
+
+    private DefaultLineMapper<Person> lineMapper() {
+        DelimitedLineTokenizer tokenizer = new DelimitedLineTokenizer();
+        tokenizer.setNames("firstName", "lastName");
+        BeanWrapperFieldSetMapper<Person> fieldSetMapper = new BeanWrapperFieldSetMapper<>();
+        fieldSetMapper.setTargetType(Person.class);
+        DefaultLineMapper<Person> lineMapper = new DefaultLineMapper<>();
+        lineMapper.setLineTokenizer(tokenizer);
+        lineMapper.setFieldSetMapper(fieldSetMapper);
+        return lineMapper;
+    }
+}
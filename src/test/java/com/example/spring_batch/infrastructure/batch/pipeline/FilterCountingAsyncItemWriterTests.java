@@ -0,0 +1,145 @@
+package com.example.spring_batch.infrastructure.batch.pipeline;
+
+import com.example.spring_batch.infrastructure.batch.chunk.ChunkContributions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.SkipListener;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.core.step.skip.LimitCheckingItemSkipPolicy;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.core.step.tasklet.TaskletStep;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FilterCountingAsyncItemWriterTests {
+
+    // filters "drop", fails on "bad" and upper-cases the rest
+    private static final ItemProcessor<String, String> PROCESSOR = new FailureCapturingItemProcessor<>(item -> switch (item) {
+        case "drop" -> null;
+        case "bad" -> throw new IllegalArgumentException("bad item");
+        default -> item.toUpperCase();
+    });
+
+    private final List<String> written = new ArrayList<>();
+    private final List<Object> processSkips = new ArrayList<>();
+    private StepExecution stepExecution;
+
+    @BeforeEach
+    void registerStep() {
+        stepExecution = new StepExecution("importPersonsStep", new JobExecution(1L), 2L);
+        StepSynchronizationManager.register(stepExecution);
+    }
+
+    @AfterEach
+    void closeStep() {
+        StepSynchronizationManager.close();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void movesFilteredAndSkippedItemsOutOfTheWriteCount() throws Exception {
+        Chunk<Future<String>> chunk = processed("a", "drop", "bad", "b", "drop");
+        // the step counts every future it hands to the writer
+        stepExecution.setWriteCount(chunk.size());
+
+        writer(10).write(chunk);
+
+        assertThat(written).containsExactly("A", "B");
+        assertThat(stepExecution.getWriteCount()).isEqualTo(2);
+        assertThat(stepExecution.getFilterCount()).isEqualTo(2);
+        assertThat(stepExecution.getProcessSkipCount()).isEqualTo(1);
+        assertThat(stepExecution.getWriteSkipCount()).isZero();
+        assertThat(processSkips).containsExactly("bad");
+    }
+
+    @Test
+    void countsOnlyOnceTheChunkCommits() throws Exception {
+        Chunk<Future<String>> chunk = processed("a", "drop", "bad");
+        stepExecution.setWriteCount(chunk.size());
+        TransactionSynchronizationManager.initSynchronization();
+
+        writer(10).write(chunk);
+
+        assertThat(stepExecution.getFilterCount()).isZero();
+        assertThat(processSkips).isEmpty();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(synchronization -> synchronization.afterCommit());
+
+        assertThat(stepExecution.getWriteCount()).isEqualTo(1);
+        assertThat(stepExecution.getFilterCount()).isEqualTo(1);
+        assertThat(stepExecution.getProcessSkipCount()).isEqualTo(1);
+        assertThat(processSkips).containsExactly("bad");
+    }
+
+    @Test
+    void rethrowsTheProcessingFailureWhenTheSkipLimitIsReached() {
+        stepExecution.setProcessSkipCount(1);
+
+        assertThatThrownBy(() -> writer(1).write(processed("a", "bad")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("bad item");
+
+        assertThat(written).isEmpty();
+        assertThat(processSkips).isEmpty();
+    }
+
+    @Test
+    void countsTheUncommittedSkipsOfTheChunk() throws Exception {
+        FilterCountingAsyncItemWriter<String> writer = writer(1);
+        TaskletStep step = new TaskletStep("importPersonsStep");
+        step.setTasklet((contribution, chunkContext) -> {
+            writer.write(processed("a", "bad"));
+            return RepeatStatus.FINISHED;
+        });
+        StepContribution contribution = stepExecution.createStepContribution();
+        // read skips are only added to the step execution when the chunk commits
+        contribution.incrementReadSkipCount();
+
+        Tasklet tracked = ChunkContributions.track(step).getTasklet();
+
+        assertThatThrownBy(() -> tracked.execute(contribution, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("bad item");
+        assertThat(written).isEmpty();
+    }
+
+    private FilterCountingAsyncItemWriter<String> writer(int skipLimit) {
+        SkipListener<Object, Object> listener = new SkipListener<>() {
+            @Override
+            public void onSkipInProcess(Object item, Throwable t) {
+                processSkips.add(item);
+            }
+        };
+        FilterCountingAsyncItemWriter<String> writer = new FilterCountingAsyncItemWriter<>(
+                new LimitCheckingItemSkipPolicy(skipLimit, Map.of(Exception.class, true)), List.of(listener));
+        writer.setDelegate(chunk -> written.addAll(chunk.getItems()));
+        return writer;
+    }
+
+    private static Chunk<Future<String>> processed(String... items) {
+        Chunk<Future<String>> chunk = new Chunk<>();
+        for (String item : items) {
+            FutureTask<String> task = new FutureTask<>(() -> PROCESSOR.process(item));
+            task.run();
+            chunk.add(task);
+        }
+        return chunk;
+    }
+}
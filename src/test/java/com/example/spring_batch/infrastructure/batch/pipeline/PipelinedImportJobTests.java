@@ -0,0 +1,50 @@
+package com.example.spring_batch.infrastructure.batch.pipeline;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "batch.import.pipeline.enabled=true")
+@ActiveProfiles("h2")
+class PipelinedImportJobTests {
+
+    // input/persons.csv: 2000 rows, 47 of them repeat the names of an earlier row
+    private static final int ROWS = 2000;
+    private static final int UNIQUE_EMAILS = 1953;
+
+    @Autowired
+    private JobLauncher jobLauncher;
+
+    @Autowired
+    private Job importPersonsJob;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void importsEveryRowWithTheReaderRunningAhead() throws Exception {
+        JobExecution jobExecution = jobLauncher.run(importPersonsJob, new JobParametersBuilder()
+                .addLong("timestamp", System.currentTimeMillis())
+                .toJobParameters());
+
+        assertThat(jobExecution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        StepExecution step = jobExecution.getStepExecutions().iterator().next();
+        assertThat(step.getReadCount()).isEqualTo(ROWS);
+        assertThat(step.getSkipCount()).isZero();
+        // duplicates are filtered by the processor and counted as such, not as written
+        assertThat(step.getWriteCount()).isEqualTo(UNIQUE_EMAILS);
+        assertThat(step.getFilterCount()).isEqualTo(ROWS - UNIQUE_EMAILS);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM persons", Long.class)).isEqualTo(UNIQUE_EMAILS);
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.spring_batch.infrastructure.batch.pipeline;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ParseException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReadAheadItemReaderTests {
+
+    private static final List<String> LINES = List.of("a", "b", "bad", "c", "d", "e");
+
+    @Test
+    void handsOverItemsAndFailuresInOrder() throws Exception {
+        ReadAheadItemReader<String> reader = new ReadAheadItemReader<>(new LineReader(), 2);
+        reader.open(new ExecutionContext());
+
+        assertThat(reader.read()).isEqualTo("a");
+        assertThat(reader.read()).isEqualTo("b");
+        assertThatThrownBy(reader::read).isInstanceOf(ParseException.class).hasMessage("bad");
+        assertThat(readAll(reader)).containsExactly("c", "d", "e");
+        assertThat(reader.read()).isNull();
+        reader.close();
+    }
+
+    @Test
+    void restartReplaysTheDelegateUpToTheConsumedPosition() throws Exception {
+        ExecutionContext context = new ExecutionContext();
+        ReadAheadItemReader<String> reader = new ReadAheadItemReader<>(new LineReader(), 2);
+        reader.open(context);
+        reader.read();
+        reader.read();
+        assertThatThrownBy(reader::read).isInstanceOf(ParseException.class);
+        reader.read();
+        // committed after four reads, failures included, while the producer has already read on
+        reader.update(context);
+        reader.read();
+        reader.close();
+
+        LineReader delegate = new LineReader();
+        ReadAheadItemReader<String> restarted = new ReadAheadItemReader<>(delegate, 2);
+        restarted.open(context);
+
+        assertThat(readAll(restarted)).containsExactly("d", "e");
+        restarted.close();
+        assertThat(delegate.opened).isTrue();
+        assertThat(delegate.closed).isTrue();
+    }
+
+    @Test
+    void restartOpensARestartableDelegateWithItsStateAtTheConsumedPosition() throws Exception {
+        ExecutionContext context = new ExecutionContext();
+        ReadAheadItemReader<String> reader = new ReadAheadItemReader<>(new LineReader(true), 8);
+        reader.open(context);
+        reader.read();
+        reader.read();
+        assertThatThrownBy(reader::read).isInstanceOf(ParseException.class);
+        reader.read();
+        reader.update(context);
+        reader.read();
+        reader.close();
+
+        // the delegate's own state for the fourth line, not the position the producer had reached
+        assertThat(context.getInt("line.next")).isEqualTo(4);
+
+        LineReader delegate = new LineReader(true);
+        ReadAheadItemReader<String> restarted = new ReadAheadItemReader<>(delegate, 8);
+        restarted.open(context);
+
+        assertThat(readAll(restarted)).containsExactly("d", "e");
+        restarted.close();
+        // nothing before the saved state was read again
+        assertThat(delegate.reads).isEqualTo(3);
+    }
+
+    @Test
+    void savesTheConsumedCountUnderItsName() throws Exception {
+        ExecutionContext context = new ExecutionContext();
+        ReadAheadItemReader<String> reader = new ReadAheadItemReader<>(new LineReader(), 1);
+        reader.setName("personReader");
+        reader.open(context);
+        reader.read();
+        reader.update(context);
+        reader.close();
+
+        assertThat(context.getLong("personReader.consumed.count")).isEqualTo(1);
+    }
+
+    private static List<String> readAll(ReadAheadItemReader<String> reader) throws Exception {
+        List<String> items = new ArrayList<>();
+        String item;
+        while ((item = reader.read()) != null) {
+            items.add(item);
+        }
+        return items;
+    }
+
+    /**
+     * Reads {@link #LINES}, failing on "bad" as a flat file reader does on a malformed line; a
+     * stateful one saves and restores its position like a file reader
+     */
+    private static final class LineReader implements ItemStreamReader<String> {
+
+        private final boolean stateful;
+        private int next;
+        private volatile int reads;
+        private volatile boolean opened;
+        private volatile boolean closed;
+
+        private LineReader() {
+            this(false);
+        }
+
+        private LineReader(boolean stateful) {
+            this.stateful = stateful;
+        }
+
+        @Override
+        public void open(ExecutionContext executionContext) {
+            if (stateful) {
+                next = executionContext.getInt("line.next", 0);
+            }
+            opened = true;
+        }
+
+        @Override
+        public void update(ExecutionContext executionContext) {
+            if (stateful) {
+                executionContext.putInt("line.next", next);
+            }
+        }
+
+        @Override
+        public String read() {
+            reads++;
+            if (next >= LINES.size()) {
+                return null;
+            }
+            String line = LINES.get(next++);
+            if (line.equals("bad")) {
+                throw new ParseException(line);
+            }
+            return line;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.spring_batch.infrastructure.batch.reader;
+
+import com.example.spring_batch.infrastructure.batch.partition.InputFilePartitioner;
+import com.example.spring_batch.infrastructure.batch.partition.LineRangePartitioner;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InputResourcesTests {
+
+    private static final String CSV = "firstName,lastName\nJohn,Doe\nJane,Roe\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void normalizeAddsFilePrefixToPlainPaths() {
+        assertThat(InputResources.normalize("/data/persons-*.csv.gz")).isEqualTo("file:/data/persons-*.csv.gz");
+        assertThat(InputResources.normalize("classpath:input/persons.csv")).isEqualTo("classpath:input/persons.csv");
+        assertThat(InputResources.normalize("classpath*:input/*.csv")).isEqualTo("classpath*:input/*.csv");
+        assertThatThrownBy(() -> InputResources.normalize(" ")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void resolvesPatternInFileNameOrderAndDecompressesGzip() throws IOException {
+        Files.writeString(tempDir.resolve("b.csv"), CSV, StandardCharsets.UTF_8);
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tempDir.resolve("a.csv.gz")))) {
+            out.write(CSV.getBytes(StandardCharsets.UTF_8));
+        }
+        Files.writeString(tempDir.resolve("ignored.txt"), "x", StandardCharsets.UTF_8);
+
+        Resource[] resources = InputResources.resolve(new DefaultResourceLoader(), tempDir + "/*.csv*");
+
+        assertThat(Arrays.stream(resources).map(Resource::getFilename)).containsExactly("a.csv.gz", "b.csv");
+        assertThat(InputResources.isCompressed(resources[0])).isTrue();
+        try (InputStream in = InputResources.decompressed(resources[0]).getInputStream()) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(CSV);
+        }
+        assertThat(InputResources.decompressed(resources[1])).isSameAs(resources[1]);
+    }
+
+    @Test
+    void rejectsInputWithoutMatches() {
+        assertThatThrownBy(() -> InputResources.resolve(new DefaultResourceLoader(), tempDir + "/missing-*.csv"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void compressedFilesArePartitionedWhole() throws IOException {
+        Files.writeString(tempDir.resolve("a.csv"), CSV, StandardCharsets.UTF_8);
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tempDir.resolve("b.csv.gz")))) {
+            out.write(CSV.getBytes(StandardCharsets.UTF_8));
+        }
+        Resource[] resources = InputResources.resolve(new DefaultResourceLoader(), tempDir + "/*");
+
+        Map<String, ExecutionContext> partitions = new InputFilePartitioner(resources, 1).partition(4);
+
+        assertThat(partitions).containsKeys("file0-partition0", "file0-partition1", "file1");
+        assertThat(partitions.get("file1").containsKey(LineRangePartitioner.START_OFFSET_KEY)).isFalse();
+        assertThat(partitions.get("file1").getString(InputFilePartitioner.INPUT_KEY))
+                .isEqualTo(resources[1].getURI().toString());
+        assertThat(partitions.values()).allMatch(context -> context.containsKey(InputFilePartitioner.INPUT_KEY));
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.spring_batch.infrastructure.batch.reader;
+
+import com.example.spring_batch.domain.model.Person;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.core.io.FileSystemResource;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MappedPersonItemReaderTests {
+
+    private static final String CSV = "firstName,lastName\r\n"
+            + "John,Doe\r\n"
+            + "\"Smith, Jr\",\"O\"\"Brien\"\n"
+            + " Zoë , Ñúñez \n"
+            + "\"Multi\nLine\",Name\n"
+            + "Last,Row";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readsQuotedMultiByteAndCrLfRecords() throws Exception {
+        assertThat(readAll(reader(CSV, MappedPersonItemReader.DEFAULT_WINDOW_SIZE)))
+                .containsExactly("John Doe", "Smith, Jr O\"Brien", "Zoë Ñúñez", "Multi\nLine Name", "Last Row");
+    }
+
+    @Test
+    void recordsCrossingMappingWindowsAreReadWhole() throws Exception {
+        assertThat(readAll(reader(CSV, 25)))
+                .containsExactly("John Doe", "Smith, Jr O\"Brien", "Zoë Ñúñez", "Multi\nLine Name", "Last Row");
+    }
+
+    @Test
+    void restartResumesAtSavedPosition() throws Exception {
+        MappedPersonItemReader reader = reader(CSV, 32);
+        ExecutionContext context = new ExecutionContext();
+        reader.open(context);
+        reader.read();
+        reader.read();
+        reader.update(context);
+        reader.close();
+
+        MappedPersonItemReader restarted = reader(CSV, 32);
+        restarted.open(context);
+        List<String> names = new ArrayList<>();
+        Person person;
+        while ((person = restarted.read()) != null) {
+            names.add(person.getFullName());
+        }
+        restarted.close();
+
+        assertThat(names).containsExactly("Zoë Ñúñez", "Multi\nLine Name", "Last Row");
+    }
+
+    @Test
+    void malformedRecordFailsAloneAndReadingContinues() throws Exception {
+        MappedPersonItemReader reader = reader("firstName,lastName\nOnlyOne\nJane,Roe\n", 64);
+        reader.open(new ExecutionContext());
+
+        assertThatThrownBy(reader::read).isInstanceOf(FlatFileParseException.class);
+        assertThat(reader.read().getFullName()).isEqualTo("Jane Roe");
+        assertThat(reader.read()).isNull();
+        reader.close();
+    }
+
+    private MappedPersonItemReader reader(String content, int windowSize) throws Exception {
+        Path file = tempDir.resolve("persons-" + windowSize + ".csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        MappedPersonItemReader reader = new MappedPersonItemReader(new FileSystemResource(file), 1, windowSize);
+        reader.setName("reader");
+        return reader;
+    }
+
+    private List<String> readAll(MappedPersonItemReader reader) throws Exception {
+        reader.open(new ExecutionContext());
+        List<String> names = new ArrayList<>();
+        Person person;
+        while ((person = reader.read()) != null) {
+            names.add(person.getFullName());
+        }
+        reader.close();
+        return names;
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.spring_batch.infrastructure.batch.writer;
+
+import com.example.spring_batch.domain.model.Person;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.core.step.skip.LimitCheckingItemSkipPolicy;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+class BisectingItemWriterTests {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private StepExecution stepExecution;
+    private final List<Integer> writtenChunkSizes = new ArrayList<>();
+
+    @BeforeEach
+    void startStep() {
+        jdbcTemplate.update("DELETE FROM persons");
+        stepExecution = new StepExecution("importPersonsStep", new JobExecution(1L), 2L);
+        StepSynchronizationManager.register(stepExecution);
+    }
+
+    @AfterEach
+    void endStep() {
+        StepSynchronizationManager.close();
+        jdbcTemplate.update("DELETE FROM persons");
+    }
+
+    @Test
+    void bisectsUnderTheTransactionManagerOfTheApplication() {
+        // does not allow nested transactions, so savepoints have to come from the connection
+        assertThat(transactionManager).isInstanceOf(JpaTransactionManager.class);
+    }
+
+    @Test
+    void skipsOnlyTheFailingItemsAndCommitsTheRest() {
+        Chunk<Person> chunk = chunk(64, 17, 50);
+
+        inTransaction(writer(10, jdbcWriter()), chunk);
+
+        assertThat(countPersons()).isEqualTo(62);
+        assertThat(chunk.size()).isEqualTo(62);
+        assertThat(chunk.getSkips()).extracting(skip -> skip.getItem().getFirstName())
+                .containsExactlyInAnyOrder("First17", "First50");
+        assertThat(stepExecution.getWriteSkipCount()).isEqualTo(2);
+        // whole chunk, then about two writes per level on the way down to each failing item
+        assertThat(writtenChunkSizes.size()).isLessThan(30);
+    }
+
+    @Test
+    void rethrowsWhenTheSkipLimitIsReached() {
+        Chunk<Person> chunk = chunk(16, 3, 9);
+
+        assertThatThrownBy(() -> inTransaction(writer(1, jdbcWriter()), chunk))
+                .isInstanceOf(DataIntegrityViolationException.class);
+
+        assertThat(countPersons()).isZero();
+        assertThat(chunk.getItems()).allSatisfy(person -> assertThat(person.getId()).isNull());
+        assertThat(stepExecution.getWriteSkipCount()).isZero();
+    }
+
+    @Test
+    void takesBackTheIdsOfRolledBackAttempts() {
+        Chunk<Person> chunk = chunk(32);
+        Person failing = chunk.getItems().get(20);
+        PersonJdbcBatchItemWriter jdbcWriter = jdbcWriter();
+        // the rows are inserted before the failure, as with a composite writer whose second part fails
+        ItemWriter<Person> delegate = items -> {
+            jdbcWriter.write(items);
+            if (items.getItems().contains(failing)) {
+                throw new IllegalStateException("second writer failed");
+            }
+        };
+
+        inTransaction(writer(10, delegate), chunk);
+
+        assertThat(countPersons()).isEqualTo(31);
+        assertThat(chunk.getItems()).allSatisfy(person -> assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM persons WHERE id = ?", Long.class, person.getId())).isEqualTo(1));
+        assertThat(failing.getId()).isNull();
+    }
+
+    @Test
+    void failsFastWithoutASavepointOnTheChunkConnection() {
+        DriverManagerDataSource otherDataSource = new DriverManagerDataSource("jdbc:h2:mem:bisect-other", "sa", "");
+        Chunk<Person> chunk = chunk(8);
+        BisectingItemWriter writer = new BisectingItemWriter(jdbcWriter(), otherDataSource,
+                new LimitCheckingItemSkipPolicy(10, Map.of(Exception.class, true)));
+
+        assertThatThrownBy(() -> inTransaction(writer, chunk))
+                .isInstanceOf(CannotCreateTransactionException.class);
+
+        assertThat(countPersons()).isZero();
+        assertThat(chunk.getSkips()).isEmpty();
+    }
+
+    private PersonJdbcBatchItemWriter jdbcWriter() {
+        return new PersonJdbcBatchItemWriter(jdbcTemplate, 100);
+    }
+
+    private BisectingItemWriter writer(int skipLimit, ItemWriter<Person> delegate) {
+        return new BisectingItemWriter(items -> {
+            writtenChunkSizes.add(items.size());
+            delegate.write(items);
+        }, dataSource, new LimitCheckingItemSkipPolicy(skipLimit, Map.of(Exception.class, true)));
+    }
+
+    private void inTransaction(BisectingItemWriter writer, Chunk<Person> chunk) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> write(writer, chunk));
+    }
+
+    private long countPersons() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM persons", Long.class);
+    }
+
+    /**
+     * Persons with unique emails, except the given positions, which repeat the email of person 0
+     */
+    private static Chunk<Person> chunk(int size, int... duplicates) {
+        Chunk<Person> chunk = new Chunk<>();
+        for (int i = 0; i < size; i++) {
+            Person person = new Person();
+            person.setFirstName("First" + i);
+            person.setLastName("Last");
+            person.setEmail("person" + i + "@example.com");
+            chunk.add(person);
+        }
+        List<Person> items = chunk.getItems();
+        for (int duplicate : duplicates) {
+            items.get(duplicate).setEmail("person0@example.com");
+        }
+        return chunk;
+    }
+
+    private static void write(BisectingItemWriter writer, Chunk<Person> chunk) {
+        try {
+            writer.write(chunk);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.spring_batch.infrastructure.batch.writer;
+
+import com.example.spring_batch.domain.model.Person;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PersonCopyItemWriterTests {
+
+    @Test
+    void encodesRowsInPostgresBinaryCopyFormat() throws Exception {
+        Person first = Person.builder()
+                .id(UUID.fromString("00112233-4455-6677-8899-aabbccddeeff"))
+                .firstName("Ana")
+                .lastName("Lü")
+                .email("a@b")
+                .createdAt(LocalDateTime.of(2000, 1, 1, 0, 0, 1))
+                .build();
+        Person second = Person.builder()
+                .id(new UUID(0, 1))
+                .firstName("B")
+                .lastName("C")
+                .createdAt(LocalDateTime.of(1999, 12, 31, 23, 59, 59, 999_999_000))
+                .updatedAt(LocalDateTime.of(2000, 1, 1, 0, 0))
+                .build();
+
+        String expected = ""
+                // signature, flags, header extension length
+                + "5047434f50590aff0d0a00" + "00000000" + "00000000"
+                // field count, uuid
+                + "0006" + "00000010" + "00112233445566778899aabbccddeeff"
+                // first and last name as UTF-8 with byte lengths, email
+                + "00000003" + "416e61" + "00000003" + "4cc3bc" + "00000003" + "614062"
+                // created_at one second after 2000-01-01 in microseconds, updated_at null
+                + "00000008" + "00000000000f4240" + "ffffffff"
+                + "0006" + "00000010" + "00000000000000000000000000000001"
+                // email null
+                + "00000001" + "42" + "00000001" + "43" + "ffffffff"
+                // one microsecond before the epoch, then the epoch itself
+                + "00000008" + "ffffffffffffffff" + "00000008" + "0000000000000000"
+                // trailer
+                + "ffff";
+
+        assertThat(HexFormat.of().formatHex(PersonCopyItemWriter.encode(List.of(first, second)))).isEqualTo(expected);
+    }
+}
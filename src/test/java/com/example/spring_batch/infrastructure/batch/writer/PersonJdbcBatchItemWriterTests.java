@@ -0,0 +1,128 @@
+package com.example.spring_batch.infrastructure.batch.writer;
+
+import com.example.spring_batch.domain.model.Person;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.Chunk;
+import org.springframework.jdbc.JdbcUpdateAffectedIncorrectNumberOfRowsException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PersonJdbcBatchItemWriterTests {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void createTable() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:jdbcwriter;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE persons ("
+                + "id UUID PRIMARY KEY, "
+                + "first_name VARCHAR(100) NOT NULL, "
+                + "last_name VARCHAR(100) NOT NULL, "
+                + "email VARCHAR(255) UNIQUE, "
+                + "created_at TIMESTAMP NOT NULL, "
+                + "updated_at TIMESTAMP)");
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @AfterEach
+    void dropTable() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void insertsNewPersonsInFullAndPartialStatements() {
+        List<Person> persons = persons(7);
+
+        write(new PersonJdbcBatchItemWriter(jdbcTemplate, 3), persons);
+
+        assertThat(persons).allSatisfy(person -> assertThat(person.getId()).isNotNull());
+        assertThat(jdbcTemplate.queryForList("SELECT email FROM persons ORDER BY email", String.class))
+                .containsExactly("p0@example.com", "p1@example.com", "p2@example.com", "p3@example.com",
+                        "p4@example.com", "p5@example.com", "p6@example.com");
+    }
+
+    @Test
+    void updatesPersonsThatCarryAnId() {
+        List<Person> persons = persons(2);
+        PersonJdbcBatchItemWriter writer = new PersonJdbcBatchItemWriter(jdbcTemplate, 100);
+        write(writer, persons);
+
+        persons.get(1).setLastName("Renamed");
+        write(writer, List.of(persons.get(1)));
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM persons", Long.class)).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("SELECT last_name FROM persons WHERE id = ?", String.class,
+                persons.get(1).getId())).isEqualTo("Renamed");
+    }
+
+    @Test
+    void failsWhenAnUpdateMatchesNoRow() {
+        Person missing = persons(1).get(0);
+        missing.setId(UUID.randomUUID());
+
+        assertThatThrownBy(() -> write(new PersonJdbcBatchItemWriter(jdbcTemplate, 100), List.of(missing)))
+                .isInstanceOf(JdbcUpdateAffectedIncorrectNumberOfRowsException.class);
+    }
+
+    @Test
+    void takesBackAssignedIdsWhenTheTransactionRollsBackAfterTheWrite() {
+        List<Person> persons = persons(3);
+        PersonJdbcBatchItemWriter writer = new PersonJdbcBatchItemWriter(jdbcTemplate, 100);
+
+        // a later writer of the chunk fails after the rows were written
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            write(writer, persons);
+            throw new IllegalStateException("statistics update failed");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(persons).allSatisfy(person -> assertThat(person.getId()).isNull());
+
+        // the retried chunk inserts the same objects again
+        transactionTemplate.executeWithoutResult(status -> write(writer, persons));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM persons", Long.class)).isEqualTo(3);
+    }
+
+    @Test
+    void takesBackAssignedIdsWhenTheInsertFails() {
+        List<Person> persons = persons(3);
+        persons.get(2).setEmail(persons.get(0).getEmail());
+
+        assertThatThrownBy(() -> write(new PersonJdbcBatchItemWriter(jdbcTemplate, 100), persons))
+                .isInstanceOf(RuntimeException.class);
+
+        assertThat(persons).allSatisfy(person -> assertThat(person.getId()).isNull());
+    }
+
+    private static List<Person> persons(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> Person.builder()
+                        .firstName("First" + i)
+                        .lastName("Last")
+                        .email("p" + i + "@example.com")
+                        .build())
+                .toList();
+    }
+
+    private static void write(PersonJdbcBatchItemWriter writer, List<Person> persons) {
+        try {
+            writer.write(new Chunk<>(persons));
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
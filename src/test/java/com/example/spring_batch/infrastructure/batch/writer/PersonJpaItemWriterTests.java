@@ -0,0 +1,84 @@
+package com.example.spring_batch.infrastructure.batch.writer;
+
+import com.example.spring_batch.domain.model.Person;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.support.CompositeItemWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+class PersonJpaItemWriterTests {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    @AfterEach
+    void deletePersons() {
+        jdbcTemplate.update("DELETE FROM persons");
+    }
+
+    @Test
+    void takesBackAssignedIdsWhenALaterWriterFails() {
+        List<Person> persons = persons(3);
+        PersonJpaItemWriter writer = new PersonJpaItemWriter(entityManagerFactory);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // the statistics writer after the person writer fails once the rows were flushed
+        CompositeItemWriter<Person> failing = new CompositeItemWriter<Person>(writer, chunk -> {
+            throw new IllegalStateException("statistics update failed");
+        });
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> write(failing, persons)))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(persons).allSatisfy(person -> assertThat(person.getId()).isNull());
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM persons", Long.class)).isZero();
+
+        // the retried chunk persists the same objects again instead of merging them
+        transactionTemplate.executeWithoutResult(status -> write(writer, persons));
+        assertThat(persons).allSatisfy(person -> assertThat(person.getId()).isNotNull());
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM persons", Long.class)).isEqualTo(3);
+    }
+
+    private static List<Person> persons(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> Person.builder()
+                        .firstName("First" + i)
+                        .lastName("Last")
+                        .email("jpa" + i + "@example.com")
+                        .build())
+                .toList();
+    }
+
+    private static void write(ItemWriter<Person> writer, List<Person> persons) {
+        try {
+            writer.write(new Chunk<>(persons));
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.spring_batch.infrastructure.batch.writer;
+
+import com.example.spring_batch.domain.model.Person;
+import com.example.spring_batch.domain.model.PersonStatistic;
+import com.example.spring_batch.infrastructure.persistence.DatabasePlatform;
+import com.example.spring_batch.infrastructure.persistence.PersonStatisticsStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.item.Chunk;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PersonUpsertItemWriterTests {
+
+    private JdbcTemplate jdbcTemplate;
+    private PersonUpsertItemWriter writer;
+    private StepExecution stepExecution;
+
+    @BeforeEach
+    void createTables() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:upsert;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE persons ("
+                + "id UUID PRIMARY KEY, "
+                + "first_name VARCHAR(100) NOT NULL, "
+                + "last_name VARCHAR(100) NOT NULL, "
+                + "email VARCHAR(255) UNIQUE, "
+                + "created_at TIMESTAMP NOT NULL, "
+                + "updated_at TIMESTAMP)");
+        jdbcTemplate.execute("CREATE TABLE person_statistics (stat_name VARCHAR(255) PRIMARY KEY, stat_value BIGINT NOT NULL)");
+        DatabasePlatform databasePlatform = new DatabasePlatform(dataSource);
+        writer = new PersonUpsertItemWriter(jdbcTemplate,
+                new PersonStatisticsStore(jdbcTemplate, databasePlatform, null, null), databasePlatform.isPostgreSql());
+        stepExecution = new StepExecution("importPersonsStep", new JobExecution(1L), 2L);
+        StepSynchronizationManager.register(stepExecution);
+    }
+
+    @AfterEach
+    void dropTables() {
+        StepSynchronizationManager.close();
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void insertsNewRowsAndUpdatesOnlyChangedOnes() throws Exception {
+        Person jane = person("Jane", "Roe");
+        writer.write(Chunk.of(person("John", "Doe"), jane, person("Max", "Moe")));
+        LocalDateTime unchangedUpdatedAt = updatedAt(jane.getEmail());
+
+        // same generated email, different names
+        Person renamed = person("JOHN", "Doe");
+        writer.write(Chunk.of(renamed, person("Jane", "Roe"), person("Ann", "Poe")));
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM persons", Long.class)).isEqualTo(4);
+        assertThat(jdbcTemplate.queryForObject("SELECT first_name FROM persons WHERE email = ?",
+                String.class, renamed.getEmail())).isEqualTo("JOHN");
+        assertThat(updatedAt(jane.getEmail())).isEqualTo(unchangedUpdatedAt);
+        assertThat(renamed.getId()).isEqualTo(jdbcTemplate.queryForObject(
+                "SELECT id FROM persons WHERE email = ?", UUID.class, renamed.getEmail()));
+
+        assertThat(stepExecution.getExecutionContext().getLong(PersonUpsertItemWriter.INSERTED_KEY)).isEqualTo(4);
+        assertThat(stepExecution.getExecutionContext().getLong(PersonUpsertItemWriter.UPDATED_KEY)).isEqualTo(1);
+        assertThat(stepExecution.getExecutionContext().getLong(PersonUpsertItemWriter.UNCHANGED_KEY)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT stat_value FROM person_statistics WHERE stat_name = ?",
+                Long.class, PersonStatistic.TOTAL)).isEqualTo(4);
+    }
+
+    @Test
+    void keepsTheLastRowOfAnEmailWithinAChunk() throws Exception {
+        Person first = person("Lee", "Doe");
+        Person last = person("LEE", "Doe");
+
+        writer.write(Chunk.of(first, last));
+
+        assertThat(jdbcTemplate.queryForObject("SELECT first_name FROM persons WHERE email = ?",
+                String.class, first.getEmail())).isEqualTo("LEE");
+        assertThat(first.getId()).isEqualTo(last.getId());
+    }
+
+    private LocalDateTime updatedAt(String email) {
+        return jdbcTemplate.queryForObject("SELECT updated_at FROM persons WHERE email = ?", LocalDateTime.class, email);
+    }
+
+    private static Person person(String firstName, String lastName) {
+        Person person = new Person();
+        person.setFirstName(firstName);
+        person.setLastName(lastName);
+        person.generateEmail();
+        return person;
+    }
+}
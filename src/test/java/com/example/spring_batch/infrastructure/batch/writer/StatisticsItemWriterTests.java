@@ -0,0 +1,81 @@
+package com.example.spring_batch.infrastructure.batch.writer;
+
+import com.example.spring_batch.domain.model.Person;
+import com.example.spring_batch.domain.model.PersonStatistic;
+import com.example.spring_batch.infrastructure.persistence.DatabasePlatform;
+import com.example.spring_batch.infrastructure.persistence.PersonStatisticsStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.item.Chunk;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatisticsItemWriterTests {
+
+    private JdbcTemplate jdbcTemplate;
+    private StatisticsItemWriter writer;
+
+    @BeforeEach
+    void createTables() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:statisticswriter;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE persons ("
+                + "id UUID PRIMARY KEY, "
+                + "first_name VARCHAR(100) NOT NULL, "
+                + "last_name VARCHAR(100) NOT NULL, "
+                + "email VARCHAR(255) UNIQUE, "
+                + "created_at TIMESTAMP NOT NULL, "
+                + "updated_at TIMESTAMP)");
+        jdbcTemplate.execute("CREATE TABLE person_statistics (stat_name VARCHAR(255) PRIMARY KEY, stat_value BIGINT NOT NULL)");
+        PersonStatisticsStore store = new PersonStatisticsStore(jdbcTemplate, new DatabasePlatform(dataSource), null, null);
+        writer = new StatisticsItemWriter(new PersonJdbcBatchItemWriter(jdbcTemplate, 100), store);
+    }
+
+    @AfterEach
+    void dropTables() {
+        StepSynchronizationManager.close();
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void countsInsertsTowardsTheTotalsAndEveryWrittenRowTowardsTheJobExecution() throws Exception {
+        Person existing = person("existing@example.com");
+        writer.write(new Chunk<>(List.of(existing)));
+        existing.setLastName("Updated");
+
+        StepSynchronizationManager.register(new StepExecution("importPersonsStep", new JobExecution(42L)));
+        writer.write(new Chunk<>(List.of(existing, person("new@test.org"))));
+
+        assertThat(statistics()).containsExactlyInAnyOrderEntriesOf(Map.of(
+                PersonStatistic.TOTAL, 2L,
+                PersonStatistic.domain("example.com"), 1L,
+                PersonStatistic.domain("test.org"), 1L,
+                PersonStatistic.jobExecution(42), 2L));
+    }
+
+    @Test
+    void skipsTheJobExecutionCounterOutsideOfAStep() throws Exception {
+        writer.write(new Chunk<>(List.of(person("a@example.com"))));
+
+        assertThat(statistics()).containsOnlyKeys(PersonStatistic.TOTAL, PersonStatistic.domain("example.com"));
+    }
+
+    private Map<String, Long> statistics() {
+        return jdbcTemplate.queryForList("SELECT stat_name, stat_value FROM person_statistics").stream()
+                .collect(Collectors.toMap(row -> (String) row.get("STAT_NAME"), row -> ((Number) row.get("STAT_VALUE")).longValue()));
+    }
+
+    private static Person person(String email) {
+        return Person.builder().firstName("F").lastName("L").email(email).build();
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.spring_batch.infrastructure.persistence;
+
+import com.example.spring_batch.domain.model.ImportWorkUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImportWorkQueueTests {
+
+    private static final Duration LEASE = Duration.ofMinutes(1);
+
+    private JdbcTemplate jdbcTemplate;
+    private ImportWorkQueue workQueue;
+    private StepExecution manager;
+
+    @BeforeEach
+    void createQueue() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:work-queue;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE import_work_units ("
+                + "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                + "job_execution_id BIGINT NOT NULL, "
+                + "manager_step_execution_id BIGINT NOT NULL, "
+                + "step_execution_id BIGINT NOT NULL UNIQUE, "
+                + "partition_name VARCHAR(255) NOT NULL, "
+                + "status VARCHAR(16) NOT NULL, "
+                + "owner VARCHAR(255), "
+                + "attempts INT NOT NULL, "
+                + "lease_expires_at TIMESTAMP, "
+                + "heartbeat_at TIMESTAMP, "
+                + "error VARCHAR(2500), "
+                + "created_at TIMESTAMP NOT NULL, "
+                + "updated_at TIMESTAMP NOT NULL)");
+        workQueue = new ImportWorkQueue(jdbcTemplate, new DatabasePlatform(dataSource));
+
+        JobExecution jobExecution = new JobExecution(1L);
+        manager = new StepExecution("importPersonsStep", jobExecution, 10L);
+        List<StepExecution> partitions = new ArrayList<>();
+        for (long id = 11; id <= 20; id++) {
+            partitions.add(new StepExecution("importPersonsWorkerStep:partition" + id, jobExecution, id));
+        }
+        workQueue.enqueue(manager, partitions);
+    }
+
+    @AfterEach
+    void dropTable() {
+        jdbcTemplate.execute("DROP TABLE import_work_units");
+    }
+
+    @Test
+    void concurrentWorkersClaimEveryUnitOnce() throws Exception {
+        Set<Long> claimed = ConcurrentHashMap.newKeySet();
+        List<Long> duplicates = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int worker = 0; worker < 4; worker++) {
+                String owner = "node-" + worker;
+                workers.add(executor.submit(() -> {
+                    Optional<ImportWorkQueue.Claim> claim;
+                    while ((claim = workQueue.claim(owner, LEASE, 3)).isPresent()) {
+                        if (!claimed.add(claim.get().stepExecutionId())) {
+                            synchronized (duplicates) {
+                                duplicates.add(claim.get().stepExecutionId());
+                            }
+                        }
+                        assertThat(workQueue.finish(claim.get().id(), owner, ImportWorkUnit.Status.COMPLETED, null)).isTrue();
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(duplicates).isEmpty();
+        assertThat(claimed).hasSize(10);
+        assertThat(workQueue.states(manager.getId()).values()).allMatch(ImportWorkQueue.UnitState::isFinished);
+    }
+
+    @Test
+    void expiredLeaseIsClaimedAgainUntilAttemptsRunOut() throws Exception {
+        jdbcTemplate.update("DELETE FROM import_work_units WHERE step_execution_id > 11");
+        ImportWorkQueue.Claim first = workQueue.claim("dead-node", Duration.ZERO, 2).orElseThrow();
+        Thread.sleep(5);
+
+        ImportWorkQueue.Claim second = workQueue.claim("live-node", Duration.ZERO, 2).orElseThrow();
+        assertThat(second.id()).isEqualTo(first.id());
+        assertThat(second.attempts()).isEqualTo(2);
+        assertThat(workQueue.heartbeat(first.id(), "dead-node", LEASE)).isFalse();
+        assertThat(workQueue.finish(first.id(), "dead-node", ImportWorkUnit.Status.COMPLETED, null)).isFalse();
+
+        Thread.sleep(5);
+        assertThat(workQueue.claim("third-node", LEASE, 2)).isEmpty();
+        assertThat(workQueue.expireLeases(2)).isEqualTo(1);
+        assertThat(workQueue.states(manager.getId()).get(11L).status()).isEqualTo(ImportWorkUnit.Status.FAILED);
+    }
+
+    @Test
+    void releasedUnitIsPendingWithoutUsingAnAttempt() {
+        ImportWorkQueue.Claim claim = workQueue.claim("node", LEASE, 1).orElseThrow();
+
+        assertThat(workQueue.release(claim.id(), "node")).isTrue();
+
+        ImportWorkQueue.Claim again = workQueue.claim("other-node", LEASE, 1).orElseThrow();
+        assertThat(again.id()).isEqualTo(claim.id());
+        assertThat(again.attempts()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.spring_batch.infrastructure.persistence;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JobMetadataStoreTests {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    private JdbcTemplate jdbcTemplate;
+    private JobMetadataStore store;
+
+    @BeforeEach
+    void createTables() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:job-metadata;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE BATCH_JOB_INSTANCE (JOB_INSTANCE_ID BIGINT PRIMARY KEY)");
+        jdbcTemplate.execute("CREATE TABLE BATCH_JOB_EXECUTION (JOB_EXECUTION_ID BIGINT PRIMARY KEY, "
+                + "JOB_INSTANCE_ID BIGINT NOT NULL REFERENCES BATCH_JOB_INSTANCE, END_TIME TIMESTAMP)");
+        jdbcTemplate.execute("CREATE TABLE BATCH_JOB_EXECUTION_PARAMS (JOB_EXECUTION_ID BIGINT NOT NULL REFERENCES BATCH_JOB_EXECUTION)");
+        jdbcTemplate.execute("CREATE TABLE BATCH_JOB_EXECUTION_CONTEXT (JOB_EXECUTION_ID BIGINT PRIMARY KEY REFERENCES BATCH_JOB_EXECUTION)");
+        jdbcTemplate.execute("CREATE TABLE BATCH_STEP_EXECUTION (STEP_EXECUTION_ID BIGINT PRIMARY KEY, "
+                + "JOB_EXECUTION_ID BIGINT NOT NULL REFERENCES BATCH_JOB_EXECUTION)");
+        jdbcTemplate.execute("CREATE TABLE BATCH_STEP_EXECUTION_CONTEXT (STEP_EXECUTION_ID BIGINT PRIMARY KEY REFERENCES BATCH_STEP_EXECUTION)");
+        jdbcTemplate.execute("CREATE TABLE import_work_units (id BIGINT PRIMARY KEY, job_execution_id BIGINT NOT NULL)");
+        store = new JobMetadataStore(jdbcTemplate, new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+
+        // executions 1..10 ended 10..1 days ago, execution 11 is still running
+        for (long id = 1; id <= 11; id++) {
+            LocalDateTime endTime = id <= 10 ? NOW.minusDays(11 - id) : null;
+            jdbcTemplate.update("INSERT INTO BATCH_JOB_INSTANCE VALUES (?)", id);
+            jdbcTemplate.update("INSERT INTO BATCH_JOB_EXECUTION VALUES (?, ?, ?)",
+                    id, id, endTime != null ? Timestamp.valueOf(endTime) : null);
+            jdbcTemplate.update("INSERT INTO BATCH_JOB_EXECUTION_PARAMS VALUES (?)", id);
+            jdbcTemplate.update("INSERT INTO BATCH_JOB_EXECUTION_CONTEXT VALUES (?)", id);
+            for (long step = 0; step < 3; step++) {
+                jdbcTemplate.update("INSERT INTO BATCH_STEP_EXECUTION VALUES (?, ?)", id * 10 + step, id);
+                jdbcTemplate.update("INSERT INTO BATCH_STEP_EXECUTION_CONTEXT VALUES (?)", id * 10 + step);
+            }
+            jdbcTemplate.update("INSERT INTO import_work_units VALUES (?, ?)", id, id);
+        }
+    }
+
+    @AfterEach
+    void dropTables() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void purgesEndedExecutionsPastTheCutoffInBatches() {
+        JobMetadataStore.PurgeResult result = store.purge(NOW.minusDays(3).plusHours(1), 0, 3);
+
+        // executions 1..8 ended 10..3 days ago
+        assertThat(result).isEqualTo(new JobMetadataStore.PurgeResult(8, 24, 8));
+        assertThat(jdbcTemplate.queryForList("SELECT JOB_EXECUTION_ID FROM BATCH_JOB_EXECUTION ORDER BY 1", Long.class))
+                .containsExactly(9L, 10L, 11L);
+        assertThat(count("BATCH_STEP_EXECUTION_CONTEXT")).isEqualTo(9);
+        assertThat(count("BATCH_JOB_EXECUTION_PARAMS")).isEqualTo(3);
+        assertThat(count("import_work_units")).isEqualTo(3);
+        assertThat(count("BATCH_JOB_INSTANCE")).isEqualTo(3);
+    }
+
+    @Test
+    void keepsTheLatestExecutionsAndRunningOnes() {
+        JobMetadataStore.PurgeResult result = store.purge(NOW.plusDays(1), 5, 100);
+
+        assertThat(result.jobExecutions()).isEqualTo(6);
+        assertThat(jdbcTemplate.queryForList("SELECT JOB_EXECUTION_ID FROM BATCH_JOB_EXECUTION ORDER BY 1", Long.class))
+                .containsExactly(7L, 8L, 9L, 10L, 11L);
+        assertThat(store.purge(NOW.plusDays(1), 20, 100).jobExecutions()).isZero();
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+}
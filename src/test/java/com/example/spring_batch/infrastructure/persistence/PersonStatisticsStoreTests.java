@@ -0,0 +1,120 @@
+package com.example.spring_batch.infrastructure.persistence;
+
+import com.example.spring_batch.domain.model.Person;
+import com.example.spring_batch.domain.model.PersonStatistic;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PersonStatisticsStoreTests {
+
+    private JdbcTemplate jdbcTemplate;
+    private PersonStatisticsStore store;
+
+    @BeforeEach
+    void createTables() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:statistics;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE persons ("
+                + "id UUID PRIMARY KEY, "
+                + "first_name VARCHAR(100) NOT NULL, "
+                + "last_name VARCHAR(100) NOT NULL, "
+                + "email VARCHAR(255) UNIQUE, "
+                + "created_at TIMESTAMP NOT NULL, "
+                + "updated_at TIMESTAMP)");
+        jdbcTemplate.execute("CREATE TABLE person_statistics (stat_name VARCHAR(255) PRIMARY KEY, stat_value BIGINT NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE BATCH_STEP_EXECUTION ("
+                + "STEP_EXECUTION_ID BIGINT PRIMARY KEY, STEP_NAME VARCHAR(100), JOB_EXECUTION_ID BIGINT, WRITE_COUNT BIGINT)");
+        store = new PersonStatisticsStore(jdbcTemplate, new DatabasePlatform(dataSource), null, null);
+    }
+
+    @AfterEach
+    void dropTables() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void countsInsertedPersonsByDomainAndRowsWrittenByTheJob() {
+        store.recordWritten(List.of(person("a@example.com"), person("b@example.com"), person("c@test.org")), 7L, 3);
+        // a second chunk of the same job with one insert and one update
+        store.recordWritten(List.of(person("d@test.org")), 7L, 2);
+
+        assertThat(statistics()).containsExactlyInAnyOrderEntriesOf(Map.of(
+                PersonStatistic.TOTAL, 4L,
+                PersonStatistic.domain("example.com"), 2L,
+                PersonStatistic.domain("test.org"), 2L,
+                PersonStatistic.jobExecution(7), 5L));
+    }
+
+    @Test
+    void countsOnlyTheJobExecutionForChunksOfUpdates() {
+        store.recordWritten(List.of(), 7L, 4);
+
+        assertThat(statistics()).containsExactlyEntriesOf(Map.of(PersonStatistic.jobExecution(7), 4L));
+    }
+
+    @Test
+    void movesAPersonBetweenDomainsWhenItsEmailChanges() {
+        store.recordWritten(List.of(person("a@example.com"), person("b@example.com")), null, 2);
+
+        store.recordEmailChange("a@example.com", "a@test.org");
+        store.recordEmailChange("b@example.com", "bee@example.com");
+
+        assertThat(statistics()).containsExactlyInAnyOrderEntriesOf(Map.of(
+                PersonStatistic.TOTAL, 2L,
+                PersonStatistic.domain("example.com"), 1L,
+                PersonStatistic.domain("test.org"), 1L));
+    }
+
+    @Test
+    void rebuildsCountersFromPersonsAndStepExecutions() {
+        insertPerson("a@example.com");
+        insertPerson("b@example.com");
+        insertPerson("c@test.org");
+        insertPerson(null);
+        jdbcTemplate.update("INSERT INTO BATCH_STEP_EXECUTION VALUES (1, 'importPersonsStep', 3, 4)");
+        // partition steps are counted by their manager step
+        jdbcTemplate.update("INSERT INTO BATCH_STEP_EXECUTION VALUES (2, 'importPersonsWorkerStep:partition0', 3, 4)");
+        jdbcTemplate.update("INSERT INTO person_statistics VALUES ('persons.domain.stale.com', 9)");
+
+        assertThat(store.rebuild()).isEqualTo(4);
+
+        assertThat(statistics()).containsExactlyInAnyOrderEntriesOf(Map.of(
+                PersonStatistic.TOTAL, 4L,
+                PersonStatistic.domain("example.com"), 2L,
+                PersonStatistic.domain("test.org"), 1L,
+                PersonStatistic.jobExecution(3), 4L));
+    }
+
+    @Test
+    void extractsTheDomainAfterTheLastAt() {
+        assertThat(PersonStatisticsStore.domainOf("a@b@example.com")).isEqualTo("example.com");
+        assertThat(PersonStatisticsStore.domainOf("no-domain@")).isNull();
+        assertThat(PersonStatisticsStore.domainOf("plain")).isNull();
+        assertThat(PersonStatisticsStore.domainOf(null)).isNull();
+    }
+
+    private Map<String, Long> statistics() {
+        return jdbcTemplate.queryForList("SELECT stat_name, stat_value FROM person_statistics").stream()
+                .collect(Collectors.toMap(row -> (String) row.get("STAT_NAME"), row -> ((Number) row.get("STAT_VALUE")).longValue()));
+    }
+
+    private void insertPerson(String email) {
+        jdbcTemplate.update("INSERT INTO persons (id, first_name, last_name, email, created_at) VALUES (?, 'F', 'L', ?, ?)",
+                UUID.randomUUID(), email, LocalDateTime.now());
+    }
+
+    private static Person person(String email) {
+        return Person.builder().firstName("F").lastName("L").email(email).build();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.spring_batch.infrastructure.persistence;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SchemaScriptTests {
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void createDataSource() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:schema;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void dropTables() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void runsRepeatedlyOnH2AsTheDevProfileDoes() {
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("schema-postgresql.sql"));
+
+        populator.execute(dataSource);
+        populator.execute(dataSource);
+
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT LOWER(TABLE_NAME) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'PUBLIC'", String.class))
+                .contains("batch_job_execution", "batch_step_execution", "persons", "person_statistics",
+                        "import_work_units", "person_row_hashes", "imported_files");
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT LOWER(INDEX_NAME) FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_SCHEMA = 'PUBLIC'", String.class))
+                .contains("batch_job_exec_running_idx", "idx_persons_created_at_id", "idx_import_work_units_status_id");
+    }
+}
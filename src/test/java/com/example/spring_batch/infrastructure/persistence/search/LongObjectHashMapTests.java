@@ -0,0 +1,34 @@
+package com.example.spring_batch.infrastructure.persistence.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongObjectHashMapTests {
+
+    @Test
+    void matchesJavaMapAcrossResizesAndRemovals() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>(4);
+        Map<Long, String> reference = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            long key = i % 1000 == 0 ? 0L : random.nextLong() % 20_000;
+            if (random.nextInt(3) == 0) {
+                assertThat(map.remove(key)).isEqualTo(reference.remove(key));
+            } else {
+                map.put(key, "v" + i);
+                reference.put(key, "v" + i);
+            }
+        }
+
+        assertThat(map.size()).isEqualTo(reference.size());
+        for (long key = -20_000; key < 20_000; key++) {
+            assertThat(map.get(key)).isEqualTo(reference.get(key));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.spring_batch.infrastructure.persistence.search;
+
+import com.example.spring_batch.domain.model.Person;
+import com.example.spring_batch.domain.repository.PersonRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+class NGramPersonNameSearchTests {
+
+    // same names, ids whose order differs between signed and unsigned comparison
+    private static final UUID LOW_ID = UUID.fromString("00000000-0000-7000-8000-000000000001");
+    private static final UUID HIGH_ID = UUID.fromString("f0000000-0000-7000-8000-000000000001");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    private NGramPersonNameSearch search;
+
+    @BeforeEach
+    void insertPersons() {
+        jdbcTemplate.update("DELETE FROM persons");
+        insert(HIGH_ID, "Ann", "Marsh");
+        insert(LOW_ID, "Ann", "Marsh");
+        insert(UUID.randomUUID(), "Mary", "Ansel");
+        insert(UUID.randomUUID(), "Joanna", "Brook");
+        insert(UUID.randomUUID(), "Peter", "Hannover");
+        insert(UUID.randomUUID(), "Zed", "Quinn");
+        search = new NGramPersonNameSearch(jdbcTemplate, personRepository);
+        search.load();
+    }
+
+    @AfterEach
+    void deletePersons() {
+        jdbcTemplate.update("DELETE FROM persons");
+    }
+
+    @Test
+    void matchesSubstringsOfEitherNameIgnoringCase() {
+        assertThat(names(search.search("ANN", PageRequest.of(0, 10))))
+                .containsExactly("Joanna Brook", "Peter Hannover", "Ann Marsh", "Ann Marsh");
+        // shorter than a trigram, checked against every person
+        assertThat(names(search.search("ar", PageRequest.of(0, 10)))).containsExactly("Mary Ansel", "Ann Marsh", "Ann Marsh");
+        assertThat(names(search.search("xyz", PageRequest.of(0, 10)))).isEmpty();
+    }
+
+    @Test
+    void ordersAndPagesLikeTheDatabaseFallback() {
+        NGramPersonNameSearch notLoaded = new NGramPersonNameSearch(jdbcTemplate, personRepository);
+
+        for (String query : List.of("ann", "an", "a")) {
+            for (int page = 0; page < 3; page++) {
+                Page<Person> indexed = search.search(query, PageRequest.of(page, 2));
+                Page<Person> fallback = notLoaded.search(query, PageRequest.of(page, 2));
+
+                assertThat(ids(indexed)).as("%s page %d", query, page).isEqualTo(ids(fallback));
+                assertThat(indexed.getTotalElements()).isEqualTo(fallback.getTotalElements());
+            }
+        }
+        assertThat(ids(search.search("marsh", PageRequest.of(0, 2)))).containsExactly(LOW_ID, HIGH_ID);
+    }
+
+    @Test
+    void updatesInPlaceWhenPersonsAreSavedAgain() {
+        Person ann = personRepository.findById(LOW_ID).orElseThrow();
+        int documents = search.documentCount();
+        int grams = search.gramCount();
+
+        ann.setLastName("Cooper");
+        jdbcTemplate.update("UPDATE persons SET last_name = 'Cooper' WHERE id = ?", LOW_ID);
+        search.refresh(List.of(ann));
+
+        assertThat(ids(search.search("cooper", PageRequest.of(0, 10)))).containsExactly(LOW_ID);
+        assertThat(ids(search.search("marsh", PageRequest.of(0, 10)))).containsExactly(HIGH_ID);
+
+        ann.setLastName("Marsh");
+        jdbcTemplate.update("UPDATE persons SET last_name = 'Marsh' WHERE id = ?", LOW_ID);
+        for (int i = 0; i < 100; i++) {
+            search.refresh(List.of(ann));
+        }
+        search.load();
+
+        assertThat(search.documentCount()).isEqualTo(documents);
+        assertThat(search.gramCount()).isEqualTo(grams);
+        assertThat(ids(search.search("cooper", PageRequest.of(0, 10)))).isEmpty();
+    }
+
+    private void insert(UUID id, String firstName, String lastName) {
+        jdbcTemplate.update("INSERT INTO persons (id, first_name, last_name, email, created_at) VALUES (?, ?, ?, ?, ?)",
+                id, firstName, lastName, id + "@example.com", LocalDateTime.now());
+    }
+
+    private static List<String> names(Page<Person> page) {
+        return page.getContent().stream().map(Person::getFullName).toList();
+    }
+
+    private static List<UUID> ids(Page<Person> page) {
+        return page.getContent().stream().map(Person::getId).toList();
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.spring_batch.shared.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HashingTests {
+
+    @Test
+    void keepsTheValuesStoredInTheDeltaIndex() {
+        assertThat(Hashing.hash64("")).isEqualTo(0xb9eaf7b35d3975afL);
+        assertThat(Hashing.hash64("a@example.com")).isEqualTo(0xeb1eff3eca9c895cL);
+    }
+}